@@ -0,0 +1,70 @@
+package org.app.musical_philharmonic.archive;
+
+import org.app.musical_philharmonic.entity.TicketStatus;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The list of cold archive files, kept as a small JSON file next to them. Per-status totals are
+ * recorded at export time, so global statistics never have to open an archive file.
+ */
+record ArchiveManifest(List<Entry> files) {
+
+    static final String FILE_NAME = "manifest.json";
+
+    static final ArchiveManifest EMPTY = new ArchiveManifest(List.of());
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    /**
+     * @param tableOid the exported table's OID; a month whose partition is created again after
+     *                 archiving gets a new table and a second file instead of overwriting the first
+     */
+    record Entry(String file, String partition, YearMonth month, long tableOid, int rows, long bytes,
+                 Map<TicketStatus, Long> statuses, Instant archivedAt) {
+    }
+
+    static ArchiveManifest load(Path directory) throws IOException {
+        Path path = directory.resolve(FILE_NAME);
+        if (!Files.exists(path)) {
+            return EMPTY;
+        }
+        return MAPPER.readValue(path.toFile(), ArchiveManifest.class);
+    }
+
+    /**
+     * Writes the manifest to a temporary file and renames it over the old one, so readers and a
+     * crash in between only ever see a complete manifest.
+     */
+    void save(Path directory) throws IOException {
+        Path temp = directory.resolve(FILE_NAME + ".tmp");
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), this);
+        Files.move(temp, directory.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Replaces the entry of a table exported before, by a run that stopped before dropping it
+    ArchiveManifest with(Entry entry) {
+        List<Entry> files = new ArrayList<>(this.files);
+        files.removeIf(f -> f.tableOid() == entry.tableOid());
+        files.add(entry);
+        return new ArchiveManifest(List.copyOf(files));
+    }
+
+    Map<TicketStatus, Long> statuses() {
+        Map<TicketStatus, Long> totals = new EnumMap<>(TicketStatus.class);
+        for (Entry entry : files) {
+            entry.statuses().forEach((status, count) -> totals.merge(status, count, Long::sum));
+        }
+        return totals;
+    }
+}
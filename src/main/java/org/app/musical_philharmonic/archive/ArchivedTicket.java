@@ -0,0 +1,23 @@
+package org.app.musical_philharmonic.archive;
+
+import org.app.musical_philharmonic.entity.TicketStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A ticket row as stored in a cold archive file: the columns of {@code tickets}, nothing joined.
+ */
+public record ArchivedTicket(int id,
+                             int concertId,
+                             LocalDate concertDate,
+                             String seatNumber,
+                             TicketStatus status,
+                             UUID buyerId,
+                             LocalDateTime purchaseTimestamp,
+                             LocalDateTime reservationExpiration,
+                             LocalDateTime returnTime,
+                             String paymentMethod,
+                             String returnReason) {
+}
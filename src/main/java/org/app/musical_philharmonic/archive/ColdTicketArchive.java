@@ -0,0 +1,287 @@
+package org.app.musical_philharmonic.archive;
+
+import jakarta.annotation.PostConstruct;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.app.musical_philharmonic.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cold tier for tickets of past concerts. Whole months are detached by {@link TicketPartitions},
+ * written to a compressed column file ({@link TicketColumnFile}) in the archive directory, listed
+ * in the {@link ArchiveManifest} and then dropped from the database, which keeps {@code tickets}
+ * down to the months still being sold or reported on daily.
+ *
+ * <p>Sales history needs no file access: every sold ticket gets its sale fact before its month
+ * leaves the database. Statistics add the per-status totals recorded in the manifest, and
+ * per-concert figures for an archived month read just the concert and status columns of its file.
+ *
+ * <p>The files are the only copy of an archived month, so nothing is archived until
+ * {@code tickets.archive.dir} names an absolute path, which should be shared, durable storage:
+ * every instance reads the same manifest and reloads it when its modification time changes.
+ */
+@Component
+public class ColdTicketArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(ColdTicketArchive.class);
+
+    private static final String FILE_SUFFIX = ".ptc";
+
+    private static final String ARCHIVED_TABLES = """
+            select c.oid, c.relname
+            from pg_class c
+            join pg_namespace n on n.oid = c.relnamespace
+            where n.nspname = ? and c.relkind = 'r' and c.relname ~ '^tickets_p[0-9]{4}_[0-9]{2}$'
+            order by c.relname
+            """;
+
+    // SaleFactRepository.backfillFromTickets, for one detached month
+    private static final String BACKFILL_SALE_FACTS = """
+            insert into sales_facts (kind, occurred_at, sale_date, ticket_id, concert_id, concert_title, concert_date,
+                                     hall_id, performer_id, buyer_id, buyer_email, seat_number, payment_method, quantity, amount)
+            select 'SALE', t.purchase_timestamp, cast(t.purchase_timestamp as date), t.id, c.id, c.title, c.date,
+                   c.hall_id, c.performer_id, t.buyer_id, u.email, t.seat_number, t.payment_method, 1, c.ticket_price
+            from %s t
+            join concerts c on c.id = t.concert_id
+            left join users u on u.id = t.buyer_id
+            where t.status = 'SOLD'
+              and not exists (select 1 from sales_facts f where f.ticket_id = t.id)
+            """;
+
+    private static final String EXPORT = """
+            select id, concert_id, concert_date, seat_number, status, buyer_id, purchase_timestamp,
+                   reservation_expiration, return_time, payment_method, return_reason
+            from %s
+            order by concert_id, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TicketPartitions partitions;
+    private final TransactionTemplate readOnlyTx;
+    private final Path directory;
+    private final int coldAfterDays;
+
+    private final Object manifestLock = new Object();
+    private volatile LoadedManifest manifest;
+
+    // Per-concert status counts of a file, read on first use; files never change once listed
+    private final Map<String, Map<Integer, Map<TicketStatus, Long>>> concertCounts = new ConcurrentHashMap<>();
+
+    public ColdTicketArchive(JdbcTemplate jdbcTemplate,
+                             TicketPartitions partitions,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${tickets.archive.dir:}") String directory,
+                             @Value("${tickets.archive.cold-after-days:400}") int coldAfterDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = partitions;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.coldAfterDays = coldAfterDays;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (directory == null) {
+            log.info("tickets.archive.dir is not set; archiving to files is off and no archived months are counted");
+            return;
+        }
+        Files.createDirectories(directory);
+        manifest();
+    }
+
+    @Scheduled(cron = "${tickets.archive.cron:-}")
+    public void archiveCold() {
+        archiveBefore(LocalDate.now().minusDays(coldAfterDays));
+    }
+
+    /**
+     * Detaches every month before {@code before} (see {@link TicketPartitions#archiveBefore}) and
+     * moves it, together with anything left in the archive schema by earlier runs, to files.
+     * Safe to repeat after a failure: a table is only dropped once its file and manifest entry
+     * are on disk, and exporting the same table again replaces both.
+     *
+     * @return the files written
+     */
+    public synchronized List<String> archiveBefore(LocalDate before) {
+        if (directory == null || !directory.isAbsolute()) {
+            throw new IllegalStateException("Refusing to archive tickets: tickets.archive.dir must be an absolute path "
+                    + "on shared, durable storage, but is " + (directory == null ? "not set" : "'" + directory + "'"));
+        }
+        partitions.archiveBefore(before);
+        List<String> files = new ArrayList<>();
+        List<Object[]> tables = jdbcTemplate.query(ARCHIVED_TABLES,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2)}, TicketPartitions.ARCHIVE_SCHEMA);
+        for (Object[] table : tables) {
+            try {
+                files.add(export((Long) table[0], (String) table[1]));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot archive " + table[1] + " to " + directory, ex);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Ticket counts by status over every archived month.
+     */
+    public Map<TicketStatus, Long> statusCounts() {
+        return manifest().statuses();
+    }
+
+    /**
+     * Archived ticket counts by status for one concert; empty unless its month is archived.
+     */
+    public Map<TicketStatus, Long> concertCounts(int concertId, LocalDate concertDate) {
+        Map<TicketStatus, Long> counts = new EnumMap<>(TicketStatus.class);
+        YearMonth month = YearMonth.from(concertDate);
+        for (ArchiveManifest.Entry entry : manifest().files()) {
+            if (entry.month().equals(month)) {
+                concertCounts.computeIfAbsent(entry.file(), this::readConcertCounts)
+                        .getOrDefault(concertId, Map.of())
+                        .forEach((status, count) -> counts.merge(status, count, Long::sum));
+            }
+        }
+        return counts;
+    }
+
+    private String export(long oid, String partition) throws IOException {
+        String table = TicketPartitions.ARCHIVE_SCHEMA + "." + partition;
+        int facts = jdbcTemplate.update(BACKFILL_SALE_FACTS.formatted(table));
+
+        TicketColumnFile.Writer writer = new TicketColumnFile.Writer();
+        Map<TicketStatus, Long> statuses = new EnumMap<>(TicketStatus.class);
+        readOnlyTx.executeWithoutResult(tx -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT.formatted(table));
+            ps.setFetchSize(Integer.parseInt(TicketRepository.EXPORT_FETCH_SIZE));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            ArchivedTicket ticket = new ArchivedTicket(
+                    rs.getInt("id"),
+                    rs.getInt("concert_id"),
+                    rs.getObject("concert_date", LocalDate.class),
+                    rs.getString("seat_number"),
+                    TicketStatus.valueOf(rs.getString("status")),
+                    rs.getObject("buyer_id", UUID.class),
+                    rs.getObject("purchase_timestamp", LocalDateTime.class),
+                    rs.getObject("reservation_expiration", LocalDateTime.class),
+                    rs.getObject("return_time", LocalDateTime.class),
+                    rs.getString("payment_method"),
+                    rs.getString("return_reason"));
+            try {
+                writer.add(ticket);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            statuses.merge(ticket.status(), 1L, Long::sum);
+        }));
+
+        String file = partition + "-" + oid + FILE_SUFFIX;
+        Path temp = directory.resolve(file + ".tmp");
+        long bytes = writer.writeTo(temp);
+        Files.move(temp, directory.resolve(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        ArchiveManifest updated = reload().manifest().with(new ArchiveManifest.Entry(file, partition,
+                TicketPartitions.month(partition), oid, writer.rows(), bytes, statuses, Instant.now()));
+        updated.save(directory);
+        concertCounts.remove(file);
+        reload();
+
+        jdbcTemplate.execute("drop table " + table);
+        log.info("Archived {} tickets of {} to {} ({} bytes, {} sale facts backfilled)",
+                writer.rows(), partition, file, bytes, facts);
+        return file;
+    }
+
+    /**
+     * The manifest as last written by any instance: reloaded whenever the file's modification time
+     * or size differs from the copy in memory.
+     */
+    private ArchiveManifest manifest() {
+        if (directory == null) {
+            return ArchiveManifest.EMPTY;
+        }
+        LoadedManifest current = manifest;
+        if (current != null && current.stamp().equals(stamp())) {
+            return current.manifest();
+        }
+        return reload().manifest();
+    }
+
+    // Own lock rather than the instance's, which a running archiveBefore holds for minutes
+    private LoadedManifest reload() {
+        synchronized (manifestLock) {
+            try {
+                String stamp = stamp();
+                LoadedManifest current = manifest;
+                if (current != null && current.stamp().equals(stamp)) {
+                    return current;
+                }
+                LoadedManifest loaded = new LoadedManifest(ArchiveManifest.load(directory), stamp);
+                if (current != null) {
+                    // Another instance may have re-exported a file under the same name
+                    concertCounts.clear();
+                    log.info("Reloaded ticket archive manifest: {} files", loaded.manifest().files().size());
+                }
+                manifest = loaded;
+                return loaded;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot read ticket archive manifest in " + directory, ex);
+            }
+        }
+    }
+
+    private String stamp() {
+        Path path = directory.resolve(ArchiveManifest.FILE_NAME);
+        try {
+            return Files.getLastModifiedTime(path).toMillis() + "/" + Files.size(path);
+        } catch (NoSuchFileException ex) {
+            return "";
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read ticket archive manifest in " + directory, ex);
+        }
+    }
+
+    private record LoadedManifest(ArchiveManifest manifest, String stamp) {
+    }
+
+    private Map<Integer, Map<TicketStatus, Long>> readConcertCounts(String file) {
+        try (TicketColumnFile.Reader reader = new TicketColumnFile.Reader(directory.resolve(file))) {
+            int[] concertIds = reader.ints(TicketColumnFile.CONCERT_ID);
+            String[] statuses = reader.strings(TicketColumnFile.STATUS);
+            Map<Integer, Map<TicketStatus, Long>> counts = new HashMap<>();
+            for (int i = 0; i < concertIds.length; i++) {
+                counts.computeIfAbsent(concertIds[i], id -> new EnumMap<>(TicketStatus.class))
+                        .merge(TicketStatus.valueOf(statuses[i]), 1L, Long::sum);
+            }
+            return counts;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read ticket archive file " + file, ex);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.app.musical_philharmonic.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One-shot maintenance command: archives the ticket partitions of every month before the given
+ * date and exits instead of serving requests. With {@code --tickets.archive.to-files=true} the
+ * months also go on to the cold tier files and leave the database.
+ * <pre>
+ * java -jar musical_philharmonic.jar --spring.main.web-application-type=none \
+ *      --tickets.partitions.archive-before=2024-09-01
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty("tickets.partitions.archive-before")
+public class PartitionArchiveCommand implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionArchiveCommand.class);
+
+    private final TicketPartitions partitions;
+    private final ColdTicketArchive coldArchive;
+    private final ConfigurableApplicationContext context;
+    private final LocalDate before;
+    private final boolean toFiles;
+
+    public PartitionArchiveCommand(TicketPartitions partitions,
+                                   ColdTicketArchive coldArchive,
+                                   ConfigurableApplicationContext context,
+                                   @Value("${tickets.partitions.archive-before}") LocalDate before,
+                                   @Value("${tickets.archive.to-files:false}") boolean toFiles) {
+        this.partitions = partitions;
+        this.coldArchive = coldArchive;
+        this.context = context;
+        this.before = before;
+        this.toFiles = toFiles;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            List<String> archived = toFiles ? coldArchive.archiveBefore(before) : partitions.archiveBefore(before);
+            log.info("Archived {} ticket partitions before {}: {}; still attached: {}",
+                    archived.size(), before, archived, partitions.attached());
+        } catch (RuntimeException ex) {
+            log.error("Archiving ticket partitions before {} failed", before, ex);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
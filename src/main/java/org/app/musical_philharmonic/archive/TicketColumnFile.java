@@ -0,0 +1,411 @@
+package org.app.musical_philharmonic.archive;
+
+import org.app.musical_philharmonic.entity.TicketStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Column-oriented, compressed file of archived tickets.
+ *
+ * <p>Layout: {@code [int magic][short version][int header length][header][column blocks]}. The
+ * header holds the row count and, per column, its name, offset after the header, length and
+ * CRC32C. Every column is a separately deflated block, so a reader inflates only the columns it
+ * asks for. Rows are written sorted by concert and id, which the encodings rely on: integers and
+ * timestamps are zig-zag varint deltas from the previous row, strings are dictionary indexes with
+ * each new word written once inline.
+ */
+final class TicketColumnFile {
+
+    static final int MAGIC = 0x50544346; // "PTCF"
+    static final short VERSION = 1;
+
+    static final String ID = "id";
+    static final String CONCERT_ID = "concert_id";
+    static final String CONCERT_DATE = "concert_date";
+    static final String SEAT_NUMBER = "seat_number";
+    static final String STATUS = "status";
+    static final String BUYER_ID = "buyer_id";
+    static final String PURCHASE_TIMESTAMP = "purchase_timestamp";
+    static final String RESERVATION_EXPIRATION = "reservation_expiration";
+    static final String RETURN_TIME = "return_time";
+    static final String PAYMENT_METHOD = "payment_method";
+    static final String RETURN_REASON = "return_reason";
+
+    private TicketColumnFile() {
+    }
+
+    /**
+     * Buffers rows as compressed columns in memory; {@link #writeTo} lays them out in one file.
+     */
+    static final class Writer {
+
+        private final IntColumn id = new IntColumn(ID);
+        private final IntColumn concertId = new IntColumn(CONCERT_ID);
+        private final IntColumn concertDate = new IntColumn(CONCERT_DATE);
+        private final StringColumn seatNumber = new StringColumn(SEAT_NUMBER);
+        private final StringColumn status = new StringColumn(STATUS);
+        private final UuidColumn buyerId = new UuidColumn(BUYER_ID);
+        private final TimeColumn purchaseTimestamp = new TimeColumn(PURCHASE_TIMESTAMP);
+        private final TimeColumn reservationExpiration = new TimeColumn(RESERVATION_EXPIRATION);
+        private final TimeColumn returnTime = new TimeColumn(RETURN_TIME);
+        private final StringColumn paymentMethod = new StringColumn(PAYMENT_METHOD);
+        private final StringColumn returnReason = new StringColumn(RETURN_REASON);
+        private final List<Column> columns = List.of(id, concertId, concertDate, seatNumber, status, buyerId,
+                purchaseTimestamp, reservationExpiration, returnTime, paymentMethod, returnReason);
+        private int rows;
+
+        void add(ArchivedTicket ticket) throws IOException {
+            id.write(ticket.id());
+            concertId.write(ticket.concertId());
+            concertDate.write((int) ticket.concertDate().toEpochDay());
+            seatNumber.write(ticket.seatNumber());
+            status.write(ticket.status().name());
+            buyerId.write(ticket.buyerId());
+            purchaseTimestamp.write(ticket.purchaseTimestamp());
+            reservationExpiration.write(ticket.reservationExpiration());
+            returnTime.write(ticket.returnTime());
+            paymentMethod.write(ticket.paymentMethod());
+            returnReason.write(ticket.returnReason());
+            rows++;
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        /**
+         * Writes and fsyncs the file; returns its size in bytes.
+         */
+        long writeTo(Path path) throws IOException {
+            List<byte[]> blocks = new ArrayList<>(columns.size());
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            DataOutputStream headerOut = new DataOutputStream(header);
+            headerOut.writeInt(rows);
+            headerOut.writeShort(columns.size());
+            long offset = 0;
+            for (Column column : columns) {
+                byte[] block = column.finish();
+                CRC32C crc = new CRC32C();
+                crc.update(block);
+                headerOut.writeUTF(column.name);
+                headerOut.writeLong(offset);
+                headerOut.writeInt(block.length);
+                headerOut.writeInt((int) crc.getValue());
+                blocks.add(block);
+                offset += block.length;
+            }
+            ByteBuffer prefix = ByteBuffer.allocate(10).putInt(MAGIC).putShort(VERSION).putInt(header.size()).flip();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFully(channel, prefix);
+                writeFully(channel, ByteBuffer.wrap(header.toByteArray()));
+                for (byte[] block : blocks) {
+                    writeFully(channel, ByteBuffer.wrap(block));
+                }
+                channel.force(true);
+                return channel.size();
+            }
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads single columns of a file; each call inflates just the column it returns.
+     */
+    static final class Reader implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final int rows;
+        private final long dataStart;
+        private final Map<String, long[]> columns = new LinkedHashMap<>();
+
+        Reader(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                ByteBuffer prefix = read(0, 10);
+                if (prefix.getInt() != MAGIC) {
+                    throw new IOException(path + " is not a ticket archive file");
+                }
+                short version = prefix.getShort();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported ticket archive version " + version + " in " + path);
+                }
+                int headerLength = prefix.getInt();
+                DataInputStream header = new DataInputStream(new ByteArrayInputStream(read(10, headerLength).array()));
+                rows = header.readInt();
+                int count = header.readShort();
+                for (int i = 0; i < count; i++) {
+                    String name = header.readUTF();
+                    columns.put(name, new long[]{header.readLong(), header.readInt(), header.readInt()});
+                }
+                dataStart = 10L + headerLength;
+            } catch (IOException | RuntimeException ex) {
+                channel.close();
+                throw ex;
+            }
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        int[] ints(String name) throws IOException {
+            int[] values = new int[rows];
+            try (DataInputStream in = open(name)) {
+                long previous = 0;
+                for (int i = 0; i < rows; i++) {
+                    previous += unzigzag(readVarLong(in));
+                    values[i] = (int) previous;
+                }
+            }
+            return values;
+        }
+
+        String[] strings(String name) throws IOException {
+            String[] values = new String[rows];
+            List<String> dictionary = new ArrayList<>();
+            try (DataInputStream in = open(name)) {
+                for (int i = 0; i < rows; i++) {
+                    int index = (int) readVarLong(in);
+                    if (index == 0) {
+                        continue;
+                    }
+                    if (index > dictionary.size()) {
+                        dictionary.add(in.readUTF());
+                    }
+                    values[i] = dictionary.get(index - 1);
+                }
+            }
+            return values;
+        }
+
+        UUID[] uuids(String name) throws IOException {
+            UUID[] values = new UUID[rows];
+            try (DataInputStream in = open(name)) {
+                for (int i = 0; i < rows; i++) {
+                    if (in.readBoolean()) {
+                        values[i] = new UUID(in.readLong(), in.readLong());
+                    }
+                }
+            }
+            return values;
+        }
+
+        LocalDateTime[] times(String name) throws IOException {
+            LocalDateTime[] values = new LocalDateTime[rows];
+            try (DataInputStream in = open(name)) {
+                long previous = 0;
+                for (int i = 0; i < rows; i++) {
+                    long encoded = readVarLong(in);
+                    if (encoded != 0) {
+                        previous += unzigzag(encoded - 1);
+                        values[i] = LocalDateTime.ofEpochSecond(Math.floorDiv(previous, 1_000_000L),
+                                (int) Math.floorMod(previous, 1_000_000L) * 1000, ZoneOffset.UTC);
+                    }
+                }
+            }
+            return values;
+        }
+
+        /**
+         * Every row, all columns inflated.
+         */
+        List<ArchivedTicket> tickets() throws IOException {
+            int[] id = ints(ID);
+            int[] concertId = ints(CONCERT_ID);
+            int[] concertDate = ints(CONCERT_DATE);
+            String[] seatNumber = strings(SEAT_NUMBER);
+            String[] status = strings(STATUS);
+            UUID[] buyerId = uuids(BUYER_ID);
+            LocalDateTime[] purchaseTimestamp = times(PURCHASE_TIMESTAMP);
+            LocalDateTime[] reservationExpiration = times(RESERVATION_EXPIRATION);
+            LocalDateTime[] returnTime = times(RETURN_TIME);
+            String[] paymentMethod = strings(PAYMENT_METHOD);
+            String[] returnReason = strings(RETURN_REASON);
+            List<ArchivedTicket> tickets = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                tickets.add(new ArchivedTicket(id[i], concertId[i], LocalDate.ofEpochDay(concertDate[i]), seatNumber[i],
+                        TicketStatus.valueOf(status[i]), buyerId[i], purchaseTimestamp[i], reservationExpiration[i],
+                        returnTime[i], paymentMethod[i], returnReason[i]));
+            }
+            return tickets;
+        }
+
+        private DataInputStream open(String name) throws IOException {
+            long[] column = columns.get(name);
+            if (column == null) {
+                throw new IOException("No column " + name + " in ticket archive file");
+            }
+            ByteBuffer block = read(dataStart + column[0], (int) column[1]);
+            CRC32C crc = new CRC32C();
+            crc.update(block.duplicate());
+            if ((int) crc.getValue() != (int) column[2]) {
+                throw new IOException("Corrupt column " + name + " in ticket archive file");
+            }
+            return new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(block.array())));
+        }
+
+        private ByteBuffer read(long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Truncated ticket archive file");
+                }
+            }
+            return buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private abstract static class Column {
+
+        final String name;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        final DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater, 8192));
+
+        Column(String name) {
+            this.name = name;
+        }
+
+        byte[] finish() throws IOException {
+            out.close();
+            deflater.end();
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class IntColumn extends Column {
+
+        private long previous;
+
+        IntColumn(String name) {
+            super(name);
+        }
+
+        void write(int value) throws IOException {
+            writeVarLong(out, zigzag(value - previous));
+            previous = value;
+        }
+    }
+
+    // 0 is null, anything else is the zig-zag delta from the previous non-null value plus one
+    private static final class TimeColumn extends Column {
+
+        private long previous;
+
+        TimeColumn(String name) {
+            super(name);
+        }
+
+        void write(LocalDateTime value) throws IOException {
+            if (value == null) {
+                writeVarLong(out, 0);
+                return;
+            }
+            long micros = value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1000;
+            writeVarLong(out, zigzag(micros - previous) + 1);
+            previous = micros;
+        }
+    }
+
+    // 0 is null, 1..n a dictionary entry; n + 1 adds the word that follows it to the dictionary
+    private static final class StringColumn extends Column {
+
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        StringColumn(String name) {
+            super(name);
+        }
+
+        void write(String value) throws IOException {
+            if (value == null) {
+                writeVarLong(out, 0);
+                return;
+            }
+            Integer index = dictionary.get(value);
+            if (index != null) {
+                writeVarLong(out, index);
+                return;
+            }
+            index = dictionary.size() + 1;
+            dictionary.put(value, index);
+            writeVarLong(out, index);
+            out.writeUTF(value);
+        }
+    }
+
+    private static final class UuidColumn extends Column {
+
+        UuidColumn(String name) {
+            super(name);
+        }
+
+        void write(UUID value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeLong(value.getMostSignificantBits());
+                out.writeLong(value.getLeastSignificantBits());
+            }
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in ticket archive file");
+    }
+}
@@ -0,0 +1,169 @@
+package org.app.musical_philharmonic.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Monthly range partitions of {@code tickets}, keyed by the concert's date (V4 migration).
+ * Partitions are created a rolling number of months ahead and whenever a concert is scheduled
+ * into a month that has none; there is no default partition, so a missing month fails the insert
+ * instead of silently filling a catch-all. Past months are detached whole and moved to the
+ * {@value #ARCHIVE_SCHEMA} schema, where they stay queryable but no longer weigh on the live
+ * indexes, until {@link ColdTicketArchive} moves them on to files.
+ */
+@Component
+public class TicketPartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketPartitions.class);
+
+    public static final String ARCHIVE_SCHEMA = "tickets_archive";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    // First key of the two-key advisory locks on a concert's date; the second is the concert id
+    private static final int CONCERT_DATE_LOCK = 0x74636b64;
+
+    private static final String ATTACHED = """
+            select c.relname, i.inhdetachpending
+            from pg_inherits i
+            join pg_class c on c.oid = i.inhrelid
+            where i.inhparent = 'tickets'::regclass
+            order by c.relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    // Months known to have a partition; only filled after the creating transaction commits
+    private final Set<YearMonth> existing = ConcurrentHashMap.newKeySet();
+
+    public TicketPartitions(JdbcTemplate jdbcTemplate,
+                            @Value("${tickets.partitions.months-ahead:18}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    public static String name(YearMonth month) {
+        return "tickets_p" + month.format(SUFFIX);
+    }
+
+    /**
+     * Makes sure the partition for the concert date exists. Runs in the caller's transaction, so
+     * a concert and its month are created or rolled back together.
+     */
+    public void ensure(LocalDate concertDate) {
+        YearMonth month = YearMonth.from(concertDate);
+        if (existing.contains(month)) {
+            return;
+        }
+        jdbcTemplate.queryForObject("select ensure_tickets_partition(?)", String.class, month.atDay(1));
+        afterCommit(() -> existing.add(month));
+    }
+
+    /**
+     * Keeps the concert's date from moving until the caller's transaction ends. Anything that
+     * inserts tickets takes this shared lock before it reads the date it copies into
+     * {@code concert_date}. Inserts therefore never block each other, and a reschedule waits for
+     * them (see {@link #lockConcertDateForMove}).
+     */
+    public void lockConcertDate(int concertId) {
+        jdbcTemplate.query("select pg_advisory_xact_lock_shared(?, ?)", rs -> null, CONCERT_DATE_LOCK, concertId);
+    }
+
+    /**
+     * Exclusive counterpart of {@link #lockConcertDate}, taken before a concert's tickets are
+     * moved to its new date. Bookings in flight finish under the old date and are moved along;
+     * later ones wait and then read the new date.
+     */
+    public void lockConcertDateForMove(int concertId) {
+        jdbcTemplate.query("select pg_advisory_xact_lock(?, ?)", rs -> null, CONCERT_DATE_LOCK, concertId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${tickets.partitions.cron:0 15 3 * * *}")
+    public void createAhead() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            ensure(current.plusMonths(i).atDay(1));
+        }
+        log.info("Ticket partitions ready through {}", current.plusMonths(monthsAhead));
+    }
+
+    /**
+     * Attached partitions, oldest first.
+     */
+    public List<String> attached() {
+        return jdbcTemplate.query(ATTACHED, (rs, i) -> rs.getString(1));
+    }
+
+    /**
+     * Detaches every partition whose whole month lies before {@code before} and moves it to the
+     * archive schema. Each partition is detached CONCURRENTLY, so on-sale traffic keeps running;
+     * that cannot happen inside a transaction, so this must not be called from one. A detach that
+     * was interrupted half-way is finished first.
+     *
+     * @return the archived partitions
+     */
+    public List<String> archiveBefore(LocalDate before) {
+        if (before.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Refusing to archive partitions of upcoming concerts: " + before);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Partitions are detached concurrently and cannot be archived inside a transaction");
+        }
+        List<String> archived = new ArrayList<>();
+        jdbcTemplate.execute("create schema if not exists " + ARCHIVE_SCHEMA);
+        List<Object[]> partitions = jdbcTemplate.query(ATTACHED, (rs, i) -> new Object[]{rs.getString(1), rs.getBoolean(2)});
+        for (Object[] partition : partitions) {
+            String name = (String) partition[0];
+            YearMonth month = month(name);
+            if (month == null || month.plusMonths(1).atDay(1).isAfter(before)) {
+                continue;
+            }
+            boolean pending = (Boolean) partition[1];
+            jdbcTemplate.execute("alter table tickets detach partition " + name + (pending ? " finalize" : " concurrently"));
+            jdbcTemplate.execute("alter table " + name + " set schema " + ARCHIVE_SCHEMA);
+            existing.remove(month);
+            archived.add(name);
+            log.info("Archived ticket partition {} to {}", name, ARCHIVE_SCHEMA);
+        }
+        return archived;
+    }
+
+    // tickets_pYYYY_MM -> YearMonth; null for anything not created by ensure_tickets_partition
+    static YearMonth month(String partition) {
+        if (!partition.matches("tickets_p\\d{4}_\\d{2}")) {
+            return null;
+        }
+        return YearMonth.parse(partition.substring("tickets_p".length()), SUFFIX);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package org.app.musical_philharmonic.cache;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic change counters for reference data. Each entity has its own version and each kind
+ * has a collection version that moves on any write, so cached reads can be validated (and ETags
+ * built) without going to the database. Versions move after commit, never before.
+ * <p>
+ * They live in this process only, so a write on another instance does not move them. To bound how
+ * long such a write goes unseen, every version is retired each {@code cache.public.version-ttl-ms}:
+ * cached bodies and ETags handed out before that no longer match, and the next read goes to the database.
+ */
+@Component
+public class EntityVersions {
+
+    public enum Kind {
+        CONCERT,
+        HALL,
+        PERFORMER
+    }
+
+    public record Version(long epoch, long value, long lastModified) {
+
+        public String etag(String resource, String variant) {
+            // Resource keys may carry user input, so only a hash of them goes into the header
+            return "\"" + Integer.toHexString(resource.hashCode()) + "-" + Long.toString(epoch, 36) + "-" + value
+                    + (variant != null ? "-" + variant : "") + "\"";
+        }
+    }
+
+    // Distinguishes versions handed out by this process from those of a previous run
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong counter = new AtomicLong();
+    private volatile Version initial = new Version(epoch, 0, epoch / 1000 * 1000);
+    private final Map<Kind, Version> collections = new EnumMap<>(Kind.class);
+    private final ConcurrentHashMap<String, Version> entities = new ConcurrentHashMap<>();
+
+    public EntityVersions() {
+        for (Kind kind : Kind.values()) {
+            collections.put(kind, initial);
+        }
+    }
+
+    public Version of(Kind kind, Integer id) {
+        return entities.getOrDefault(key(kind, id), initial);
+    }
+
+    public synchronized Version ofCollection(Kind kind) {
+        return collections.get(kind);
+    }
+
+    public void touch(Kind kind, Integer id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(kind, id);
+                }
+            });
+        } else {
+            bump(kind, id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.public.version-ttl-ms:60000}",
+            initialDelayString = "${cache.public.version-ttl-ms:60000}")
+    public synchronized void expire() {
+        Version next = next();
+        initial = next;
+        entities.clear();
+        for (Kind kind : Kind.values()) {
+            collections.put(kind, next);
+        }
+    }
+
+    private synchronized void bump(Kind kind, Integer id) {
+        Version next = next();
+        if (id != null) {
+            entities.put(key(kind, id), next);
+        }
+        collections.put(kind, next);
+    }
+
+    private Version next() {
+        // HTTP dates have second precision; round so If-Modified-Since comparisons line up
+        long now = System.currentTimeMillis() / 1000 * 1000;
+        return new Version(epoch, counter.incrementAndGet(), now);
+    }
+
+    private static String key(Kind kind, Integer id) {
+        return kind.name() + ':' + id;
+    }
+}
@@ -0,0 +1,70 @@
+package org.app.musical_philharmonic.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Builds responses for public read endpoints: pre-encoded JSON from {@link ReadCache} (gzipped
+ * when the client accepts it), tagged with a strong ETag and Last-Modified from
+ * {@link EntityVersions}, and answered with 304 on a matching conditional GET before anything is
+ * loaded. The body is a byte array, so it is copied to the servlet output stream as is.
+ */
+@Component
+public class PublicResponses {
+
+    private final ReadCache readCache;
+    private final CacheControl cacheControl;
+
+    public PublicResponses(ReadCache readCache,
+                           @Value("${cache.public.max-age-seconds:30}") long maxAgeSeconds) {
+        this.readCache = readCache;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    public ResponseEntity<byte[]> respond(WebRequest request, String resource, EntityVersions.Version version,
+                                          Supplier<?> loader) {
+        boolean gzip = readCache.isGzipEnabled() && acceptsGzip(request);
+        // Each encoding is its own representation, so it gets its own strong ETag
+        String etag = version.etag(resource, gzip ? "gz" : null);
+        // Conditional headers only mean "not modified" for GET/HEAD; POST reads still hit the cache
+        if (isSafe(request) && request.checkNotModified(etag, version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ReadCache.EncodedBody body = readCache.get(resource, version, loader);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .lastModified(version.lastModified())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return builder.body(body.json());
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    private static boolean isSafe(WebRequest request) {
+        return request instanceof ServletWebRequest servletRequest
+                && (servletRequest.getHttpMethod() == HttpMethod.GET || servletRequest.getHttpMethod() == HttpMethod.HEAD);
+    }
+}
@@ -0,0 +1,74 @@
+package org.app.musical_philharmonic.cache;
+
+import org.app.musical_philharmonic.replica.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded LRU of public read results, kept as already-encoded UTF-8 JSON (and optionally a gzip
+ * copy) together with the {@link EntityVersions.Version} they were computed under. Hits skip
+ * object mapping and serialization entirely; an entry is only served while its version is current.
+ */
+@Component
+public class ReadCache {
+
+    public record EncodedBody(byte[] json, byte[] gzip) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+    private final Map<String, Entry> entries;
+
+    public ReadCache(ObjectMapper objectMapper,
+                     @Value("${cache.public.max-entries:2000}") int maxEntries,
+                     @Value("${cache.public.gzip:true}") boolean gzipEnabled) {
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public boolean isGzipEnabled() {
+        return gzipEnabled;
+    }
+
+    public EncodedBody get(String key, EntityVersions.Version version, Supplier<?> loader) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version().equals(version)) {
+            return entry.body();
+        }
+        // Store under the version read before loading: a concurrent write makes it stale at once.
+        // The load goes to the primary, since a lagging replica may predate the write that bumped it
+        byte[] json = objectMapper.writeValueAsBytes(ReplicaRoutingDataSource.onPrimary(loader));
+        EncodedBody body = new EncodedBody(json, gzipEnabled ? gzip(json) : null);
+        entries.put(key, new Entry(version, body));
+        return body;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private record Entry(EntityVersions.Version version, EncodedBody body) {
+    }
+}
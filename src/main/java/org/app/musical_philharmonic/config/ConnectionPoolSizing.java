@@ -0,0 +1,78 @@
+package org.app.musical_philharmonic.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Sets the size of the primary pool from {@code db.pool.size}, either a fixed number or
+ * {@code auto}. Auto takes the smaller of {@code server-cores * 2 + 1}, the usual starting point
+ * for a PostgreSQL pool, and this instance's share of the server's connection limit:
+ * {@code (max_connections - reserved slots - db.pool.headroom) / db.pool.instances}. Only active
+ * when {@code db.pool.size} is set, as in the prod profile; otherwise Hikari's default of 10
+ * stays. Replica pools copy the primary's size.
+ */
+@Component
+@ConditionalOnProperty("db.pool.size")
+public class ConnectionPoolSizing implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolSizing.class);
+
+    private static final int MIN_SIZE = 2;
+
+    // reserved_connections only exists from PostgreSQL 16 on
+    private static final String LIMITS = """
+            select cast(current_setting('max_connections') as int),
+                   cast(current_setting('superuser_reserved_connections') as int)
+                       + coalesce(cast(current_setting('reserved_connections', true) as int), 0)
+            """;
+
+    private final String size;
+    private final int serverCores;
+    private final int instances;
+    private final int headroom;
+
+    public ConnectionPoolSizing(@Value("${db.pool.size}") String size,
+                                @Value("${db.pool.server-cores:0}") int serverCores,
+                                @Value("${db.pool.instances:1}") int instances,
+                                @Value("${db.pool.headroom:3}") int headroom) {
+        this.size = size.trim();
+        this.serverCores = serverCores > 0 ? serverCores : Runtime.getRuntime().availableProcessors();
+        this.instances = Math.max(1, instances);
+        this.headroom = headroom;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource pool) {
+            int poolSize = size.equalsIgnoreCase("auto") ? autoSize(pool) : Integer.parseInt(size);
+            pool.setMaximumPoolSize(poolSize);
+            log.info("Connection pool {} sized to {} ({})", beanName, poolSize, size);
+        }
+        return bean;
+    }
+
+    private int autoSize(HikariDataSource pool) {
+        int byCores = serverCores * 2 + 1;
+        try (Connection connection = DriverManager.getConnection(pool.getJdbcUrl(), pool.getUsername(), pool.getPassword());
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LIMITS)) {
+            rs.next();
+            int share = (rs.getInt(1) - rs.getInt(2) - headroom) / instances;
+            return Math.max(MIN_SIZE, Math.min(byCores, share));
+        } catch (SQLException ex) {
+            log.warn("Cannot read the server's connection limit; sizing the pool by cores only: {}", ex.getMessage());
+            return Math.max(MIN_SIZE, byCores);
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package org.app.musical_philharmonic.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.app.musical_philharmonic.security.BoundedPasswordEncoder;
 import org.app.musical_philharmonic.security.JwtAuthenticationFilter;
+import org.app.musical_philharmonic.security.JwtService;
+import org.app.musical_philharmonic.security.RateLimitFilter;
+import org.app.musical_philharmonic.security.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,7 +16,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,11 +27,35 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsService userDetailsService;
+    private final JwtService jwtService;
+
+    @Value("${security.rate-limit.max-buckets:100000}")
+    private int rateLimitMaxBuckets;
+
+    @Value("${security.rate-limit.login.capacity:5}")
+    private long loginCapacity;
+
+    @Value("${security.rate-limit.login.per-minute:10}")
+    private long loginPerMinute;
+
+    @Value("${security.rate-limit.register.capacity:5}")
+    private long registerCapacity;
+
+    @Value("${security.rate-limit.register.per-minute:10}")
+    private long registerPerMinute;
+
+    @Value("${security.rate-limit.public.capacity:50}")
+    private long publicCapacity;
+
+    @Value("${security.rate-limit.public.per-second:20}")
+    private long publicPerSecond;
 
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
-                          UserDetailsService userDetailsService) {
+                          UserDetailsService userDetailsService,
+                          JwtService jwtService) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.userDetailsService = userDetailsService;
+        this.jwtService = jwtService;
     }
 
     @Bean
@@ -51,6 +80,8 @@ public class SecurityConfig {
                                 "/images/**",
                                 "/favicon.ico"
                         ).permitAll()
+                        // Only served on the management port
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers(
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
@@ -77,19 +108,39 @@ public class SecurityConfig {
                             response.sendError(403, "Access denied. Admin role required.");
                         })
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Throttle before the JWT filter so rejected requests never reach the user lookup or BCrypt
+                .addFilterBefore(rateLimitFilter(), JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    private RateLimitFilter rateLimitFilter() {
+        // Not a bean on purpose: a Filter bean would also be registered in the servlet container chain
+        // Separate budgets, so signing up a few accounts does not lock the same client out of logging in
+        RateLimiter login = new RateLimiter(loginCapacity, loginPerMinute, 60_000, rateLimitMaxBuckets);
+        RateLimiter register = new RateLimiter(registerCapacity, registerPerMinute, 60_000, rateLimitMaxBuckets);
+        RateLimiter publicReads = new RateLimiter(publicCapacity, publicPerSecond, 1_000, rateLimitMaxBuckets);
+        return new RateLimitFilter(jwtService)
+                .rule("/api/auth/login", login)
+                .rule("/api/auth/register", register)
+                .rule("/api/concerts/public/**", publicReads)
+                .rule("/api/performers/public/**", publicReads)
+                .rule("/api/halls/public/**", publicReads);
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${security.password.strength:0}") int strength,
+                                           @Value("${security.password.hash-budget-ms:250}") long hashBudgetMs,
+                                           @Value("${security.password.queue-capacity:64}") int queueCapacity,
+                                           @Value("${security.password.timeout-ms:2000}") long timeoutMs) {
+        return new BoundedPasswordEncoder(strength, hashBudgetMs, queueCapacity, timeoutMs, meterRegistry);
     }
 
 }
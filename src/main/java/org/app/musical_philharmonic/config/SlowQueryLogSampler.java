@@ -0,0 +1,83 @@
+package org.app.musical_philharmonic.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.app.musical_philharmonic.sql.StatementMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Thins out the slow statement log ({@link StatementMonitor}, every statement slower than
+ * {@code sql.slow-ms}): at most {@code sql.slow-log.max-per-minute} lines get
+ * through each minute, and how many were dropped is logged with the first slow statement of a
+ * later minute. A lock pile-up makes hundreds of statements slow at once; a sample of them says as
+ * much as all of them.
+ */
+@Component
+@ConditionalOnProperty("sql.slow-log.max-per-minute")
+public class SlowQueryLogSampler extends TurboFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLogSampler.class);
+
+    private static final String SLOW_QUERY_LOGGER = StatementMonitor.class.getName();
+
+    private final int maxPerMinute;
+    private long minute;
+    private int logged;
+    private int dropped;
+
+    public SlowQueryLogSampler(@Value("${sql.slow-log.max-per-minute}") int maxPerMinute) {
+        this.maxPerMinute = maxPerMinute;
+    }
+
+    @PostConstruct
+    public void register() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        setContext(context);
+        start();
+        context.addTurboFilter(this);
+    }
+
+    @PreDestroy
+    public void unregister() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getTurboFilterList().remove(this);
+        stop();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, ch.qos.logback.classic.Logger logger, Level level,
+                              String format, Object[] params, Throwable t) {
+        if (!SLOW_QUERY_LOGGER.equals(logger.getName()) || !logger.isEnabledFor(level)) {
+            return FilterReply.NEUTRAL;
+        }
+        long now = System.currentTimeMillis() / 60_000;
+        int droppedBefore = 0;
+        boolean pass;
+        synchronized (this) {
+            if (now != minute) {
+                droppedBefore = dropped;
+                minute = now;
+                logged = 0;
+                dropped = 0;
+            }
+            pass = logged < maxPerMinute;
+            if (pass) {
+                logged++;
+            } else {
+                dropped++;
+            }
+        }
+        if (droppedBefore > 0) {
+            log.info("{} more slow statements were not logged in an earlier minute", droppedBefore);
+        }
+        return pass ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
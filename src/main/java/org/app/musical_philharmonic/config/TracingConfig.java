@@ -0,0 +1,74 @@
+package org.app.musical_philharmonic.config;
+
+import io.micrometer.observation.ObservationPredicate;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.ScheduledTaskObservationContext;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracing beyond what the actuator sets up: sampling and OTLP export are configured under
+ * {@code management.tracing} and {@code management.opentelemetry}; spans come from
+ * JwtAuthenticationFilter, the {@code @Observed} TicketService and StatementMonitor.
+ */
+@Configuration(proxyBeanMethods = false)
+public class TracingConfig {
+
+    // Interval tasks (hold expiry every 100 ms, rollup flush, health checks) would each start a
+    // trace of their own; cron jobs keep theirs. This also drops their tasks.scheduled timers
+    @Bean
+    public ObservationPredicate skipIntervalTasks() {
+        return (name, context) -> !(context instanceof ScheduledTaskObservationContext task
+                && isInterval(task));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.log-spans", havingValue = "true")
+    public SpanExporter spanLogExporter() {
+        return new SpanLogExporter();
+    }
+
+    private static boolean isInterval(ScheduledTaskObservationContext task) {
+        Scheduled scheduled = AnnotatedElementUtils.findMergedAnnotation(task.getMethod(), Scheduled.class);
+        return scheduled != null && scheduled.cron().isEmpty();
+    }
+
+    /**
+     * Every exported span as one line of the application log, for looking at traces without a
+     * collector. Only sampled traces get here; runs alongside the OTLP exporter.
+     */
+    static class SpanLogExporter implements SpanExporter {
+
+        private static final Logger log = LoggerFactory.getLogger(SpanLogExporter.class);
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            for (SpanData span : spans) {
+                log.info("{} {} ms trace={} span={} parent={} {}", span.getName(),
+                        TimeUnit.NANOSECONDS.toMillis(span.getEndEpochNanos() - span.getStartEpochNanos()),
+                        span.getTraceId(), span.getSpanId(), span.getParentSpanId(), span.getAttributes());
+            }
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
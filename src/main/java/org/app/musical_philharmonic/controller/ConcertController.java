@@ -3,6 +3,8 @@ package org.app.musical_philharmonic.controller;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.app.musical_philharmonic.cache.EntityVersions;
+import org.app.musical_philharmonic.cache.PublicResponses;
 import org.app.musical_philharmonic.dto.ConcertRequest;
 import org.app.musical_philharmonic.dto.ConcertResponse;
 import org.app.musical_philharmonic.dto.ConcertSearchRequest;
@@ -10,8 +12,10 @@ import org.app.musical_philharmonic.service.ConcertService;
 import org.app.musical_philharmonic.util.PageableUtil;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/concerts")
@@ -19,9 +23,15 @@ import org.springframework.web.bind.annotation.*;
 public class ConcertController {
 
     private final ConcertService concertService;
+    private final EntityVersions entityVersions;
+    private final PublicResponses publicResponses;
 
-    public ConcertController(ConcertService concertService) {
+    public ConcertController(ConcertService concertService,
+                             EntityVersions entityVersions,
+                             PublicResponses publicResponses) {
         this.concertService = concertService;
+        this.entityVersions = entityVersions;
+        this.publicResponses = publicResponses;
     }
 
     @PostMapping("/search")
@@ -70,16 +80,21 @@ public class ConcertController {
 
     @PostMapping("/public/upcoming")
     @Operation(summary = "View upcoming concerts (public access)")
-    public Page<ConcertResponse> publicUpcoming(@RequestBody org.app.musical_philharmonic.dto.PageableRequest request) {
+    public ResponseEntity<byte[]> publicUpcoming(@RequestBody org.app.musical_philharmonic.dto.PageableRequest request,
+                                                 WebRequest webRequest) {
         Pageable pageable = PageableUtil.toPageable(request.getPage(), request.getSize(), request.getSort());
         java.time.LocalDate today = java.time.LocalDate.now();
-        return concertService.upcoming(today, today.plusYears(1), pageable);
+        // The window moves with the date, so it is part of the cache key
+        String resource = "concerts-upcoming:" + today + ":" + pageable;
+        return publicResponses.respond(webRequest, resource, entityVersions.ofCollection(EntityVersions.Kind.CONCERT),
+                () -> concertService.upcoming(pageable));
     }
 
     @GetMapping("/public/{id}")
     @Operation(summary = "Get concert by id (public access)")
-    public ConcertResponse publicGet(@PathVariable Integer id) {
-        return concertService.get(id);
+    public ResponseEntity<byte[]> publicGet(@PathVariable Integer id, WebRequest webRequest) {
+        return publicResponses.respond(webRequest, "concert:" + id, entityVersions.of(EntityVersions.Kind.CONCERT, id),
+                () -> concertService.get(id));
     }
 
     @GetMapping("/public/{id}/available-tickets")
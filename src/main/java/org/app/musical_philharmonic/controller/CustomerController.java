@@ -3,9 +3,10 @@ package org.app.musical_philharmonic.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.app.musical_philharmonic.dto.TicketResponse;
-import org.app.musical_philharmonic.repository.UserRepository;
 import org.app.musical_philharmonic.service.ConcertService;
+import org.app.musical_philharmonic.service.IdempotencyService;
 import org.app.musical_philharmonic.service.TicketService;
+import org.app.musical_philharmonic.sql.StatementBudget;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -13,9 +14,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/customer")
@@ -24,15 +23,15 @@ import java.util.UUID;
 public class CustomerController {
 
     private final ConcertService concertService;
-    private final UserRepository userRepository;
     private final TicketService ticketService;
+    private final IdempotencyService idempotencyService;
 
     public CustomerController(ConcertService concertService,
-                              UserRepository userRepository,
-                              TicketService ticketService) {
+                              TicketService ticketService,
+                              IdempotencyService idempotencyService) {
         this.concertService = concertService;
-        this.userRepository = userRepository;
         this.ticketService = ticketService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping("/concerts/upcoming")
@@ -40,8 +39,7 @@ public class CustomerController {
     public ResponseEntity<?> upcoming(@RequestBody org.app.musical_philharmonic.dto.PageableRequest request) {
         Pageable pageable = org.app.musical_philharmonic.util.PageableUtil.toPageable(
                 request.getPage(), request.getSize(), request.getSort());
-        LocalDate today = LocalDate.now();
-        return ResponseEntity.ok(concertService.upcoming(today, today.plusYears(1), pageable));
+        return ResponseEntity.ok(concertService.upcoming(pageable));
     }
 
     @PostMapping("/concerts/{id}/availability")
@@ -53,42 +51,44 @@ public class CustomerController {
         return ResponseEntity.ok(ticketService.availability(id, pageable));
     }
 
+    @GetMapping("/concerts/{id}/best-seats")
+    @Operation(summary = "Preview the best available block of adjacent seats (not held)")
+    public java.util.Map<String, Object> bestSeats(@PathVariable Integer id,
+                                                    @RequestParam(defaultValue = "1") int quantity) {
+        return java.util.Map.of("concertId", id, "quantity", quantity, "seats", ticketService.bestAvailable(id, quantity));
+    }
+
     @PostMapping("/tickets/book")
     @Operation(summary = "Book tickets (temporary reservation)")
     public java.util.List<org.app.musical_philharmonic.dto.TicketResponse> book(@RequestBody org.app.musical_philharmonic.dto.TicketBookRequest request,
                                Authentication auth) {
-        UUID buyerId = userRepository.findByEmail(auth.getName())
-                .map(u -> u.getId())
-                .orElse(null);
         LocalDateTime exp = request.getMinutes() != null
                 ? LocalDateTime.now().plusMinutes(request.getMinutes())
                 : null;
         Integer quantity = request.getQuantity() != null ? request.getQuantity() : 1;
-        return ticketService.book(request.getConcertId(), request.getSeatNumber(), buyerId, exp, auth.getName(), quantity);
+        return ticketService.bookAs(auth.getName(), request.getConcertId(), request.getSeatNumber(), exp, quantity);
     }
 
     @PostMapping("/tickets/purchase")
     @Operation(summary = "Purchase tickets")
     public java.util.List<org.app.musical_philharmonic.dto.TicketResponse> purchase(@RequestBody org.app.musical_philharmonic.dto.TicketPurchaseRequest request,
+                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                    Authentication auth) {
-        UUID buyerId = userRepository.findByEmail(auth.getName())
-                .map(u -> u.getId())
-                .orElse(null);
-        Integer quantity = request.getQuantity() != null ? request.getQuantity() : 1;
-        return ticketService.purchase(request.getConcertId(), request.getSeatNumber(),
-                buyerId, request.getPaymentMethod(), auth.getName(), quantity);
+        return idempotencyService.execute(idempotencyKey, "purchase", auth.getName(), request, () -> {
+            Integer quantity = request.getQuantity() != null ? request.getQuantity() : 1;
+            return ticketService.purchaseAs(auth.getName(), request.getConcertId(), request.getSeatNumber(),
+                    request.getPaymentMethod(), quantity);
+        });
     }
 
     @PostMapping("/tickets/mine")
     @Operation(summary = "View purchased tickets for current user")
+    @StatementBudget(6)
     public Page<TicketResponse> myTickets(@RequestBody org.app.musical_philharmonic.dto.PageableRequest request,
                                          Authentication auth) {
         Pageable pageable = org.app.musical_philharmonic.util.PageableUtil.toPageable(
                 request.getPage(), request.getSize(), request.getSort());
-        UUID buyerId = userRepository.findByEmail(auth.getName())
-                .map(u -> u.getId())
-                .orElse(null);
-        return ticketService.ticketsByBuyer(buyerId, pageable);
+        return ticketService.ticketsOf(auth.getName(), pageable);
     }
 }
 
@@ -3,6 +3,8 @@ package org.app.musical_philharmonic.controller;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.app.musical_philharmonic.cache.EntityVersions;
+import org.app.musical_philharmonic.cache.PublicResponses;
 import org.app.musical_philharmonic.dto.HallRequest;
 import org.app.musical_philharmonic.dto.HallResponse;
 import org.app.musical_philharmonic.service.HallService;
@@ -11,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/halls")
@@ -18,9 +21,15 @@ import org.springframework.web.bind.annotation.*;
 public class HallController {
 
     private final HallService hallService;
+    private final EntityVersions entityVersions;
+    private final PublicResponses publicResponses;
 
-    public HallController(HallService hallService) {
+    public HallController(HallService hallService,
+                          EntityVersions entityVersions,
+                          PublicResponses publicResponses) {
         this.hallService = hallService;
+        this.entityVersions = entityVersions;
+        this.publicResponses = publicResponses;
     }
 
     @PostMapping("/search")
@@ -63,8 +72,9 @@ public class HallController {
 
     @GetMapping("/public/{id}")
     @Operation(summary = "Get hall by id (public access)")
-    public HallResponse publicGet(@PathVariable Integer id) {
-        return hallService.get(id);
+    public ResponseEntity<byte[]> publicGet(@PathVariable Integer id, WebRequest webRequest) {
+        return publicResponses.respond(webRequest, "hall:" + id, entityVersions.of(EntityVersions.Kind.HALL, id),
+                () -> hallService.get(id));
     }
 }
 
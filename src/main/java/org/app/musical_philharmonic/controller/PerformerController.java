@@ -3,6 +3,8 @@ package org.app.musical_philharmonic.controller;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.app.musical_philharmonic.cache.EntityVersions;
+import org.app.musical_philharmonic.cache.PublicResponses;
 import org.app.musical_philharmonic.dto.PerformerRequest;
 import org.app.musical_philharmonic.dto.PerformerResponse;
 import org.app.musical_philharmonic.service.PerformerService;
@@ -11,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/performers")
@@ -18,9 +21,15 @@ import org.springframework.web.bind.annotation.*;
 public class PerformerController {
 
     private final PerformerService performerService;
+    private final EntityVersions entityVersions;
+    private final PublicResponses publicResponses;
 
-    public PerformerController(PerformerService performerService) {
+    public PerformerController(PerformerService performerService,
+                               EntityVersions entityVersions,
+                               PublicResponses publicResponses) {
         this.performerService = performerService;
+        this.entityVersions = entityVersions;
+        this.publicResponses = publicResponses;
     }
 
     @PostMapping("/search")
@@ -63,10 +72,13 @@ public class PerformerController {
 
     @PostMapping("/public/list")
     @Operation(summary = "List performers (public access)")
-    public Page<PerformerResponse> publicList(@RequestBody org.app.musical_philharmonic.dto.PerformerSearchRequest request) {
+    public ResponseEntity<byte[]> publicList(@RequestBody org.app.musical_philharmonic.dto.PerformerSearchRequest request,
+                                             WebRequest webRequest) {
         Pageable pageable = org.app.musical_philharmonic.util.PageableUtil.toPageable(
                 request.getPage(), request.getSize(), request.getSort());
-        return performerService.list(request.getName(), pageable);
+        String resource = "performers:" + request.getName() + ":" + pageable;
+        return publicResponses.respond(webRequest, resource, entityVersions.ofCollection(EntityVersions.Kind.PERFORMER),
+                () -> performerService.list(request.getName(), pageable));
     }
 }
 
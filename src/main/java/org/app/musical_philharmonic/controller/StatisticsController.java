@@ -2,12 +2,22 @@ package org.app.musical_philharmonic.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.app.musical_philharmonic.dto.RevenueBucket;
+import org.app.musical_philharmonic.dto.SalesAggregate;
+import org.app.musical_philharmonic.service.SalesFactService;
+import org.app.musical_philharmonic.service.SalesRollupService;
 import org.app.musical_philharmonic.service.StatisticsService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,9 +26,15 @@ import java.util.Map;
 public class StatisticsController {
 
     private final StatisticsService statisticsService;
+    private final SalesFactService salesFactService;
+    private final SalesRollupService salesRollupService;
 
-    public StatisticsController(StatisticsService statisticsService) {
+    public StatisticsController(StatisticsService statisticsService,
+                                SalesFactService salesFactService,
+                                SalesRollupService salesRollupService) {
         this.statisticsService = statisticsService;
+        this.salesFactService = salesFactService;
+        this.salesRollupService = salesRollupService;
     }
 
     @GetMapping
@@ -27,5 +43,47 @@ public class StatisticsController {
     public Map<String, Object> getStatistics() {
         return statisticsService.getStatistics();
     }
-}
 
+    @GetMapping("/sales")
+    @PreAuthorize("hasAnyRole('ADMIN','CASHIER')")
+    @Operation(summary = "Net tickets and revenue in [from, to) grouped by day, concert, hall, performer or payment")
+    public List<SalesAggregate> sales(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                      @RequestParam(defaultValue = "day") String groupBy) {
+        return salesFactService.aggregate(from, to, groupBy);
+    }
+
+    @PostMapping("/sales/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Create sale facts for sold tickets that have none")
+    public Map<String, Integer> backfill() {
+        return Map.of("inserted", salesFactService.backfill());
+    }
+
+    @GetMapping("/revenue")
+    @PreAuthorize("hasAnyRole('ADMIN','CASHIER')")
+    @Operation(summary = "Revenue time series per minute, hour, day or month from pre-aggregated rollups")
+    public List<RevenueBucket> revenue(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                       @RequestParam(defaultValue = "day") String interval,
+                                       @RequestParam(defaultValue = "none") String groupBy) {
+        return salesRollupService.series(from, to, interval, groupBy);
+    }
+
+    @GetMapping("/revenue/total")
+    @PreAuthorize("hasAnyRole('ADMIN','CASHIER')")
+    @Operation(summary = "Revenue totals for an arbitrary range, grouped by none, concert, hall or payment")
+    public List<SalesAggregate> revenueTotal(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                             @RequestParam(defaultValue = "none") String groupBy) {
+        return salesRollupService.total(from, to, groupBy);
+    }
+
+    @PostMapping("/revenue/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recompute rollups of whole past days from sale facts")
+    public Map<String, Integer> rebuildRollups(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return Map.of("rows", salesRollupService.rebuild(from, to));
+    }
+}
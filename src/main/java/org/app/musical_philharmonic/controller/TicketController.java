@@ -3,47 +3,59 @@ package org.app.musical_philharmonic.controller;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.app.musical_philharmonic.dto.BulkSeatResult;
 import org.app.musical_philharmonic.dto.TicketRequest;
 import org.app.musical_philharmonic.dto.TicketResponse;
-import org.app.musical_philharmonic.entity.Concert;
-import org.app.musical_philharmonic.entity.Ticket;
-import org.app.musical_philharmonic.entity.User;
-import org.app.musical_philharmonic.repository.ConcertRepository;
-import org.app.musical_philharmonic.repository.TicketRepository;
-import org.app.musical_philharmonic.repository.UserRepository;
+import org.app.musical_philharmonic.journal.TicketEvent;
+import org.app.musical_philharmonic.journal.TicketEventJournal;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.app.musical_philharmonic.service.ExportService;
+import org.app.musical_philharmonic.service.IdempotencyService;
+import org.app.musical_philharmonic.service.SeatImportService;
 import org.app.musical_philharmonic.service.TicketService;
+import org.app.musical_philharmonic.sql.StatementBudget;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import static org.springframework.http.HttpStatus.NOT_FOUND;
+import java.io.Reader;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/tickets")
 @Tag(name = "Tickets")
 public class TicketController {
 
-    private final TicketRepository ticketRepository;
-    private final ConcertRepository concertRepository;
-    private final UserRepository userRepository;
     private final TicketService ticketService;
+    private final IdempotencyService idempotencyService;
+    private final TicketEventJournal ticketEventJournal;
+    private final ExportService exportService;
+    private final SeatImportService seatImportService;
 
-    public TicketController(TicketRepository ticketRepository,
-                            ConcertRepository concertRepository,
-                            UserRepository userRepository,
-                            TicketService ticketService) {
-        this.ticketRepository = ticketRepository;
-        this.concertRepository = concertRepository;
-        this.userRepository = userRepository;
+    public TicketController(TicketService ticketService,
+                            IdempotencyService idempotencyService,
+                            TicketEventJournal ticketEventJournal,
+                            ExportService exportService,
+                            SeatImportService seatImportService) {
         this.ticketService = ticketService;
+        this.idempotencyService = idempotencyService;
+        this.ticketEventJournal = ticketEventJournal;
+        this.exportService = exportService;
+        this.seatImportService = seatImportService;
     }
 
     @PostMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN','CASHIER')")
     @Operation(summary = "List tickets with filters and pagination")
+    @StatementBudget(6)
     public Page<TicketResponse> list(@RequestBody org.app.musical_philharmonic.dto.TicketSearchRequest request) {
         Pageable pageable = org.app.musical_philharmonic.util.PageableUtil.toPageable(
                 request.getPage(), request.getSize(), request.getSort());
@@ -67,83 +79,69 @@ public class TicketController {
     @PreAuthorize("hasAnyRole('ADMIN','CASHIER')")
     @Operation(summary = "Create ticket (available/reserved/sold)")
     public TicketResponse create(@Valid @RequestBody TicketRequest request) {
-        Concert concert = concertRepository.findById(request.getConcertId())
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
-        Ticket ticket = new Ticket();
-        ticket.setConcert(concert);
-        ticket.setSeatNumber(request.getSeatNumber());
-        if (request.getBuyerId() != null) {
-            User buyer = userRepository.findById(request.getBuyerId())
-                    .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Buyer not found"));
-            ticket.setBuyer(buyer);
-        }
-        if (request.getStatus() != null) {
-            ticket.setStatus(request.getStatus());
-        }
-        ticket.setReservationExpiration(request.getReservationExpiration());
-        ticket.setPaymentMethod(request.getPaymentMethod());
-        ticket.setReturnReason(request.getReturnReason());
-        ticket.setReturnTime(request.getReturnTime());
-        return ticketService.toResponse(ticketRepository.save(ticket));
+        return ticketService.create(request);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','CASHIER')")
     @Operation(summary = "Update ticket")
     public TicketResponse update(@PathVariable Integer id, @Valid @RequestBody TicketRequest request) {
-        Ticket ticket = ticketRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Ticket not found"));
-        if (request.getConcertId() != null) {
-            Concert concert = concertRepository.findById(request.getConcertId())
-                    .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
-            ticket.setConcert(concert);
-        }
-        if (request.getBuyerId() != null) {
-            User buyer = userRepository.findById(request.getBuyerId())
-                    .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Buyer not found"));
-            ticket.setBuyer(buyer);
-        }
-        ticket.setSeatNumber(request.getSeatNumber());
-        if (request.getStatus() != null) {
-            ticket.setStatus(request.getStatus());
-        }
-        ticket.setReservationExpiration(request.getReservationExpiration());
-        ticket.setPaymentMethod(request.getPaymentMethod());
-        ticket.setReturnReason(request.getReturnReason());
-        ticket.setReturnTime(request.getReturnTime());
-        return ticketService.toResponse(ticketRepository.save(ticket));
+        return ticketService.update(id, request);
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','CASHIER')")
     @Operation(summary = "Delete ticket")
     public ResponseEntity<Void> delete(@PathVariable Integer id) {
-        if (!ticketRepository.existsById(id)) {
-            throw new ResponseStatusException(NOT_FOUND, "Ticket not found");
-        }
-        ticketRepository.deleteById(id);
+        ticketService.delete(id);
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/seats/generate")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Create AVAILABLE tickets for the concert hall's full seat map")
+    public BulkSeatResult generateSeats(@RequestParam Integer concertId) {
+        return seatImportService.generate(concertId);
+    }
+
+    @PostMapping(value = "/seats/import", consumes = {"text/csv", "text/plain"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Create AVAILABLE tickets from a CSV seat list (seatNumber or row,number per line)")
+    public BulkSeatResult importSeats(@RequestParam Integer concertId, Reader csv) {
+        return seatImportService.importCsv(concertId, csv);
+    }
+
+    @GetMapping("/journal")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Read ticket events from the journal")
+    public java.util.List<TicketEvent> journal(@RequestParam(defaultValue = "1") long fromSequence,
+                                               @RequestParam(defaultValue = "100") int limit) {
+        return ticketEventJournal.read(fromSequence, Math.min(Math.max(limit, 1), 1000));
+    }
+
+    @GetMapping("/{id}/history")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Ticket's booking, sale and return history from the journal")
+    public java.util.List<TicketEvent> history(@PathVariable Integer id) {
+        return ticketEventJournal.history(id);
+    }
+
     @PostMapping("/sell")
     @PreAuthorize("hasAnyRole('ADMIN','CASHIER')")
     @Operation(summary = "Sell tickets with payment method")
-    public java.util.List<org.app.musical_philharmonic.dto.TicketResponse> sell(@RequestBody org.app.musical_philharmonic.dto.TicketSellRequest request) {
+    public java.util.List<org.app.musical_philharmonic.dto.TicketResponse> sell(@RequestBody org.app.musical_philharmonic.dto.TicketSellRequest request,
+                                                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                                              Authentication auth) {
         if (request.getBuyerEmail() == null || request.getBuyerEmail().trim().isEmpty()) {
             throw new ResponseStatusException(
                     org.springframework.http.HttpStatus.BAD_REQUEST, 
                     "Customer email is required");
         }
-        String email = request.getBuyerEmail().trim();
-        User buyer = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResponseStatusException(
-                        org.springframework.http.HttpStatus.BAD_REQUEST, 
-                        "Customer with email " + email + " not found. Email must be registered."));
-        // Seat number not needed for dance floor model - capacity check is performed in purchase()
-        Integer quantity = request.getQuantity() != null ? request.getQuantity() : 1;
-        return ticketService.purchase(request.getConcertId(), null,
-                buyer.getId(), request.getPaymentMethod(),
-                request.getActorEmail() != null ? request.getActorEmail() : "cashier", quantity);
+        return idempotencyService.execute(idempotencyKey, "sell", auth.getName(), request, () -> {
+            Integer quantity = request.getQuantity() != null ? request.getQuantity() : 1;
+            return ticketService.sell(request.getConcertId(), request.getBuyerEmail().trim(), request.getPaymentMethod(),
+                    request.getActorEmail() != null ? request.getActorEmail() : "cashier", quantity);
+        });
     }
 
     @PostMapping("/{id}/return")
@@ -164,5 +162,31 @@ public class TicketController {
         return ticketService.salesHistory(request.getFrom(), request.getTo(), pageable);
     }
 
-}
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Stream all tickets as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format,
+                                                        @RequestParam(required = false) Integer concertId,
+                                                        @RequestParam(required = false) TicketStatus status) {
+        return download("tickets", format, exportService.tickets(format, concertId, status));
+    }
+
+    @GetMapping("/sales/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Stream sales and returns in a date range as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportSales(@RequestParam(defaultValue = "csv") String format,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return download("sales", format, exportService.sales(format, from, to));
+    }
 
+    private ResponseEntity<StreamingResponseBody> download(String name, String format, StreamingResponseBody body) {
+        var mediaType = ExportService.mediaType(format);
+        String extension = ExportService.TEXT_CSV.equals(mediaType) ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(name + "." + extension).build().toString())
+                .body(body);
+    }
+}
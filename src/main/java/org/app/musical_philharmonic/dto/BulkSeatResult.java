@@ -0,0 +1,60 @@
+package org.app.musical_philharmonic.dto;
+
+public class BulkSeatResult {
+    private Integer concertId;
+    private int requested;
+    private int created;
+    private int duplicates;
+    private long elapsedMs;
+
+    public BulkSeatResult() {
+    }
+
+    public BulkSeatResult(Integer concertId, int requested, int created, long elapsedMs) {
+        this.concertId = concertId;
+        this.requested = requested;
+        this.created = created;
+        this.duplicates = requested - created;
+        this.elapsedMs = elapsedMs;
+    }
+
+    public Integer getConcertId() {
+        return concertId;
+    }
+
+    public void setConcertId(Integer concertId) {
+        this.concertId = concertId;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+}
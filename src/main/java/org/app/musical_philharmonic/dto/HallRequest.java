@@ -17,6 +17,9 @@ public class HallRequest {
     @Size(max = 100)
     private String location;
 
+    @Min(1)
+    private Integer seatsPerRow;
+
     public String getName() {
         return name;
     }
@@ -40,5 +43,12 @@ public class HallRequest {
     public void setLocation(String location) {
         this.location = location;
     }
-}
 
+    public Integer getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public void setSeatsPerRow(Integer seatsPerRow) {
+        this.seatsPerRow = seatsPerRow;
+    }
+}
@@ -5,6 +5,7 @@ public class HallResponse {
     private String name;
     private Integer capacity;
     private String location;
+    private Integer seatsPerRow;
 
     public Integer getId() {
         return id;
@@ -37,5 +38,12 @@ public class HallResponse {
     public void setLocation(String location) {
         this.location = location;
     }
-}
 
+    public Integer getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public void setSeatsPerRow(Integer seatsPerRow) {
+        this.seatsPerRow = seatsPerRow;
+    }
+}
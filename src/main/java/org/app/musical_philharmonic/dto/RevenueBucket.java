@@ -0,0 +1,53 @@
+package org.app.musical_philharmonic.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class RevenueBucket {
+    private LocalDateTime bucketStart;
+    private String key;
+    private long tickets;
+    private BigDecimal revenue;
+
+    public RevenueBucket() {
+    }
+
+    public RevenueBucket(LocalDateTime bucketStart, String key, long tickets, BigDecimal revenue) {
+        this.bucketStart = bucketStart;
+        this.key = key;
+        this.tickets = tickets;
+        this.revenue = revenue;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getTickets() {
+        return tickets;
+    }
+
+    public void setTickets(long tickets) {
+        this.tickets = tickets;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
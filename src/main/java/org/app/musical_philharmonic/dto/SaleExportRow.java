@@ -0,0 +1,26 @@
+package org.app.musical_philharmonic.dto;
+
+import org.app.musical_philharmonic.entity.SaleKind;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat sale fact row read by the streaming export.
+ */
+public record SaleExportRow(Long id,
+                            SaleKind kind,
+                            LocalDateTime occurredAt,
+                            Integer ticketId,
+                            Integer concertId,
+                            String concertTitle,
+                            Integer hallId,
+                            Integer performerId,
+                            UUID buyerId,
+                            String buyerEmail,
+                            String seatNumber,
+                            String paymentMethod,
+                            int quantity,
+                            BigDecimal amount) {
+}
@@ -0,0 +1,42 @@
+package org.app.musical_philharmonic.dto;
+
+import java.math.BigDecimal;
+
+public class SalesAggregate {
+    private String key;
+    private long tickets;
+    private BigDecimal revenue;
+
+    public SalesAggregate() {
+    }
+
+    public SalesAggregate(String key, Long tickets, BigDecimal revenue) {
+        this.key = key;
+        this.tickets = tickets != null ? tickets : 0;
+        this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getTickets() {
+        return tickets;
+    }
+
+    public void setTickets(long tickets) {
+        this.tickets = tickets;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
@@ -0,0 +1,24 @@
+package org.app.musical_philharmonic.dto;
+
+import org.app.musical_philharmonic.entity.TicketStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat ticket row read by the streaming export; built by a JPQL constructor expression so no
+ * entity ever enters the persistence context.
+ */
+public record TicketExportRow(Integer id,
+                              Integer concertId,
+                              String concertName,
+                              UUID buyerId,
+                              String buyerEmail,
+                              String seatNumber,
+                              LocalDateTime purchaseTimestamp,
+                              TicketStatus status,
+                              LocalDateTime reservationExpiration,
+                              String paymentMethod,
+                              String returnReason,
+                              LocalDateTime returnTime) {
+}
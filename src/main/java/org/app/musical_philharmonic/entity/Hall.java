@@ -1,13 +1,18 @@
 package org.app.musical_philharmonic.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "Halls")
 public class Hall {
 
@@ -24,6 +29,10 @@ public class Hall {
     @Column(length = 100)
     private String location;
 
+    // Seat map layout; rows are filled in order until capacity is reached
+    @Column(name = "seats_per_row")
+    private Integer seatsPerRow;
+
     public Integer getId() {
         return id;
     }
@@ -55,5 +64,12 @@ public class Hall {
     public void setLocation(String location) {
         this.location = location;
     }
-}
 
+    public Integer getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public void setSeatsPerRow(Integer seatsPerRow) {
+        this.seatsPerRow = seatsPerRow;
+    }
+}
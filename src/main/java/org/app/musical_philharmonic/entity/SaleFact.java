@@ -0,0 +1,205 @@
+package org.app.musical_philharmonic.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row per sale or return, denormalized so reporting never joins back to Tickets or Concerts.
+ * The price is captured when the sale happens; a return carries the same amount negated and
+ * {@code quantity = -1}, so sums over any range give net figures.
+ */
+@Entity
+@Table(name = "sales_facts", indexes = {
+        @Index(name = "idx_sales_facts_occurred_at", columnList = "occurred_at"),
+        @Index(name = "idx_sales_facts_concert_occurred_at", columnList = "concert_id, occurred_at"),
+        @Index(name = "idx_sales_facts_ticket", columnList = "ticket_id")
+})
+public class SaleFact {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private SaleKind kind;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Integer ticketId;
+
+    @Column(name = "concert_id", nullable = false)
+    private Integer concertId;
+
+    @Column(name = "concert_title", nullable = false, length = 150)
+    private String concertTitle;
+
+    @Column(name = "concert_date", nullable = false)
+    private LocalDate concertDate;
+
+    @Column(name = "hall_id", nullable = false)
+    private Integer hallId;
+
+    @Column(name = "performer_id", nullable = false)
+    private Integer performerId;
+
+    @Column(name = "buyer_id")
+    private UUID buyerId;
+
+    @Column(name = "buyer_email", length = 255)
+    private String buyerEmail;
+
+    @Column(name = "seat_number", length = 10)
+    private String seatNumber;
+
+    @Column(name = "payment_method", length = 20)
+    private String paymentMethod;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SaleKind getKind() {
+        return kind;
+    }
+
+    public void setKind(SaleKind kind) {
+        this.kind = kind;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+        this.saleDate = occurredAt != null ? occurredAt.toLocalDate() : null;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public Integer getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(Integer ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public Integer getConcertId() {
+        return concertId;
+    }
+
+    public void setConcertId(Integer concertId) {
+        this.concertId = concertId;
+    }
+
+    public String getConcertTitle() {
+        return concertTitle;
+    }
+
+    public void setConcertTitle(String concertTitle) {
+        this.concertTitle = concertTitle;
+    }
+
+    public LocalDate getConcertDate() {
+        return concertDate;
+    }
+
+    public void setConcertDate(LocalDate concertDate) {
+        this.concertDate = concertDate;
+    }
+
+    public Integer getHallId() {
+        return hallId;
+    }
+
+    public void setHallId(Integer hallId) {
+        this.hallId = hallId;
+    }
+
+    public Integer getPerformerId() {
+        return performerId;
+    }
+
+    public void setPerformerId(Integer performerId) {
+        this.performerId = performerId;
+    }
+
+    public UUID getBuyerId() {
+        return buyerId;
+    }
+
+    public void setBuyerId(UUID buyerId) {
+        this.buyerId = buyerId;
+    }
+
+    public String getBuyerEmail() {
+        return buyerEmail;
+    }
+
+    public void setBuyerEmail(String buyerEmail) {
+        this.buyerEmail = buyerEmail;
+    }
+
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    public void setSeatNumber(String seatNumber) {
+        this.seatNumber = seatNumber;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,6 @@
+package org.app.musical_philharmonic.entity;
+
+public enum SaleKind {
+    SALE,
+    RETURN
+}
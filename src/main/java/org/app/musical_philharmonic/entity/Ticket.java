@@ -8,16 +8,18 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Tickets")
+@Table(name = "Tickets", indexes = @Index(name = "idx_tickets_concert_seat", columnList = "concert_id, seat_number"))
 public class Ticket {
 
     @Id
@@ -28,6 +30,11 @@ public class Ticket {
     @JoinColumn(name = "concert_id", nullable = false)
     private Concert concert;
 
+    // Partition key of tickets, copied from the concert; Hibernate adds it to updates and deletes by id
+    @PartitionKey
+    @Column(name = "concert_date", nullable = false)
+    private LocalDate concertDate;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "buyer_id")
     private User buyer;
@@ -75,6 +82,11 @@ public class Ticket {
 
     public void setConcert(Concert concert) {
         this.concert = concert;
+        this.concertDate = concert != null ? concert.getDate() : null;
+    }
+
+    public LocalDate getConcertDate() {
+        return concertDate;
     }
 
     public User getBuyer() {
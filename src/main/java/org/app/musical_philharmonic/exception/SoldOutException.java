@@ -0,0 +1,16 @@
+package org.app.musical_philharmonic.exception;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A booking or purchase turned down for lack of capacity: the hall is full, or the requested seat
+ * or block of adjacent seats is taken. Answered like any {@link ResponseStatusException}; the
+ * ticket metrics count it apart from other rejections.
+ */
+public class SoldOutException extends ResponseStatusException {
+
+    public SoldOutException(HttpStatusCode status, String reason) {
+        super(status, reason);
+    }
+}
@@ -0,0 +1,35 @@
+package org.app.musical_philharmonic.journal;
+
+import org.app.musical_philharmonic.entity.Ticket;
+import org.app.musical_philharmonic.entity.TicketStatus;
+
+import java.util.UUID;
+
+/**
+ * State of a ticket right after a change. The sequence number is assigned when the event is
+ * appended to the journal; events built by {@link #of} carry 0 until then.
+ */
+public record TicketEvent(long sequence,
+                          long timestamp,
+                          TicketEventType type,
+                          int ticketId,
+                          int concertId,
+                          UUID buyerId,
+                          TicketStatus status,
+                          String seatNumber,
+                          String paymentMethod) {
+
+    public static TicketEvent of(TicketEventType type, Ticket ticket) {
+        return new TicketEvent(0, System.currentTimeMillis(), type,
+                ticket.getId(),
+                ticket.getConcert().getId(),
+                ticket.getBuyer() != null ? ticket.getBuyer().getId() : null,
+                ticket.getStatus(),
+                ticket.getSeatNumber(),
+                ticket.getPaymentMethod());
+    }
+
+    public TicketEvent withSequence(long sequence) {
+        return new TicketEvent(sequence, timestamp, type, ticketId, concertId, buyerId, status, seatNumber, paymentMethod);
+    }
+}
@@ -0,0 +1,544 @@
+package org.app.musical_philharmonic.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of ticket state changes, stored as memory-mapped segment files.
+ *
+ * <p>Services publish events after their transaction commits; a single writer thread drains a
+ * bounded queue and appends them, so the request path normally never touches the disk. When the
+ * queue is full the publisher waits for room rather than losing the event. Each record is
+ * {@code [int length][int crc32c][payload]}, and the length is written last, which lets readers
+ * and crash recovery stop at the first incomplete or corrupt record. A segment is closed when the
+ * next record does not fit. Compaction of old closed segments only drops {@code UPDATED} events
+ * that a later {@code UPDATED} of the same ticket supersedes, so the sale and return history
+ * survives. {@link #replay} streams the files for rebuilding a read model without querying the
+ * Tickets table; {@link #history} is the per-ticket audit trail.
+ */
+@Component
+public class TicketEventJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketEventJournal.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD = 512;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushIntervalMs;
+    private final int retainSegments;
+    private final boolean enabled;
+    private final BlockingQueue<TicketEvent> queue;
+    private final ReentrantReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_PAYLOAD);
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Counter appended;
+    private final Counter blocked;
+    private final Counter dropped;
+
+    private Thread writer;
+    private volatile boolean running;
+    private volatile Path activePath;
+    private MappedByteBuffer active;
+    private long nextSequence = 1;
+
+    public TicketEventJournal(@Value("${journal.dir:data/journal}") String directory,
+                              @Value("${journal.segment-size-mb:16}") int segmentSizeMb,
+                              @Value("${journal.flush-interval-ms:200}") long flushIntervalMs,
+                              @Value("${journal.retain-segments:4}") int retainSegments,
+                              @Value("${journal.queue-capacity:65536}") int queueCapacity,
+                              @Value("${journal.enabled:true}") boolean enabled,
+                              MeterRegistry meterRegistry) {
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.flushIntervalMs = flushIntervalMs;
+        this.retainSegments = retainSegments;
+        this.enabled = enabled;
+        // Fair, so publishers blocked on a full queue get in in arrival order
+        this.queue = new ArrayBlockingQueue<>(queueCapacity, true);
+        this.appended = Counter.builder("journal.events.appended").register(meterRegistry);
+        this.blocked = Counter.builder("journal.events.blocked").register(meterRegistry);
+        this.dropped = Counter.builder("journal.events.dropped").register(meterRegistry);
+        Gauge.builder("journal.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        recover();
+        running = true;
+        writer = new Thread(this::writeLoop, "ticket-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Whatever the writer left behind, for instance events queued while it was exiting
+        drainQueue();
+    }
+
+    /**
+     * Queues the event for appending once the surrounding transaction commits (immediately when
+     * there is none). Rolled-back changes never reach the journal.
+     */
+    public void publish(TicketEvent event) {
+        publishAll(List.of(event));
+    }
+
+    public void publishAll(List<TicketEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    events.forEach(TicketEventJournal.this::enqueue);
+                }
+            });
+        } else {
+            events.forEach(this::enqueue);
+        }
+    }
+
+    /**
+     * Streams every readable event with a sequence of at least {@code fromSequence}, oldest first.
+     * A compacted range has every event except the {@code UPDATED} ones that a later
+     * {@code UPDATED} of the same ticket superseded.
+     */
+    public void replay(long fromSequence, Consumer<TicketEvent> consumer) {
+        segmentsLock.readLock().lock();
+        try {
+            for (Path segment : listSegments()) {
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    scan(buffer, event -> {
+                        if (event.sequence() >= fromSequence) {
+                            consumer.accept(event);
+                        }
+                    });
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            segmentsLock.readLock().unlock();
+        }
+    }
+
+    public List<TicketEvent> read(long fromSequence, int limit) {
+        List<TicketEvent> events = new ArrayList<>();
+        try {
+            replay(fromSequence, event -> {
+                if (events.size() >= limit) {
+                    throw new LimitReached();
+                }
+                events.add(event);
+            });
+        } catch (LimitReached ignored) {
+            // Enough events collected
+        }
+        return events;
+    }
+
+    /**
+     * Every event of one ticket still in the journal, oldest first. Scans all segments, so it is
+     * meant for occasional lookups such as disputes, not for request-rate reads.
+     */
+    public List<TicketEvent> history(int ticketId) {
+        List<TicketEvent> events = new ArrayList<>();
+        replay(1, event -> {
+            if (event.ticketId() == ticketId) {
+                events.add(event);
+            }
+        });
+        return events;
+    }
+
+    /**
+     * Folds closed segments older than the newest {@code journal.retain-segments} into a single
+     * segment. Bookings, purchases, returns and the other audit events are all kept; of a run of
+     * {@code UPDATED} events for one ticket with nothing else in between, only the last is.
+     */
+    @Scheduled(cron = "${journal.compaction-cron:0 30 3 * * *}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        segmentsLock.writeLock().lock();
+        try {
+            List<Path> segments = listSegments();
+            Path current = activePath;
+            List<Path> closed = segments.stream().filter(p -> !p.equals(current)).toList();
+            if (closed.size() <= retainSegments + 1) {
+                return;
+            }
+            List<Path> victims = closed.subList(0, closed.size() - retainSegments);
+            List<TicketEvent> kept = new ArrayList<>();
+            // Position in kept of each ticket's trailing UPDATED event, which the next UPDATED replaces
+            Map<Integer, Integer> lastUpdate = new HashMap<>();
+            int[] superseded = {0};
+            for (Path segment : victims) {
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), event -> {
+                        if (event.type() != TicketEventType.UPDATED) {
+                            lastUpdate.remove(event.ticketId());
+                            kept.add(event);
+                            return;
+                        }
+                        Integer previous = lastUpdate.put(event.ticketId(), kept.size());
+                        if (previous != null) {
+                            kept.set(previous, null);
+                            superseded[0]++;
+                        }
+                        kept.add(event);
+                    });
+                }
+            }
+
+            // Written under the first victim's name, so segment order by file name is preserved
+            Path target = victims.get(0);
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + MAX_PAYLOAD);
+                for (TicketEvent event : kept) {
+                    if (event == null) {
+                        continue;
+                    }
+                    record.clear();
+                    encodeRecord(record, event);
+                    record.flip();
+                    while (record.hasRemaining()) {
+                        out.write(record);
+                    }
+                }
+                out.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            for (Path victim : victims.subList(1, victims.size())) {
+                Files.deleteIfExists(victim);
+            }
+            log.info("Compacted {} journal segments into {} ({} events, {} superseded updates dropped)",
+                    victims.size(), target.getFileName(), kept.size() - superseded[0], superseded[0]);
+        } catch (IOException ex) {
+            log.error("Journal compaction failed: {}", ex.getMessage(), ex);
+        } finally {
+            segmentsLock.writeLock().unlock();
+        }
+    }
+
+    private void enqueue(TicketEvent event) {
+        if (running && offerOrWait(event)) {
+            // The writer may have stopped after the check; its final drain can miss this event
+            if (!running) {
+                drainQueue();
+            }
+            return;
+        }
+        // No writer (stopped or shutting down) or interrupted while waiting: write it on this thread
+        appendNow(event);
+    }
+
+    private boolean offerOrWait(TicketEvent event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        // The disk cannot keep up: slow the publisher down rather than lose the event. A writer that
+        // stops clears running and drains the queue, so this wait always ends
+        blocked.increment();
+        try {
+            queue.put(event);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drainQueue() {
+        for (TicketEvent event; (event = queue.poll()) != null; ) {
+            appendNow(event);
+        }
+    }
+
+    private void appendNow(TicketEvent event) {
+        appendLock.lock();
+        try {
+            append(event);
+            active.force();
+            appended.increment();
+        } catch (RuntimeException | IOException ex) {
+            dropped.increment();
+            log.error("Ticket journal write failed, lost {} ticket={}: {}", event.type(), event.ticketId(), ex.getMessage(), ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        List<TicketEvent> batch = new ArrayList<>(1024);
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+        while (running || !queue.isEmpty()) {
+            int written = 0;
+            try {
+                TicketEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                appendLock.lock();
+                try {
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch, 1023);
+                        for (TicketEvent event : batch) {
+                            append(event);
+                            written++;
+                        }
+                        appended.increment(batch.size());
+                        batch.clear();
+                        dirty = true;
+                    }
+                    if (dirty && System.nanoTime() - lastForce >= TimeUnit.MILLISECONDS.toNanos(flushIntervalMs)) {
+                        active.force();
+                        lastForce = System.nanoTime();
+                        dirty = false;
+                    }
+                } finally {
+                    appendLock.unlock();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException | IOException ex) {
+                int lost = batch.size() - written;
+                appended.increment(written);
+                dropped.increment(lost);
+                log.error("Ticket journal write failed, lost {} events: {}", lost, ex.getMessage(), ex);
+                batch.clear();
+            }
+        }
+        // Publishers append on their own threads from here on; what they queued before noticing goes now
+        running = false;
+        drainQueue();
+        appendLock.lock();
+        try {
+            if (active != null) {
+                active.force();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void append(TicketEvent event) throws IOException {
+        TicketEvent sequenced = event.withSequence(nextSequence);
+        scratch.clear();
+        encodePayload(scratch, sequenced);
+        scratch.flip();
+        int length = scratch.remaining();
+        if (active.remaining() < HEADER_SIZE + length) {
+            roll();
+        }
+        int position = active.position();
+        CRC32C crc = new CRC32C();
+        crc.update(scratch.duplicate());
+        active.putInt(position + 4, (int) crc.getValue());
+        active.put(position + HEADER_SIZE, scratch, 0, length);
+        // Length goes in last: until then readers see the end of the segment here
+        active.putInt(position, length);
+        active.position(position + HEADER_SIZE + length);
+        nextSequence++;
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.force();
+        }
+        activePath = directory.resolve(String.format("%020d%s", nextSequence, SEGMENT_SUFFIX));
+        active = map(activePath);
+        log.info("Opened journal segment {}", activePath.getFileName());
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            roll();
+            return;
+        }
+        long lastSequence = 0;
+        for (Path segment : segments) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                long[] last = {0};
+                scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), e -> last[0] = e.sequence());
+                lastSequence = Math.max(lastSequence, last[0]);
+            }
+        }
+        nextSequence = lastSequence + 1;
+
+        Path newest = segments.get(segments.size() - 1);
+        if (Files.size(newest) != segmentSize) {
+            // Compacted segments are closed by definition
+            roll();
+            return;
+        }
+        activePath = newest;
+        active = map(newest);
+        int end = scan(active.duplicate(), e -> { });
+        // Zero out a torn tail so later scans stop at the same place
+        for (int i = end; i < Math.min(segmentSize, end + HEADER_SIZE + MAX_PAYLOAD); i++) {
+            active.put(i, (byte) 0);
+        }
+        active.position(end);
+        log.info("Recovered ticket journal: {} segments, next sequence {}", segments.size(), nextSequence);
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private List<Path> listSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Returns the offset just past the last valid record
+    private static int scan(ByteBuffer buffer, Consumer<TicketEvent> consumer) {
+        int position = 0;
+        int limit = buffer.limit();
+        while (position + HEADER_SIZE <= limit) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > MAX_PAYLOAD || position + HEADER_SIZE + length > limit) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(position + HEADER_SIZE, length);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            consumer.accept(decodePayload(payload));
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private static void encodeRecord(ByteBuffer record, TicketEvent event) {
+        ByteBuffer payload = ByteBuffer.allocate(MAX_PAYLOAD);
+        encodePayload(payload, event);
+        payload.flip();
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        record.putInt(payload.remaining());
+        record.putInt((int) crc.getValue());
+        record.put(payload);
+    }
+
+    private static void encodePayload(ByteBuffer buffer, TicketEvent event) {
+        buffer.putLong(event.sequence());
+        buffer.putLong(event.timestamp());
+        buffer.put((byte) event.type().ordinal());
+        buffer.putInt(event.ticketId());
+        buffer.putInt(event.concertId());
+        if (event.buyerId() != null) {
+            buffer.put((byte) 1);
+            buffer.putLong(event.buyerId().getMostSignificantBits());
+            buffer.putLong(event.buyerId().getLeastSignificantBits());
+        } else {
+            buffer.put((byte) 0);
+        }
+        buffer.put((byte) (event.status() != null ? event.status().ordinal() : -1));
+        putString(buffer, event.seatNumber());
+        putString(buffer, event.paymentMethod());
+    }
+
+    private static TicketEvent decodePayload(ByteBuffer buffer) {
+        long sequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+        TicketEventType type = TicketEventType.values()[buffer.get()];
+        int ticketId = buffer.getInt();
+        int concertId = buffer.getInt();
+        UUID buyerId = buffer.get() == 1 ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+        byte status = buffer.get();
+        String seatNumber = getString(buffer);
+        String paymentMethod = getString(buffer);
+        return new TicketEvent(sequence, timestamp, type, ticketId, concertId, buyerId,
+                status >= 0 ? TicketStatus.values()[status] : null, seatNumber, paymentMethod);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 200);
+        buffer.putShort((short) length);
+        buffer.put(bytes, 0, length);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class LimitReached extends RuntimeException {
+        LimitReached() {
+            super(null, null, false, false);
+        }
+    }
+}
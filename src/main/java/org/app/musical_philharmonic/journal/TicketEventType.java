@@ -0,0 +1,11 @@
+package org.app.musical_philharmonic.journal;
+
+public enum TicketEventType {
+    CREATED,
+    BOOKED,
+    PURCHASED,
+    RETURNED,
+    UPDATED,
+    DELETED,
+    EXPIRED
+}
@@ -0,0 +1,199 @@
+package org.app.musical_philharmonic.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections everywhere
+ * else. Replicas are taken round-robin among those that passed their last health check and are no
+ * further behind than {@code maxLagMs}; when none qualifies, or the chosen one refuses a
+ * connection, the read goes to the primary instead of failing. Reads that must see this
+ * instance's own latest writes run inside {@link #onPrimary}.
+ *
+ * <p>The read-only flag is only known once the transaction has started, so this must sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers the
+ * real checkout to the first statement, and Hibernate must give connections back after each
+ * transaction rather than hold them for the whole session.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Zero when the replica has replayed everything the primary had written at the last check;
+    // otherwise the age of the last replayed commit, or "very far" when nothing was replayed since
+    // the replica started. A server that is not in recovery is current
+    private static final String LAG = """
+            select case
+                       when not pg_is_in_recovery() then 0
+                       when cast(? as pg_lsn) is not null and pg_last_wal_replay_lsn() >= cast(? as pg_lsn) then 0
+                       else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 2147483647)
+                   end
+            """;
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMs = maxLagMs;
+        this.primaryReads = Counter.builder("replicas.reads").tag("target", "primary").register(meterRegistry);
+        for (Replica replica : this.replicas) {
+            replica.reads = Counter.builder("replicas.reads").tag("target", replica.name).register(meterRegistry);
+            Gauge.builder("replicas.lag", replica, r -> r.up ? r.lagMs : Double.NaN)
+                    .tag("replica", replica.name).baseUnit("milliseconds").register(meterRegistry);
+        }
+    }
+
+    /**
+     * Runs {@code work} with read-only transactions on the primary. For reads that must not lag
+     * behind a write just made: anything cached under a version bumped by that write, or a
+     * customer's own tickets right after booking. Only connections checked out inside
+     * {@code work} are affected, so it wraps whole transactions.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PINNED.get() != null) {
+            return work.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        if (PINNED.get() != null) {
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (!replica.usable(maxLagMs)) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException ex) {
+                replica.down(ex);
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Explicit credentials are for the primary's pool; replicas always use their own
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Measures every replica's lag against the primary's current WAL position. A replica that
+     * cannot be reached is taken out until a later check succeeds.
+     */
+    @Scheduled(fixedDelayString = "${replicas.health-check-interval-ms:2000}")
+    public void checkReplicas() {
+        String primaryLsn = null;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select cast(pg_current_wal_lsn() as text)")) {
+            rs.next();
+            primaryLsn = rs.getString(1);
+        } catch (SQLException ex) {
+            log.warn("Cannot read the primary's WAL position; replica lag falls back to replay time: {}", ex.getMessage());
+        }
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(LAG)) {
+                statement.setQueryTimeout(5);
+                statement.setString(1, primaryLsn);
+                statement.setString(2, primaryLsn);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    replica.up((long) rs.getDouble(1), maxLagMs);
+                }
+            } catch (SQLException ex) {
+                replica.down(ex);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * One replica pool and what the last health check found. Starts out down, so nothing is read
+     * from it before it has been checked once.
+     */
+    public static final class Replica {
+
+        final String name;
+        final DataSource dataSource;
+        volatile boolean up;
+        volatile long lagMs;
+        Counter reads;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean usable(long maxLagMs) {
+            return up && lagMs <= maxLagMs;
+        }
+
+        void up(long lagMs, long maxLagMs) {
+            boolean wasUsable = usable(maxLagMs);
+            this.lagMs = lagMs;
+            this.up = true;
+            if (!wasUsable && usable(maxLagMs)) {
+                log.info("Replica {} is serving reads (lag {} ms)", name, lagMs);
+            } else if (wasUsable && !usable(maxLagMs)) {
+                log.warn("Replica {} is {} ms behind the primary; reads go elsewhere until it catches up", name, lagMs);
+            }
+        }
+
+        void down(SQLException ex) {
+            if (up) {
+                log.warn("Replica {} is unavailable; reads go elsewhere: {}", name, ex.getMessage());
+            }
+            up = false;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package org.app.musical_philharmonic.repository;
 
+import jakarta.persistence.QueryHint;
 import org.app.musical_philharmonic.entity.Concert;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
@@ -14,6 +17,9 @@ public interface ConcertRepository extends JpaRepository<Concert, Integer> {
     Page<Concert> findByPerformerId(Integer performerId, Pageable pageable);
     Page<Concert> findByTitleContainingIgnoreCase(String titlePart, Pageable pageable);
     Page<Concert> findByDate(LocalDate date, Pageable pageable);
+
+    // Backs the upcoming-concerts pages; results and counts live in the query cache until a Concert write
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), forCounting = true)
     Page<Concert> findByDateBetween(LocalDate start, LocalDate end, Pageable pageable);
 
     @Query("select count(c) from Concert c where c.performer.id = :performerId")
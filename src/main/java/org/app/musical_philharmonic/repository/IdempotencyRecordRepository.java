@@ -0,0 +1,21 @@
+package org.app.musical_philharmonic.repository;
+
+import org.app.musical_philharmonic.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+
+    // Runs at once, unlike delete(entity), which Hibernate would flush after an insert of the same id
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.createdAt < :cutoff")
+    int deleteIfOlderThan(@Param("id") String id, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,78 @@
+package org.app.musical_philharmonic.repository;
+
+import jakarta.persistence.QueryHint;
+import org.app.musical_philharmonic.dto.SaleExportRow;
+import org.app.musical_philharmonic.dto.SalesAggregate;
+import org.app.musical_philharmonic.entity.SaleFact;
+import org.app.musical_philharmonic.entity.SaleKind;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface SaleFactRepository extends JpaRepository<SaleFact, Long> {
+
+    Page<SaleFact> findByKindAndOccurredAtBetween(SaleKind kind, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    Optional<SaleFact> findFirstByTicketIdAndKindOrderByIdDesc(Integer ticketId, SaleKind kind);
+
+    @Query("select new org.app.musical_philharmonic.dto.SalesAggregate(cast(f.saleDate as String), sum(f.quantity), sum(f.amount)) " +
+            "from SaleFact f where f.occurredAt >= :from and f.occurredAt < :to group by f.saleDate order by f.saleDate")
+    List<SalesAggregate> aggregateByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new org.app.musical_philharmonic.dto.SalesAggregate(f.concertTitle, sum(f.quantity), sum(f.amount)) " +
+            "from SaleFact f where f.occurredAt >= :from and f.occurredAt < :to group by f.concertId, f.concertTitle order by sum(f.amount) desc")
+    List<SalesAggregate> aggregateByConcert(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new org.app.musical_philharmonic.dto.SalesAggregate(cast(f.hallId as String), sum(f.quantity), sum(f.amount)) " +
+            "from SaleFact f where f.occurredAt >= :from and f.occurredAt < :to group by f.hallId order by sum(f.amount) desc")
+    List<SalesAggregate> aggregateByHall(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new org.app.musical_philharmonic.dto.SalesAggregate(cast(f.performerId as String), sum(f.quantity), sum(f.amount)) " +
+            "from SaleFact f where f.occurredAt >= :from and f.occurredAt < :to group by f.performerId order by sum(f.amount) desc")
+    List<SalesAggregate> aggregateByPerformer(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new org.app.musical_philharmonic.dto.SalesAggregate(coalesce(f.paymentMethod, 'unknown'), sum(f.quantity), sum(f.amount)) " +
+            "from SaleFact f where f.occurredAt >= :from and f.occurredAt < :to group by coalesce(f.paymentMethod, 'unknown') order by sum(f.amount) desc")
+    List<SalesAggregate> aggregateByPaymentMethod(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = TicketRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new org.app.musical_philharmonic.dto.SaleExportRow(f.id, f.kind, f.occurredAt, f.ticketId, f.concertId, " +
+            "f.concertTitle, f.hallId, f.performerId, f.buyerId, f.buyerEmail, f.seatNumber, f.paymentMethod, f.quantity, f.amount) " +
+            "from SaleFact f where f.occurredAt >= :from and f.occurredAt < :to order by f.occurredAt, f.id")
+    Stream<SaleExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Creates a SALE fact for every sold ticket that has none yet, pricing it at the concert's
+     * current price. Runs as a single INSERT ... SELECT, so it is safe to repeat.
+     */
+    @Modifying
+    @Query(value = """
+            insert into sales_facts (kind, occurred_at, sale_date, ticket_id, concert_id, concert_title, concert_date,
+                                     hall_id, performer_id, buyer_id, buyer_email, seat_number, payment_method, quantity, amount)
+            select 'SALE', t.purchase_timestamp, cast(t.purchase_timestamp as date), t.id, c.id, c.title, c.date,
+                   c.hall_id, c.performer_id, t.buyer_id, u.email, t.seat_number, t.payment_method, 1, c.ticket_price
+            from tickets t
+            join concerts c on c.id = t.concert_id
+            left join users u on u.id = t.buyer_id
+            where t.status = 'SOLD'
+              and not exists (select 1 from sales_facts f where f.ticket_id = t.id)
+            """, nativeQuery = true)
+    int backfillFromTickets();
+}
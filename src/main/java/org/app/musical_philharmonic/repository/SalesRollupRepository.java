@@ -0,0 +1,58 @@
+package org.app.musical_philharmonic.repository;
+
+import org.app.musical_philharmonic.dto.SalesAggregate;
+import org.app.musical_philharmonic.entity.RollupGranularity;
+import org.app.musical_philharmonic.entity.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    List<SalesRollup> findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+            RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    @Query("select new org.app.musical_philharmonic.dto.SalesAggregate('total', sum(r.tickets), sum(r.revenue)) " +
+            "from SalesRollup r where r.granularity = :granularity and r.bucketStart >= :from and r.bucketStart < :to")
+    List<SalesAggregate> total(@Param("granularity") RollupGranularity granularity,
+                               @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new org.app.musical_philharmonic.dto.SalesAggregate(cast(r.concertId as String), sum(r.tickets), sum(r.revenue)) " +
+            "from SalesRollup r where r.granularity = :granularity and r.bucketStart >= :from and r.bucketStart < :to group by r.concertId")
+    List<SalesAggregate> totalByConcert(@Param("granularity") RollupGranularity granularity,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new org.app.musical_philharmonic.dto.SalesAggregate(cast(r.hallId as String), sum(r.tickets), sum(r.revenue)) " +
+            "from SalesRollup r where r.granularity = :granularity and r.bucketStart >= :from and r.bucketStart < :to group by r.hallId")
+    List<SalesAggregate> totalByHall(@Param("granularity") RollupGranularity granularity,
+                                     @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new org.app.musical_philharmonic.dto.SalesAggregate(r.paymentMethod, sum(r.tickets), sum(r.revenue)) " +
+            "from SalesRollup r where r.granularity = :granularity and r.bucketStart >= :from and r.bucketStart < :to group by r.paymentMethod")
+    List<SalesAggregate> totalByPaymentMethod(@Param("granularity") RollupGranularity granularity,
+                                              @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("delete from SalesRollup r where r.bucketStart >= :from and r.bucketStart < :to")
+    int deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Recomputes one granularity of rollups for {@code [from, to)} from the sales fact table.
+     * The range must have been cleared with {@link #deleteRange} first.
+     */
+    @Modifying
+    @Query(value = """
+            insert into sales_rollups (granularity, bucket_start, concert_id, hall_id, payment_method, tickets, revenue)
+            select :granularity, date_trunc(:unit, f.occurred_at), f.concert_id, f.hall_id,
+                   coalesce(f.payment_method, 'unknown'), sum(f.quantity), sum(f.amount)
+            from sales_facts f
+            where f.occurred_at >= :from and f.occurred_at < :to
+            group by 2, 3, 4, 5
+            """, nativeQuery = true)
+    int rebuildFromFacts(@Param("granularity") String granularity, @Param("unit") String unit,
+                         @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
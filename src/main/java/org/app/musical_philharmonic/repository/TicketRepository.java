@@ -1,37 +1,83 @@
 package org.app.musical_philharmonic.repository;
 
+import jakarta.persistence.QueryHint;
+import org.app.musical_philharmonic.dto.TicketExportRow;
 import org.app.musical_philharmonic.entity.Ticket;
 import org.app.musical_philharmonic.entity.TicketStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface TicketRepository extends JpaRepository<Ticket, Integer>, JpaSpecificationExecutor<Ticket> {
-    Page<Ticket> findByConcertId(Integer concertId, Pageable pageable);
+
+    // Rows per round trip for export cursors: large enough to amortize latency, small enough for a flat heap
+    String EXPORT_FETCH_SIZE = "1000";
+
+    // Per-concert queries also take the concert's date, the partition key, so the planner prunes to one month
+    String SAME_CONCERT = "t.concert.id = :concertId and t.concertDate = :concertDate";
+
+    @Query("select t from Ticket t where " + SAME_CONCERT)
+    Page<Ticket> findByConcertId(@Param("concertId") Integer concertId, @Param("concertDate") LocalDate concertDate,
+                                 Pageable pageable);
+
     Page<Ticket> findByBuyerId(java.util.UUID buyerId, Pageable pageable);
     Page<Ticket> findByStatus(TicketStatus status, Pageable pageable);
 
-    @Query("select count(t) from Ticket t where t.concert.id = :concertId and t.status = 'SOLD'")
-    long countSoldByConcert(@Param("concertId") Integer concertId);
+    @Query("select count(t) from Ticket t where " + SAME_CONCERT + " and t.status = 'SOLD'")
+    long countSoldByConcert(@Param("concertId") Integer concertId, @Param("concertDate") LocalDate concertDate);
 
-    @Query("select count(t) from Ticket t where t.concert.id = :concertId and t.status = 'AVAILABLE'")
-    long countAvailableByConcert(@Param("concertId") Integer concertId);
+    @Query("select count(t) from Ticket t where " + SAME_CONCERT + " and t.status = 'AVAILABLE'")
+    long countAvailableByConcert(@Param("concertId") Integer concertId, @Param("concertDate") LocalDate concertDate);
 
-    @Query("select count(t) from Ticket t where t.concert.id = :concertId and t.status in ('RESERVED', 'SOLD')")
-    long countReservedOrSoldByConcert(@Param("concertId") Integer concertId);
+    @Query("select count(t) from Ticket t where " + SAME_CONCERT + " and t.status in ('RESERVED', 'SOLD')")
+    long countReservedOrSoldByConcert(@Param("concertId") Integer concertId, @Param("concertDate") LocalDate concertDate);
 
     @Query("select t from Ticket t where t.status = 'RESERVED' and t.reservationExpiration < :cutoff")
     List<Ticket> findExpiredReservations(@Param("cutoff") LocalDateTime cutoff);
 
-    boolean existsByConcertIdAndSeatNumberAndStatusIn(Integer concertId, String seatNumber, java.util.Collection<TicketStatus> statuses);
+    @Query("select case when count(t) > 0 then true else false end from Ticket t where " + SAME_CONCERT
+            + " and t.seatNumber = :seatNumber and t.status in :statuses")
+    boolean existsByConcertIdAndSeatNumberAndStatusIn(@Param("concertId") Integer concertId,
+                                                      @Param("concertDate") LocalDate concertDate,
+                                                      @Param("seatNumber") String seatNumber,
+                                                      @Param("statuses") java.util.Collection<TicketStatus> statuses);
 
-    Page<Ticket> findByConcertIdAndStatus(Integer concertId, TicketStatus status, Pageable pageable);
+    @Query("select t from Ticket t where " + SAME_CONCERT + " and t.status = :status")
+    Page<Ticket> findByConcertIdAndStatus(@Param("concertId") Integer concertId,
+                                          @Param("concertDate") LocalDate concertDate,
+                                          @Param("status") TicketStatus status, Pageable pageable);
+
+    @Query("select t from Ticket t where " + SAME_CONCERT + " and t.seatNumber in :seatNumbers and t.status = :status")
+    List<Ticket> findByConcertIdAndSeatNumberInAndStatus(@Param("concertId") Integer concertId,
+                                                         @Param("concertDate") LocalDate concertDate,
+                                                         @Param("seatNumbers") java.util.Collection<String> seatNumbers,
+                                                         @Param("status") TicketStatus status);
+
+    @Query("select t.seatNumber, t.status from Ticket t where " + SAME_CONCERT + " and t.status in :statuses")
+    List<Object[]> findSeatsByConcertAndStatusIn(@Param("concertId") Integer concertId,
+                                                 @Param("concertDate") LocalDate concertDate,
+                                                 @Param("statuses") java.util.Collection<TicketStatus> statuses);
+
+    /**
+     * Moves a rescheduled concert's tickets to the partition of its new date.
+     */
+    @Modifying
+    @Query("update Ticket t set t.concertDate = :to where t.concert.id = :concertId and t.concertDate = :from")
+    int moveToConcertDate(@Param("concertId") Integer concertId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 
     Page<Ticket> findByPurchaseTimestampBetween(LocalDateTime from, LocalDateTime to, Pageable pageable);
 
@@ -40,5 +86,20 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer>, JpaSpe
 
     @Query("SELECT t FROM Ticket t WHERE t.buyer.email LIKE CONCAT('%', :buyerEmail, '%')")
     Page<Ticket> findByBuyerEmailContainingIgnoreCase(@Param("buyerEmail") String buyerEmail, Pageable pageable);
-}
 
+    /**
+     * Forward-only cursor over flat ticket rows for exports. Must be consumed inside a transaction
+     * so the driver can fetch in batches instead of buffering the whole result.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new org.app.musical_philharmonic.dto.TicketExportRow(t.id, c.id, c.title, b.id, b.email, t.seatNumber, " +
+            "t.purchaseTimestamp, t.status, t.reservationExpiration, t.paymentMethod, t.returnReason, t.returnTime) " +
+            "from Ticket t join t.concert c left join t.buyer b " +
+            "where (:concertId is null or c.id = :concertId) and (:status is null or t.status = :status) " +
+            "order by t.id")
+    Stream<TicketExportRow> streamForExport(@Param("concertId") Integer concertId, @Param("status") TicketStatus status);
+}
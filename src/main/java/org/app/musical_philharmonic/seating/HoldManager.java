@@ -0,0 +1,192 @@
+package org.app.musical_philharmonic.seating;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.app.musical_philharmonic.journal.TicketEvent;
+import org.app.musical_philharmonic.journal.TicketEventJournal;
+import org.app.musical_philharmonic.journal.TicketEventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reservation expiry. Every RESERVED ticket with an expiration is a lease in a {@link TimingWheel};
+ * a scheduled tick advances the wheel and releases whatever came due back to the concert's seat
+ * inventory. The database is written lazily: one guarded bulk update per tick for all expired
+ * leases, never a per-hold timer or poll. On startup the wheel is rebuilt from the RESERVED rows,
+ * so leases that ran out while the application was down expire on the first tick.
+ */
+@Component
+public class HoldManager {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldManager.class);
+
+    private static final int BATCH_SIZE = 5000;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    // The guard skips tickets that were purchased, returned or re-reserved since the lease was scheduled
+    private static final String EXPIRE = """
+            update tickets set status = 'AVAILABLE', buyer_id = null, reservation_expiration = null
+            where id = any(?) and status = 'RESERVED' and reservation_expiration <= ?
+            returning id, concert_id, seat_number
+            """;
+
+    private static final String LOAD = """
+            select id, reservation_expiration from tickets
+            where status = 'RESERVED' and reservation_expiration is not null
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SeatInventory seatInventory;
+    private final TicketEventJournal journal;
+    private final TimingWheel wheel;
+    private final Counter expiredCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Clock clock = Clock.systemDefaultZone();
+
+    // Only touched by the scheduler thread
+    private int[] due = new int[1024];
+    private int dueCount;
+
+    public HoldManager(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       SeatInventory seatInventory,
+                       TicketEventJournal journal,
+                       MeterRegistry meterRegistry,
+                       @Value("${holds.initial-capacity:65536}") int initialCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.seatInventory = seatInventory;
+        this.journal = journal;
+        this.wheel = new TimingWheel(clock.millis(), initialCapacity);
+        this.expiredCounter = Counter.builder("holds.expired").register(meterRegistry);
+        // Batches that failed and were put back on the wheel for a retry
+        this.failedCounter = Counter.builder("holds.expire.failed").register(meterRegistry);
+        this.batchTimer = Timer.builder("holds.expire.batch").register(meterRegistry);
+        Gauge.builder("holds.active", wheel, TimingWheel::size).register(meterRegistry);
+    }
+
+    /**
+     * Starts (or moves) the ticket's lease once the surrounding transaction commits.
+     */
+    public void hold(Integer ticketId, LocalDateTime expiration) {
+        long deadline = toMillis(expiration);
+        afterCommit(() -> wheel.schedule(ticketId, deadline));
+    }
+
+    /**
+     * Ends the ticket's lease once the surrounding transaction commits; a no-op if it has none.
+     */
+    public void cancel(Integer ticketId) {
+        afterCommit(() -> wheel.cancel(ticketId));
+    }
+
+    public int active() {
+        return wheel.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int[] loaded = {0};
+        jdbcTemplate.query(LOAD, rs -> {
+            wheel.schedule(rs.getInt(1), toMillis(rs.getTimestamp(2).toLocalDateTime()));
+            loaded[0]++;
+        });
+        log.info("Loaded {} reservation leases", loaded[0]);
+    }
+
+    @Scheduled(fixedDelayString = "${holds.tick-ms:100}")
+    public void expire() {
+        long now = clock.millis();
+        dueCount = 0;
+        wheel.advance(now, this::addDue);
+        for (int from = 0; from < dueCount; from += BATCH_SIZE) {
+            int[] batch = Arrays.copyOfRange(due, from, Math.min(dueCount, from + BATCH_SIZE));
+            try {
+                batchTimer.record(() -> persist(batch, now));
+            } catch (RuntimeException ex) {
+                failedCounter.increment();
+                log.warn("Failed to expire {} reservations, retrying in {} ms", batch.length, RETRY_DELAY_MS, ex);
+                for (int ticketId : batch) {
+                    wheel.schedule(ticketId, now + RETRY_DELAY_MS);
+                }
+            }
+        }
+    }
+
+    private void persist(int[] ticketIds, long now) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<TicketEvent> events = new ArrayList<>(ticketIds.length);
+            Map<Integer, List<String>> seatsByConcert = new HashMap<>();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPIRE);
+                ps.setArray(1, con.createArrayOf("integer", Arrays.stream(ticketIds).boxed().toArray()));
+                ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now(clock)));
+                return ps;
+            }, rs -> {
+                int concertId = rs.getInt(2);
+                String seat = rs.getString(3);
+                events.add(new TicketEvent(0, now, TicketEventType.EXPIRED, rs.getInt(1), concertId,
+                        null, TicketStatus.AVAILABLE, seat, null));
+                seatsByConcert.computeIfAbsent(concertId, id -> new ArrayList<>()).add(seat);
+            });
+            seatsByConcert.forEach(seatInventory::release);
+            journal.publishAll(events);
+            expiredCounter.increment(events.size());
+            if (!events.isEmpty()) {
+                log.info("Expired {} reservations", events.size());
+            }
+        });
+    }
+
+    private void addDue(int ticketId) {
+        if (dueCount == due.length) {
+            due = Arrays.copyOf(due, due.length * 2);
+        }
+        due[dueCount++] = ticketId;
+    }
+
+    // Rounded up so a lease never fires before the stored expiration
+    private long toMillis(LocalDateTime expiration) {
+        Instant instant = expiration.atZone(clock.getZone()).toInstant();
+        return instant.toEpochMilli() + (instant.getNano() % 1_000_000 != 0 ? 1 : 0);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
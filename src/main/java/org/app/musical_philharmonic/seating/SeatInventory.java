@@ -0,0 +1,320 @@
+package org.app.musical_philharmonic.seating;
+
+import org.app.musical_philharmonic.entity.Concert;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.app.musical_philharmonic.exception.SoldOutException;
+import org.app.musical_philharmonic.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+/**
+ * In-memory seat maps for concerts whose hall has assigned seating, loaded lazily from the
+ * RESERVED and SOLD tickets. Seats are taken in memory first so concurrent bookings never pick the
+ * same seat; the caller then persists only the tickets that changed. If the transaction rolls
+ * back, only the seats it took are put back: other bookings still in flight keep theirs. Seats
+ * are freed only after commit. The unique index on taken seats (V5) backs this up.
+ */
+@Component
+public class SeatInventory {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatInventory.class);
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final TicketRepository ticketRepository;
+    private final TransactionTemplate primaryTx;
+    private final ConcurrentHashMap<Integer, SeatMap> maps = new ConcurrentHashMap<>();
+
+    public SeatInventory(TicketRepository ticketRepository, PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.primaryTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the concert's seat map, or {@code null} when its hall has no seat layout.
+     */
+    public SeatMap map(Concert concert) {
+        SeatLayout layout = SeatLayout.of(concert.getHall());
+        if (layout == null) {
+            return null;
+        }
+        SeatMap map = maps.get(concert.getId());
+        if (map != null && sameShape(map.layout(), layout)) {
+            return map;
+        }
+        SeatMap loaded = load(concert, layout);
+        // Another thread may have loaded it meanwhile; keep whichever got in first
+        SeatMap existing = maps.putIfAbsent(concert.getId(), loaded);
+        if (existing != null && sameShape(existing.layout(), layout)) {
+            return existing;
+        }
+        maps.put(concert.getId(), loaded);
+        return loaded;
+    }
+
+    /**
+     * Holds seats for a booking: the given seat when {@code preferred} names one, otherwise the
+     * best block of {@code quantity} adjacent seats. Returns the seat labels, or {@code null} for
+     * halls without assigned seating.
+     */
+    public List<String> hold(Concert concert, int quantity, String preferred) {
+        SeatMap map = map(concert);
+        if (map == null) {
+            return null;
+        }
+        SeatLayout layout = map.layout();
+        int[] seats;
+        int preferredIndex = quantity == 1 ? layout.indexOf(preferred) : -1;
+        if (preferredIndex >= 0) {
+            seats = new int[]{preferredIndex};
+            if (!map.hold(seats)) {
+                throw new SoldOutException(CONFLICT, "Seat " + preferred + " is not available");
+            }
+        } else {
+            int first = map.holdBlock(quantity);
+            if (first < 0) {
+                throw new SoldOutException(CONFLICT,
+                        String.format("No %d adjacent seats available (%d seats free)", quantity, map.free()));
+            }
+            seats = new int[quantity];
+            for (int i = 0; i < quantity; i++) {
+                seats[i] = first + i;
+            }
+        }
+        undoOnRollback(() -> map.release(seats));
+        List<String> labels = new ArrayList<>(seats.length);
+        for (int index : seats) {
+            labels.add(layout.label(index));
+        }
+        return labels;
+    }
+
+    /**
+     * Best block of {@code quantity} adjacent seats right now, without holding it; empty when no
+     * such block exists, {@code null} for halls without assigned seating.
+     */
+    public List<String> preview(Concert concert, int quantity) {
+        SeatMap map = map(concert);
+        if (map == null) {
+            return null;
+        }
+        int first = map.findBlock(quantity);
+        if (first < 0) {
+            return List.of();
+        }
+        List<String> labels = new ArrayList<>(quantity);
+        for (int i = 0; i < quantity; i++) {
+            labels.add(map.layout().label(first + i));
+        }
+        return labels;
+    }
+
+    public void sell(Concert concert, List<String> labels) {
+        SeatMap map = map(concert);
+        if (map == null) {
+            return;
+        }
+        int[] seats = indexes(map.layout(), labels);
+        SeatMap.State[] before = map.sell(seats);
+        undoOnRollback(() -> {
+            for (int i = 0; i < seats.length; i++) {
+                if (before[i] == SeatMap.State.FREE) {
+                    map.release(new int[]{seats[i]});
+                } else if (before[i] == SeatMap.State.HELD) {
+                    map.unsell(new int[]{seats[i]});
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies an admin edit of a ticket as a seat diff. The new seat is taken right away, and
+     * given back if the transaction rolls back. The old seat is freed once the transaction
+     * commits. Taking a seat that another ticket holds fails with 409. {@code oldConcert} is
+     * {@code null} for a new ticket.
+     */
+    public void change(Concert oldConcert, String oldSeat, TicketStatus oldStatus,
+                       Concert newConcert, String newSeat, TicketStatus newStatus) {
+        boolean wasTaken = oldConcert != null && isTaken(oldStatus);
+        boolean nowTaken = newConcert != null && isTaken(newStatus);
+        boolean sameSeat = oldConcert != null && newConcert != null && oldConcert.getId().equals(newConcert.getId())
+                && Objects.equals(oldSeat, newSeat);
+        if (nowTaken && wasTaken && sameSeat) {
+            if (oldStatus == TicketStatus.RESERVED && newStatus == TicketStatus.SOLD) {
+                sell(newConcert, List.of(newSeat));
+            } else if (oldStatus == TicketStatus.SOLD && newStatus == TicketStatus.RESERVED) {
+                SeatMap map = map(newConcert);
+                if (map != null) {
+                    int[] seats = indexes(map.layout(), List.of(newSeat));
+                    afterCommit(() -> map.unsell(seats));
+                }
+            }
+            return;
+        }
+        if (nowTaken) {
+            take(newConcert, newSeat, newStatus);
+        }
+        if (wasTaken) {
+            release(oldConcert, List.of(oldSeat));
+        }
+    }
+
+    /**
+     * Frees the seats once the surrounding transaction commits.
+     */
+    public void release(Concert concert, List<String> labels) {
+        SeatMap map = map(concert);
+        if (map == null) {
+            return;
+        }
+        int[] seats = indexes(map.layout(), labels);
+        afterCommit(() -> map.release(seats));
+    }
+
+    /**
+     * Same as {@link #release(Concert, List)} for callers that only have the concert id; a map
+     * that is not loaded yet needs no update, it will read the committed rows.
+     */
+    public void release(Integer concertId, List<String> labels) {
+        SeatMap map = maps.get(concertId);
+        if (map == null) {
+            return;
+        }
+        int[] seats = indexes(map.layout(), labels);
+        afterCommit(() -> map.release(seats));
+    }
+
+    /**
+     * Runs ticket writes that take seats of the concert and flushes them, so the unique index on
+     * taken seats (V5) is checked here and not at commit. A violation means the map missed a seat
+     * taken elsewhere, e.g. by another instance, which keeps its own maps over the same table. The
+     * map is dropped so the next booking reloads it from the table, and the call fails with 409.
+     */
+    public <T> T persist(Integer concertId, Supplier<T> writes) {
+        try {
+            T result = writes.get();
+            ticketRepository.flush();
+            return result;
+        } catch (DataIntegrityViolationException ex) {
+            // Ticket ids are generated, so the taken-seat index is the only unique key a write can hit;
+            // on a partitioned table the error names the partition's copy of it, not uq_tickets_taken_seat
+            if (!isUniqueViolation(ex)) {
+                throw ex;
+            }
+            if (maps.remove(concertId) != null) {
+                log.warn("Seat map concert={} missed a seat taken elsewhere, reloading it", concertId);
+            }
+            throw new SoldOutException(CONFLICT, "Seat was just taken, please try again");
+        }
+    }
+
+    private void take(Concert concert, String label, TicketStatus status) {
+        SeatMap map = map(concert);
+        if (map == null) {
+            return;
+        }
+        int[] seats = indexes(map.layout(), List.of(label));
+        if (seats.length == 0) {
+            return;
+        }
+        if (!map.hold(seats)) {
+            throw new SoldOutException(CONFLICT, "Seat " + label + " is not available");
+        }
+        if (status == TicketStatus.SOLD) {
+            map.sell(seats);
+        }
+        undoOnRollback(() -> map.release(seats));
+    }
+
+    private SeatMap load(Concert concert, SeatLayout layout) {
+        Integer concertId = concert.getId();
+        SeatMap map = new SeatMap(layout);
+        // Later bookings trust the map, so it is never loaded from a read replica that may lag behind
+        List<Object[]> rows = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? primaryTx.execute(status -> findTaken(concert))
+                : findTaken(concert);
+        for (Object[] row : rows) {
+            int index = layout.indexOf((String) row[0]);
+            if (index < 0) {
+                continue;
+            }
+            if (row[1] == TicketStatus.SOLD) {
+                map.sell(new int[]{index});
+            } else {
+                map.hold(new int[]{index});
+            }
+        }
+        log.info("Loaded seat map concert={} seats={} free={} bytes={}", concertId, layout.capacity(), map.free(), map.sizeInBytes());
+        return map;
+    }
+
+    private List<Object[]> findTaken(Concert concert) {
+        return ticketRepository.findSeatsByConcertAndStatusIn(concert.getId(), concert.getDate(),
+                List.of(TicketStatus.RESERVED, TicketStatus.SOLD));
+    }
+
+    private static void undoOnRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static boolean isUniqueViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] indexes(SeatLayout layout, List<String> labels) {
+        return labels.stream().mapToInt(layout::indexOf).filter(i -> i >= 0).distinct().toArray();
+    }
+
+    private static boolean isTaken(TicketStatus status) {
+        return status == TicketStatus.RESERVED || status == TicketStatus.SOLD;
+    }
+
+    private static boolean sameShape(SeatLayout a, SeatLayout b) {
+        return a.capacity() == b.capacity() && a.seatsPerRow() == b.seatsPerRow();
+    }
+}
@@ -0,0 +1,90 @@
+package org.app.musical_philharmonic.seating;
+
+import org.app.musical_philharmonic.entity.Hall;
+
+/**
+ * Row-major seat numbering for a hall: rows are labelled A..Z, AA.. from the stage back, seats
+ * are numbered from 1 within a row, and the last row may be partial. Seat {@code index} is
+ * {@code row * seatsPerRow + seat}.
+ */
+public final class SeatLayout {
+
+    private final int capacity;
+    private final int seatsPerRow;
+    private final int rows;
+
+    public SeatLayout(int capacity, int seatsPerRow) {
+        if (capacity <= 0 || seatsPerRow <= 0) {
+            throw new IllegalArgumentException("Capacity and seats per row must be positive");
+        }
+        this.capacity = capacity;
+        this.seatsPerRow = seatsPerRow;
+        this.rows = (capacity + seatsPerRow - 1) / seatsPerRow;
+    }
+
+    /**
+     * Returns the hall's layout, or {@code null} for halls without assigned seating.
+     */
+    public static SeatLayout of(Hall hall) {
+        return hall.getSeatsPerRow() != null ? new SeatLayout(hall.getCapacity(), hall.getSeatsPerRow()) : null;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int seatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int seatsInRow(int row) {
+        return row == rows - 1 ? capacity - row * seatsPerRow : seatsPerRow;
+    }
+
+    public String label(int index) {
+        return rowLabel(index / seatsPerRow) + (index % seatsPerRow + 1);
+    }
+
+    /**
+     * Parses a label such as {@code "B12"}; returns -1 for anything that is not a seat in this
+     * layout (including the dance-floor placeholder "N/A").
+     */
+    public int indexOf(String label) {
+        if (label == null) {
+            return -1;
+        }
+        int i = 0;
+        int row = 0;
+        while (i < label.length() && label.charAt(i) >= 'A' && label.charAt(i) <= 'Z') {
+            row = row * 26 + (label.charAt(i) - 'A' + 1);
+            i++;
+        }
+        if (i == 0 || i == label.length() || i > 4) {
+            return -1;
+        }
+        int seat;
+        try {
+            seat = Integer.parseInt(label, i, label.length(), 10);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+        row--;
+        if (row >= rows || seat < 1 || seat > seatsInRow(row)) {
+            return -1;
+        }
+        return row * seatsPerRow + seat - 1;
+    }
+
+    // 0 -> A, 25 -> Z, 26 -> AA, like spreadsheet columns
+    public static String rowLabel(int row) {
+        StringBuilder label = new StringBuilder();
+        for (int n = row + 1; n > 0; n = (n - 1) / 26) {
+            label.append((char) ('A' + (n - 1) % 26));
+        }
+        return label.reverse().toString();
+    }
+}
@@ -0,0 +1,285 @@
+package org.app.musical_philharmonic.seating;
+
+/**
+ * Seat inventory of one concert as two bitsets: {@code taken} (held or sold) and {@code sold}.
+ * Each row starts on a word boundary so a contiguous block never spans rows, and the padding
+ * bits past the end of a row are permanently taken. A 10,000-seat hall needs about 2.5 KB.
+ *
+ * <p>Best-available search visits rows in {@link SeatScoring} ranking order and keeps the length
+ * of each row's longest free run up to date, so rows that cannot fit the block are skipped with
+ * one comparison and the search stops once no remaining row can beat the best block found.
+ *
+ * <p>All mutators are synchronized on the map: finding a block and holding it is a single
+ * atomic step that touches a few words, so contention stays short even for popular concerts.
+ */
+public class SeatMap {
+
+    public enum State { FREE, HELD, SOLD }
+
+    private final SeatLayout layout;
+    private final SeatScoring scoring;
+    private final int wordsPerRow;
+    private final long[] taken;
+    private final long[] sold;
+    private final int[] freeInRow;
+    private final int[] longestRun;
+    private int free;
+
+    public SeatMap(SeatLayout layout) {
+        this.layout = layout;
+        this.scoring = new SeatScoring(layout);
+        this.wordsPerRow = (layout.seatsPerRow() + 63) >>> 6;
+        this.taken = new long[layout.rows() * wordsPerRow];
+        this.sold = new long[taken.length];
+        this.freeInRow = new int[layout.rows()];
+        this.longestRun = new int[layout.rows()];
+        for (int row = 0; row < layout.rows(); row++) {
+            int seats = layout.seatsInRow(row);
+            freeInRow[row] = seats;
+            longestRun[row] = seats;
+            for (int bit = seats; bit < wordsPerRow * 64; bit++) {
+                taken[row * wordsPerRow + (bit >>> 6)] |= 1L << bit;
+            }
+        }
+        this.free = layout.capacity();
+    }
+
+    public SeatLayout layout() {
+        return layout;
+    }
+
+    public SeatScoring scoring() {
+        return scoring;
+    }
+
+    public synchronized int free() {
+        return free;
+    }
+
+    public synchronized int freeInRow(int row) {
+        return freeInRow[row];
+    }
+
+    public synchronized State state(int index) {
+        int word = wordIndex(index);
+        long mask = 1L << bit(index);
+        if ((taken[word] & mask) == 0) {
+            return State.FREE;
+        }
+        return (sold[word] & mask) != 0 ? State.SOLD : State.HELD;
+    }
+
+    /**
+     * Finds the best-scoring block of {@code quantity} adjacent free seats and holds it. Returns
+     * the first seat index or -1.
+     */
+    public synchronized int holdBlock(int quantity) {
+        int first = findBlock(quantity);
+        if (first >= 0) {
+            setTaken(first, quantity);
+        }
+        return first;
+    }
+
+    /**
+     * Like {@link #holdBlock} but leaves the seats free; the answer is only a preview, since
+     * another booking may take the block before the caller does.
+     */
+    public synchronized int findBlock(int quantity) {
+        if (quantity <= 0 || quantity > free) {
+            return -1;
+        }
+        double center = layout.seatsPerRow() / 2.0;
+        int bestRow = -1;
+        int bestStart = -1;
+        double bestCost = Double.MAX_VALUE;
+        for (int row : scoring.ranking()) {
+            // Ranking order makes the bound non-decreasing, so nothing further on can win
+            if (bestRow >= 0 && scoring.lowerBound(row, quantity) >= bestCost) {
+                break;
+            }
+            if (longestRun[row] < quantity) {
+                continue;
+            }
+            int start = bestRunInRow(row, quantity, center);
+            double cost = scoring.blockCost(row, start, quantity);
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestRow = row;
+                bestStart = start;
+            }
+        }
+        return bestRow < 0 ? -1 : bestRow * layout.seatsPerRow() + bestStart;
+    }
+
+    /**
+     * Holds exactly these seats, or none of them if any is already taken.
+     */
+    public synchronized boolean hold(int[] seats) {
+        for (int index : seats) {
+            if ((taken[wordIndex(index)] & (1L << bit(index))) != 0) {
+                return false;
+            }
+        }
+        for (int index : seats) {
+            setTaken(index, 1);
+        }
+        return true;
+    }
+
+    /**
+     * Marks seats sold, whether they were held or still free. Returns each seat's state before
+     * the call, so a rolled-back sale can put it back.
+     */
+    public synchronized State[] sell(int[] seats) {
+        State[] before = new State[seats.length];
+        for (int i = 0; i < seats.length; i++) {
+            int index = seats[i];
+            before[i] = state(index);
+            int word = wordIndex(index);
+            long mask = 1L << bit(index);
+            if ((taken[word] & mask) == 0) {
+                setTaken(index, 1);
+            }
+            sold[word] |= mask;
+        }
+        return before;
+    }
+
+    /**
+     * Turns sold seats back into held ones; free seats stay free.
+     */
+    public synchronized void unsell(int[] seats) {
+        for (int index : seats) {
+            sold[wordIndex(index)] &= ~(1L << bit(index));
+        }
+    }
+
+    public synchronized void release(int[] seats) {
+        for (int index : seats) {
+            int word = wordIndex(index);
+            long mask = 1L << bit(index);
+            if ((taken[word] & mask) != 0) {
+                taken[word] &= ~mask;
+                sold[word] &= ~mask;
+                int row = index / layout.seatsPerRow();
+                freeInRow[row]++;
+                free++;
+                longestRun[row] = longestRunInRow(row);
+            }
+        }
+    }
+
+    /**
+     * Start offset within {@code row} of the free run of {@code quantity} seats whose middle is
+     * closest to {@code center}, or -1. Walks the row a word at a time: fully taken words are
+     * skipped with one comparison, otherwise runs are measured with trailing-zero counts.
+     */
+    int bestRunInRow(int row, int quantity, double center) {
+        int base = row * wordsPerRow;
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        int runStart = 0;
+        int runLength = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            long freeBits = ~taken[base + w];
+            if (freeBits == 0) {
+                if (runLength >= quantity) {
+                    int s = place(runStart, runLength, quantity, center);
+                    double d = Math.abs(s + quantity / 2.0 - center);
+                    if (d < bestDistance) {
+                        bestDistance = d;
+                        best = s;
+                    }
+                }
+                runLength = 0;
+                continue;
+            }
+            int bit = 0;
+            while (bit < 64) {
+                long shifted = freeBits >>> bit;
+                if ((shifted & 1) == 0) {
+                    if (runLength >= quantity) {
+                        int s = place(runStart, runLength, quantity, center);
+                        double d = Math.abs(s + quantity / 2.0 - center);
+                        if (d < bestDistance) {
+                            bestDistance = d;
+                            best = s;
+                        }
+                    }
+                    runLength = 0;
+                    bit += Long.numberOfTrailingZeros(shifted);
+                    continue;
+                }
+                int ones = Long.numberOfTrailingZeros(~shifted);
+                if (runLength == 0) {
+                    runStart = (w << 6) + bit;
+                }
+                runLength += ones;
+                bit += ones;
+            }
+        }
+        if (runLength >= quantity) {
+            int s = place(runStart, runLength, quantity, center);
+            if (Math.abs(s + quantity / 2.0 - center) < bestDistance) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    int longestRunInRow(int row) {
+        int base = row * wordsPerRow;
+        int longest = 0;
+        int run = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            long freeBits = ~taken[base + w];
+            if (freeBits == -1L) {
+                run += 64;
+                continue;
+            }
+            int bit = 0;
+            while (bit < 64) {
+                long shifted = freeBits >>> bit;
+                if ((shifted & 1) == 0) {
+                    longest = Math.max(longest, run);
+                    run = 0;
+                    bit += Long.numberOfTrailingZeros(shifted);
+                    continue;
+                }
+                int ones = Long.numberOfTrailingZeros(~shifted);
+                run += ones;
+                bit += ones;
+            }
+        }
+        return Math.max(longest, run);
+    }
+
+    public long sizeInBytes() {
+        return (taken.length + sold.length) * 8L + (freeInRow.length + longestRun.length) * 4L;
+    }
+
+    // Slides the block inside the run as close to the centre as the run allows
+    private static int place(int runStart, int runLength, int quantity, double center) {
+        int ideal = (int) Math.round(center - quantity / 2.0);
+        return Math.max(runStart, Math.min(ideal, runStart + runLength - quantity));
+    }
+
+    private void setTaken(int first, int count) {
+        for (int index = first; index < first + count; index++) {
+            taken[wordIndex(index)] |= 1L << bit(index);
+        }
+        int row = first / layout.seatsPerRow();
+        freeInRow[row] -= count;
+        free -= count;
+        longestRun[row] = longestRunInRow(row);
+    }
+
+    private int wordIndex(int index) {
+        return (index / layout.seatsPerRow()) * wordsPerRow + ((index % layout.seatsPerRow()) >>> 6);
+    }
+
+    private int bit(int index) {
+        return (index % layout.seatsPerRow()) & 63;
+    }
+}
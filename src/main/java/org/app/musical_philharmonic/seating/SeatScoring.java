@@ -0,0 +1,87 @@
+package org.app.musical_philharmonic.seating;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Seat quality for a layout, precomputed once per hall shape. Lower is better.
+ *
+ * <ul>
+ *   <li>Distance to the stage: rows about a third of the way back are best; cost grows with the
+ *       distance from that row, slightly faster towards the stage than away from it.</li>
+ *   <li>Section: the middle half of a row is the centre section; the outer quarters carry a flat
+ *       per-seat penalty.</li>
+ *   <li>Lateral position: cost grows linearly with the distance from the row's centre line.</li>
+ * </ul>
+ *
+ * <p>The ranking index is the rows sorted by row cost. Because the best block in any row costs
+ * at least its row cost plus a centred block's lateral cost, a search visiting rows in ranking
+ * order can stop as soon as that lower bound exceeds the best block found so far.
+ */
+public final class SeatScoring {
+
+    static final double ROW_WEIGHT = 1.0;
+    static final double FRONT_ROW_WEIGHT = 1.5;
+    static final double LATERAL_WEIGHT = 4.0;
+    static final double SIDE_SECTION_PENALTY = 2.0;
+
+    private final SeatLayout layout;
+    private final double[] rowCost;
+    private final int[] ranking;
+    private final double[] positionPrefix;
+
+    public SeatScoring(SeatLayout layout) {
+        this.layout = layout;
+        int rows = layout.rows();
+        int perRow = layout.seatsPerRow();
+
+        double idealRow = (rows - 1) / 3.0;
+        this.rowCost = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            double distance = row - idealRow;
+            rowCost[row] = distance < 0 ? -distance * FRONT_ROW_WEIGHT : distance * ROW_WEIGHT;
+        }
+        this.ranking = IntStream.range(0, rows).boxed()
+                .sorted(Comparator.comparingDouble((Integer row) -> rowCost[row]).thenComparingInt(row -> row))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        double center = perRow / 2.0;
+        this.positionPrefix = new double[perRow + 1];
+        for (int seat = 0; seat < perRow; seat++) {
+            double offset = Math.abs(seat + 0.5 - center);
+            double section = offset > perRow / 4.0 ? SIDE_SECTION_PENALTY : 0;
+            positionPrefix[seat + 1] = positionPrefix[seat] + offset / perRow * LATERAL_WEIGHT + section;
+        }
+    }
+
+    public SeatLayout layout() {
+        return layout;
+    }
+
+    /**
+     * Rows from best to worst.
+     */
+    public int[] ranking() {
+        return ranking;
+    }
+
+    public double rowCost(int row) {
+        return rowCost[row];
+    }
+
+    /**
+     * Cost of {@code quantity} adjacent seats starting at offset {@code start} of {@code row}.
+     */
+    public double blockCost(int row, int start, int quantity) {
+        return rowCost[row] * quantity + positionPrefix[start + quantity] - positionPrefix[start];
+    }
+
+    /**
+     * Cheapest any block of {@code quantity} seats can be in {@code row}: a block centred in a full row.
+     */
+    public double lowerBound(int row, int quantity) {
+        int start = Math.max(0, (layout.seatsPerRow() - quantity) / 2);
+        return rowCost[row] * quantity + positionPrefix[Math.min(start + quantity, layout.seatsPerRow())] - positionPrefix[start];
+    }
+}
@@ -0,0 +1,289 @@
+package org.app.musical_philharmonic.seating;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarchical timing wheel with 1 ms ticks keyed by non-negative int (ticket id): four levels
+ * of 256 slots cover 2^32 ms (about 49 days); later deadlines are parked in the top level and
+ * re-placed as time catches up. Insert, cancel and expiry of one entry are O(1); advancing costs
+ * one step per elapsed tick while level 0 holds entries, otherwise one step per boundary of the
+ * lowest non-empty level, plus the entries that cascade or expire.
+ *
+ * <p>Entries are not objects: slot lists are doubly linked through parallel primitive arrays and
+ * a key-to-entry open-addressing table, all grown by doubling, so a million pending holds are a
+ * few dozen megabytes of arrays and nothing for the collector to trace.
+ *
+ * <p>Time is whatever the caller passes in, which keeps the wheel testable with a virtual clock.
+ * All methods are synchronized.
+ */
+public class TimingWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELAY = (1L << (LEVELS * SLOT_BITS)) - 1;
+    private static final int NONE = -1;
+
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final int[] levelSize = new int[LEVELS];
+
+    // Per entry; free entries are chained through next
+    private int[] keys;
+    private long[] deadlines;
+    private int[] next;
+    private int[] prev;
+    private int[] slotOf;
+    private int freeList = NONE;
+    private int allocated;
+
+    // Open-addressing key -> entry table, linear probing, NONE = empty
+    private int[] tableKeys;
+    private int[] tableEntries;
+
+    private long now;
+    private int size;
+
+    public TimingWheel(long startMillis, int initialCapacity) {
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1);
+        Arrays.fill(heads, NONE);
+        this.keys = new int[capacity];
+        this.deadlines = new long[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.slotOf = new int[capacity];
+        this.tableKeys = new int[capacity * 2];
+        this.tableEntries = new int[capacity * 2];
+        Arrays.fill(tableKeys, NONE);
+        this.now = startMillis;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long now() {
+        return now;
+    }
+
+    /**
+     * Schedules {@code key} to expire at {@code deadlineMillis}, replacing any earlier deadline
+     * for the same key. Deadlines at or before the current time expire on the next tick.
+     */
+    public synchronized void schedule(int key, long deadlineMillis) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Key must be non-negative: " + key);
+        }
+        int entry = lookup(key);
+        if (entry != NONE) {
+            unlink(entry);
+        } else {
+            entry = allocate();
+            keys[entry] = key;
+            put(key, entry);
+            size++;
+        }
+        deadlines[entry] = deadlineMillis;
+        place(entry, now + 1);
+    }
+
+    /**
+     * Removes {@code key}; returns false if it was not scheduled (already expired or cancelled).
+     */
+    public synchronized boolean cancel(int key) {
+        int entry = lookup(key);
+        if (entry == NONE) {
+            return false;
+        }
+        unlink(entry);
+        remove(key);
+        release(entry);
+        return true;
+    }
+
+    public synchronized boolean contains(int key) {
+        return lookup(key) != NONE;
+    }
+
+    /**
+     * Moves time forward to {@code nowMillis} and hands every key whose deadline has passed to
+     * {@code expired}, in deadline order. The callback runs under the wheel's lock and must not
+     * call back into it.
+     */
+    public synchronized int advance(long nowMillis, IntConsumer expired) {
+        if (size == 0) {
+            now = Math.max(now, nowMillis);
+            return 0;
+        }
+        int count = 0;
+        while (now < nowMillis) {
+            int lowest = 0;
+            while (levelSize[lowest] == 0) {
+                lowest++;
+            }
+            if (lowest > 0) {
+                // Nothing can cascade or expire before the next boundary of the lowest occupied level
+                long span = 1L << (lowest * SLOT_BITS);
+                now = Math.min(nowMillis, (now / span + 1) * span) - 1;
+            }
+            now++;
+            // Higher levels first, so entries they hand down can still cascade this tick
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((now & ((1L << (level * SLOT_BITS)) - 1)) == 0) {
+                    cascade(level * SLOTS + (int) ((now >>> (level * SLOT_BITS)) & SLOT_MASK));
+                }
+            }
+            int slot = (int) (now & SLOT_MASK);
+            int entry = heads[slot];
+            heads[slot] = NONE;
+            while (entry != NONE) {
+                int following = next[entry];
+                levelSize[0]--;
+                if (deadlines[entry] > now) {
+                    place(entry, now + 1);
+                } else {
+                    int key = keys[entry];
+                    remove(key);
+                    release(entry);
+                    expired.accept(key);
+                    count++;
+                }
+                entry = following;
+            }
+            if (size == 0) {
+                now = nowMillis;
+            }
+        }
+        return count;
+    }
+
+    private void cascade(int slot) {
+        int entry = heads[slot];
+        heads[slot] = NONE;
+        while (entry != NONE) {
+            int following = next[entry];
+            levelSize[slot / SLOTS]--;
+            // The current tick's level-0 slot has not been processed yet, so "now" is still reachable
+            place(entry, now);
+            entry = following;
+        }
+    }
+
+    private void place(int entry, long earliest) {
+        long deadline = Math.max(deadlines[entry], earliest);
+        long delay = Math.min(deadline - now, MAX_DELAY);
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << ((level + 1) * SLOT_BITS)) {
+            level++;
+        }
+        long at = level == LEVELS - 1 ? now + delay : deadline;
+        int slot = level * SLOTS + (int) ((at >>> (level * SLOT_BITS)) & SLOT_MASK);
+        slotOf[entry] = slot;
+        levelSize[level]++;
+        prev[entry] = NONE;
+        next[entry] = heads[slot];
+        if (heads[slot] != NONE) {
+            prev[heads[slot]] = entry;
+        }
+        heads[slot] = entry;
+    }
+
+    private void unlink(int entry) {
+        levelSize[slotOf[entry] / SLOTS]--;
+        if (prev[entry] != NONE) {
+            next[prev[entry]] = next[entry];
+        } else {
+            heads[slotOf[entry]] = next[entry];
+        }
+        if (next[entry] != NONE) {
+            prev[next[entry]] = prev[entry];
+        }
+    }
+
+    private int allocate() {
+        if (freeList != NONE) {
+            int entry = freeList;
+            freeList = next[entry];
+            return entry;
+        }
+        if (allocated == keys.length) {
+            grow();
+        }
+        return allocated++;
+    }
+
+    private void release(int entry) {
+        next[entry] = freeList;
+        freeList = entry;
+        size--;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        slotOf = Arrays.copyOf(slotOf, capacity);
+
+        int[] oldKeys = tableKeys;
+        int[] oldEntries = tableEntries;
+        tableKeys = new int[capacity * 2];
+        tableEntries = new int[capacity * 2];
+        Arrays.fill(tableKeys, NONE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != NONE) {
+                put(oldKeys[i], oldEntries[i]);
+            }
+        }
+    }
+
+    private int lookup(int key) {
+        int mask = tableKeys.length - 1;
+        for (int i = hash(key) & mask; tableKeys[i] != NONE; i = (i + 1) & mask) {
+            if (tableKeys[i] == key) {
+                return tableEntries[i];
+            }
+        }
+        return NONE;
+    }
+
+    private void put(int key, int entry) {
+        int mask = tableKeys.length - 1;
+        int i = hash(key) & mask;
+        while (tableKeys[i] != NONE && tableKeys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        tableKeys[i] = key;
+        tableEntries[i] = entry;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void remove(int key) {
+        int mask = tableKeys.length - 1;
+        int i = hash(key) & mask;
+        while (tableKeys[i] != key) {
+            if (tableKeys[i] == NONE) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        int gap = i;
+        for (int j = (gap + 1) & mask; tableKeys[j] != NONE; j = (j + 1) & mask) {
+            int home = hash(tableKeys[j]) & mask;
+            // Move j into the gap unless its home lies cyclically in (gap, j]
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                tableKeys[gap] = tableKeys[j];
+                tableEntries[gap] = tableEntries[j];
+                gap = j;
+            }
+        }
+        tableKeys[gap] = NONE;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,146 @@
+package org.app.musical_philharmonic.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * BCrypt encoder that runs hashing on a dedicated core-sized pool with a bounded queue, so a login
+ * storm is capped at one hash per core instead of one per Tomcat worker. When the queue is full
+ * the call fails immediately with 503, and a call whose hash has not finished within the timeout
+ * is cancelled and fails with 503 as well, so request threads never wait unbounded. The BCrypt cost is calibrated once at startup against a
+ * latency budget unless a fixed strength is configured; {@link #upgradeEncoding} lets Spring
+ * Security rehash weaker hashes on the next successful login.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter timeoutCounter;
+
+    public BoundedPasswordEncoder(int fixedStrength, long budgetMs, int queueCapacity, long timeoutMs,
+                                  MeterRegistry meterRegistry) {
+        int strength = fixedStrength > 0 ? fixedStrength : calibrate(budgetMs);
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timeoutMs = timeoutMs;
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("security.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("security.password.hash").tag("operation", "matches").register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("security.password.queue.wait").register(meterRegistry);
+        this.timeoutCounter = Counter.builder("security.password.timeouts").register(meterRegistry);
+        Gauge.builder("security.password.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("security.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("security.password.strength", () -> strength).register(meterRegistry);
+
+        log.info("Password hashing: bcrypt strength={} threads={} queue={} timeout={}ms", strength, threads, queueCapacity,
+                timeoutMs);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task, Timer timer) {
+        long enqueued = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException ex) {
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Server is busy, please retry later");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // A task still in the queue is skipped; a running hash cannot be interrupted and just finishes
+            future.cancel(true);
+            timeoutCounter.increment();
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Server is busy, please retry later");
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Password hashing interrupted");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private static int calibrate(long budgetMs) {
+        // Each extra cost step doubles the work, so one measurement at the minimum cost is enough
+        // to extrapolate; pick the highest cost whose single hash still fits the budget.
+        double elapsedMs = Math.max(1, measure(MIN_STRENGTH));
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && elapsedMs * 2 <= budgetMs) {
+            strength++;
+            elapsedMs *= 2;
+        }
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        // Warm-up run so the measured one is not dominated by class loading and JIT
+        encoder.encode("calibration");
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
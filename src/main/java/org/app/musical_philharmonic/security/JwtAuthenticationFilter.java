@@ -1,5 +1,7 @@
 package org.app.musical_philharmonic.security;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -14,22 +16,48 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
+/**
+ * Authenticates requests carrying a JWT (Authorization header or JWT cookie). Its own work, not the
+ * rest of the chain, is observed as {@code security.auth} by outcome, a timer and a span with the
+ * user lookup's statements under it; the signature checks within it as {@code security.jwt.verify}.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final ObservationRegistry observationRegistry;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   ObservationRegistry observationRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.observationRegistry = observationRegistry;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        Observation observation = Observation.start("security.auth", observationRegistry);
+        String outcome = "invalid";
+        try (Observation.Scope scope = observation.openScope()) {
+            outcome = authenticate(request);
+        } catch (RuntimeException ex) {
+            observation.error(ex);
+            throw ex;
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome);
+            observation.stop();
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // anonymous (no token), authenticated or rejected; a token that fails to parse (bad signature,
+    // expired) throws and is counted as invalid
+    private String authenticate(HttpServletRequest request) {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
         final String username;
@@ -49,25 +77,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = tokenFromHeader != null ? tokenFromHeader : tokenFromCookie;
         if (jwt == null) {
-            filterChain.doFilter(request, response);
-            return;
+            return "anonymous";
         }
 
-        username = jwtService.extractUsername(jwt);
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        username = verify(() -> jwtService.extractUsername(jwt));
+        if (username == null) {
+            return "rejected";
         }
-        filterChain.doFilter(request, response);
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return "authenticated";
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (!verify(() -> jwtService.isTokenValid(jwt, userDetails.getUsername()))) {
+            return "rejected";
+        }
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        return "authenticated";
     }
-}
 
+    private <T> T verify(Supplier<T> check) {
+        return Observation.createNotStarted("security.jwt.verify", observationRegistry).observe(check);
+    }
+}
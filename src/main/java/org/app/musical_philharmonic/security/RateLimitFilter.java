@@ -0,0 +1,113 @@
+package org.app.musical_philharmonic.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests over their route's budget before authentication, password hashing or any
+ * database access happens. Every request is limited by client IP; one carrying a valid JWT is also
+ * limited by its subject, so a user cannot spread over many addresses nor many users behind one.
+ * The IP is the servlet remote address, which is the real client only behind a proxy trusted by
+ * {@code server.forward-headers-strategy}. Rules are evaluated in registration order and the
+ * first matching one applies.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final JwtService jwtService;
+    private final List<Rule> rules = new ArrayList<>();
+
+    public RateLimitFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    public RateLimitFilter rule(String pattern, RateLimiter limiter) {
+        rules.add(new Rule(pattern, PathPatternRequestMatcher.withDefaults().matcher(pattern), limiter));
+        return this;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = findRule(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        for (String key : resolveKeys(request)) {
+            long waitNanos = rule.limiter().tryAcquire(key);
+            if (waitNanos > 0) {
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+                log.warn("Rate limit exceeded rule={} key={} uri={}", rule.pattern(), key, request.getRequestURI());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Rule findRule(HttpServletRequest request) {
+        for (Rule rule : rules) {
+            if (rule.matcher().matches(request)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    // Address first: a request it rejects does not use up the user's budget
+    private List<String> resolveKeys(HttpServletRequest request) {
+        String address = "ip:" + request.getRemoteAddr();
+        String token = extractToken(request);
+        if (token != null) {
+            try {
+                // Signature check only; no user lookup happens here
+                String subject = jwtService.extractUsername(token);
+                if (subject != null) {
+                    return List.of(address, "user:" + subject);
+                }
+            } catch (JwtException | IllegalArgumentException ignored) {
+                // Invalid or expired tokens are limited like anonymous traffic
+            }
+        }
+        return List.of(address);
+    }
+
+    private String extractToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        if (request.getCookies() != null) {
+            for (Cookie c : request.getCookies()) {
+                if ("JWT".equals(c.getName())) {
+                    return c.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private record Rule(String pattern, RequestMatcher matcher, RateLimiter limiter) {
+    }
+}
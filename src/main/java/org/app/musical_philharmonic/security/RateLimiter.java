@@ -0,0 +1,90 @@
+package org.app.musical_philharmonic.security;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keyed set of token buckets with bounded memory. Buckets that have refilled completely carry no
+ * state worth keeping, so they are dropped by a sweep that runs when the map grows past its limit.
+ * If every bucket is still draining, the least recently used ones are evicted instead, so a flood
+ * of new keys never makes clients share a bucket.
+ */
+public class RateLimiter {
+
+    private final long capacity;
+    private final long refillTokens;
+    private final long refillPeriodNanos;
+    private final int maxBuckets;
+    private final ConcurrentHashMap<String, Slot> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public RateLimiter(long capacity, long refillTokens, long refillPeriodMs, int maxBuckets) {
+        this.capacity = capacity;
+        this.refillTokens = refillTokens;
+        this.refillPeriodNanos = TimeUnit.MILLISECONDS.toNanos(refillPeriodMs);
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Returns 0 when the request identified by {@code key} may proceed, otherwise the number of
+     * nanoseconds the caller should wait before retrying.
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        Slot slot = buckets.get(key);
+        if (slot == null) {
+            if (buckets.size() >= maxBuckets) {
+                sweep(now);
+            }
+            slot = buckets.computeIfAbsent(key,
+                    k -> new Slot(new TokenBucket(capacity, refillTokens, refillPeriodNanos, now), now));
+        }
+        slot.lastUsed = now;
+        return slot.bucket.tryConsume(now);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // Threads that find a sweep in progress insert anyway, so the map may briefly exceed the limit
+    // by the number of concurrent callers
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(slot -> slot.bucket.isFull(now));
+            if (buckets.size() >= maxBuckets) {
+                evictLeastRecentlyUsed();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // Frees an eighth of the limit at once, so the scan runs once per many new keys, not per key
+    private void evictLeastRecentlyUsed() {
+        long[] lastUsed = buckets.values().stream().mapToLong(slot -> slot.lastUsed).toArray();
+        int evict = lastUsed.length - maxBuckets + Math.max(1, maxBuckets / 8);
+        if (evict <= 0) {
+            return;
+        }
+        Arrays.sort(lastUsed);
+        long cutoff = lastUsed[Math.min(evict, lastUsed.length) - 1];
+        buckets.values().removeIf(slot -> slot.lastUsed - cutoff <= 0);
+    }
+
+    private static final class Slot {
+
+        private final TokenBucket bucket;
+        private volatile long lastUsed;
+
+        private Slot(TokenBucket bucket, long now) {
+            this.bucket = bucket;
+            this.lastUsed = now;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.app.musical_philharmonic.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * {@code tickets.remaining} per concert (tag {@code concert}, the id): hall capacity minus reserved
+ * and sold tickets, for the concerts of the next {@code metrics.capacity.days-ahead} days, the ones
+ * on sale. One query refreshes them all every {@code metrics.capacity.refresh-ms}; a scrape only
+ * reads the last values, and concerts that drop out of the window lose their gauge.
+ */
+@Component
+public class CapacityGauges {
+
+    private static final Logger log = LoggerFactory.getLogger(CapacityGauges.class);
+
+    private static final String REMAINING = """
+            select c.id, h.capacity - (select count(*) from tickets t
+                                       where t.concert_id = c.id and t.concert_date = c.date
+                                         and t.status in ('RESERVED', 'SOLD'))
+            from concerts c join halls h on h.id = c.hall_id
+            where c.date between ? and ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MultiGauge remaining;
+    private final int daysAhead;
+
+    public CapacityGauges(JdbcTemplate jdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${metrics.capacity.days-ahead:30}") int daysAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.daysAhead = daysAhead;
+        this.remaining = MultiGauge.builder("tickets.remaining").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.capacity.refresh-ms:15000}")
+    public void refresh() {
+        LocalDate today = LocalDate.now();
+        try {
+            List<MultiGauge.Row<?>> rows = jdbcTemplate.query(REMAINING,
+                    (rs, i) -> MultiGauge.Row.of(Tags.of("concert", rs.getString(1)), Math.max(0, rs.getLong(2))),
+                    Date.valueOf(today), Date.valueOf(today.plusDays(daysAhead)));
+            remaining.register(rows, true);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to refresh remaining capacity gauges", ex);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package org.app.musical_philharmonic.service;
 
+import org.app.musical_philharmonic.archive.ColdTicketArchive;
+import org.app.musical_philharmonic.archive.TicketPartitions;
+import org.app.musical_philharmonic.cache.EntityVersions;
 import org.app.musical_philharmonic.dto.ConcertRequest;
 import org.app.musical_philharmonic.dto.ConcertResponse;
 import org.app.musical_philharmonic.entity.Concert;
 import org.app.musical_philharmonic.entity.Hall;
 import org.app.musical_philharmonic.entity.Performer;
+import org.app.musical_philharmonic.entity.TicketStatus;
 import org.app.musical_philharmonic.repository.ConcertRepository;
 import org.app.musical_philharmonic.repository.HallRepository;
 import org.app.musical_philharmonic.repository.PerformerRepository;
@@ -12,6 +16,7 @@ import org.app.musical_philharmonic.repository.TicketRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
@@ -25,17 +30,30 @@ public class ConcertService {
     private final HallRepository hallRepository;
     private final PerformerRepository performerRepository;
     private final TicketRepository ticketRepository;
+    private final EntityVersions entityVersions;
+    private final UpcomingConcertsView upcomingConcertsView;
+    private final TicketPartitions ticketPartitions;
+    private final ColdTicketArchive coldArchive;
 
     public ConcertService(ConcertRepository concertRepository,
                           HallRepository hallRepository,
                           PerformerRepository performerRepository,
-                          TicketRepository ticketRepository) {
+                          TicketRepository ticketRepository,
+                          EntityVersions entityVersions,
+                          UpcomingConcertsView upcomingConcertsView,
+                          TicketPartitions ticketPartitions,
+                          ColdTicketArchive coldArchive) {
         this.concertRepository = concertRepository;
         this.hallRepository = hallRepository;
         this.performerRepository = performerRepository;
         this.ticketRepository = ticketRepository;
+        this.entityVersions = entityVersions;
+        this.upcomingConcertsView = upcomingConcertsView;
+        this.ticketPartitions = ticketPartitions;
+        this.coldArchive = coldArchive;
     }
 
+    @Transactional(readOnly = true)
     public Page<ConcertResponse> list(LocalDate date,
                                       LocalDate startDate,
                                       LocalDate endDate,
@@ -58,15 +76,24 @@ public class ConcertService {
         return page.map(this::toResponse);
     }
 
-    public Page<ConcertResponse> upcoming(LocalDate from, LocalDate to, Pageable pageable) {
-        return concertRepository.findByDateBetween(from, to, pageable).map(this::toResponse);
+    // Concerts from today to one year ahead
+    @Transactional(readOnly = true)
+    public Page<ConcertResponse> upcoming(Pageable pageable) {
+        Page<ConcertResponse> page = upcomingConcertsView.page(pageable);
+        if (page != null) {
+            return page;
+        }
+        return concertRepository.findByDateBetween(upcomingConcertsView.windowStart(), upcomingConcertsView.windowEnd(), pageable)
+                .map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
     public ConcertResponse get(Integer id) {
         return concertRepository.findById(id).map(this::toResponse)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
     }
 
+    @Transactional
     public ConcertResponse create(ConcertRequest request) {
         Hall hall = hallRepository.findById(request.getHallId())
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Hall not found"));
@@ -79,9 +106,16 @@ public class ConcertService {
         concert.setHall(hall);
         concert.setPerformer(performer);
         concert.setTicketPrice(request.getTicketPrice());
-        return toResponse(concertRepository.save(concert));
+        ticketPartitions.ensure(concert.getDate());
+        Concert saved = concertRepository.save(concert);
+        // After-commit hooks run in registration order: the view is patched before the version moves,
+        // so a page read in between is cached under the old version, never a stale one under the new
+        upcomingConcertsView.onSaved(saved);
+        entityVersions.touch(EntityVersions.Kind.CONCERT, saved.getId());
+        return toResponse(saved);
     }
 
+    @Transactional
     public ConcertResponse update(Integer id, ConcertRequest request) {
         Concert concert = concertRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
@@ -90,36 +124,58 @@ public class ConcertService {
         Performer performer = performerRepository.findById(request.getPerformerId())
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Performer not found"));
 
+        LocalDate previousDate = concert.getDate();
+        if (!request.getDate().equals(previousDate)) {
+            // Waits for bookings in flight under the old date, and holds back new ones until the move commits
+            ticketPartitions.lockConcertDateForMove(id);
+        }
         concert.setTitle(request.getTitle());
         concert.setDate(request.getDate());
         concert.setTime(request.getTime());
         concert.setHall(hall);
         concert.setPerformer(performer);
         concert.setTicketPrice(request.getTicketPrice());
-        return toResponse(concertRepository.save(concert));
+        Concert saved = concertRepository.save(concert);
+        if (!saved.getDate().equals(previousDate)) {
+            // Tickets follow the concert into the partition of its new month
+            ticketPartitions.ensure(saved.getDate());
+            ticketRepository.moveToConcertDate(id, previousDate, saved.getDate());
+        }
+        // View first, version last, as in create
+        upcomingConcertsView.onSaved(saved);
+        entityVersions.touch(EntityVersions.Kind.CONCERT, id);
+        return toResponse(saved);
     }
 
+    @Transactional
     public void delete(Integer id) {
         if (!concertRepository.existsById(id)) {
             throw new ResponseStatusException(NOT_FOUND, "Concert not found");
         }
         concertRepository.deleteById(id);
+        upcomingConcertsView.onDeleted(id);
+        entityVersions.touch(EntityVersions.Kind.CONCERT, id);
     }
 
+    @Transactional(readOnly = true)
     public Object stats(Integer id) {
-        if (!concertRepository.existsById(id)) {
-            throw new ResponseStatusException(NOT_FOUND, "Concert not found");
-        }
-        long sold = ticketRepository.countSoldByConcert(id);
-        long available = ticketRepository.countAvailableByConcert(id);
+        Concert concert = concertRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
+        // Tickets of a past concert may already be in the cold archive
+        var archived = coldArchive.concertCounts(id, concert.getDate());
+        long sold = ticketRepository.countSoldByConcert(id, concert.getDate())
+                + archived.getOrDefault(TicketStatus.SOLD, 0L);
+        long available = ticketRepository.countAvailableByConcert(id, concert.getDate())
+                + archived.getOrDefault(TicketStatus.AVAILABLE, 0L);
         return java.util.Map.of("concertId", id, "sold", sold, "available", available);
     }
 
+    @Transactional(readOnly = true)
     public long getAvailableTicketsCount(Integer id) {
         Concert concert = concertRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
         int hallCapacity = concert.getHall().getCapacity();
-        long bookedTickets = ticketRepository.countReservedOrSoldByConcert(id);
+        long bookedTickets = ticketRepository.countReservedOrSoldByConcert(id, concert.getDate());
         return Math.max(0, hallCapacity - bookedTickets);
     }
 
@@ -0,0 +1,204 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.dto.SaleExportRow;
+import org.app.musical_philharmonic.dto.TicketExportRow;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.app.musical_philharmonic.repository.SaleFactRepository;
+import org.app.musical_philharmonic.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Streams tickets and sales as CSV or NDJSON straight to the response. Rows come from a
+ * forward-only cursor as flat projections, so heap usage stays flat regardless of the row count.
+ * A client disconnect surfaces as an {@link IOException} on the next buffer flush, which closes the
+ * cursor and rolls back the read-only transaction.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    public static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    public static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final List<Column<TicketExportRow>> TICKET_COLUMNS = List.of(
+            new Column<>("id", TicketExportRow::id),
+            new Column<>("concertId", TicketExportRow::concertId),
+            new Column<>("concertName", TicketExportRow::concertName),
+            new Column<>("buyerId", TicketExportRow::buyerId),
+            new Column<>("buyerEmail", TicketExportRow::buyerEmail),
+            new Column<>("seatNumber", TicketExportRow::seatNumber),
+            new Column<>("purchaseTimestamp", TicketExportRow::purchaseTimestamp),
+            new Column<>("status", TicketExportRow::status),
+            new Column<>("reservationExpiration", TicketExportRow::reservationExpiration),
+            new Column<>("paymentMethod", TicketExportRow::paymentMethod),
+            new Column<>("returnReason", TicketExportRow::returnReason),
+            new Column<>("returnTime", TicketExportRow::returnTime));
+
+    private static final List<Column<SaleExportRow>> SALE_COLUMNS = List.of(
+            new Column<>("id", SaleExportRow::id),
+            new Column<>("kind", SaleExportRow::kind),
+            new Column<>("occurredAt", SaleExportRow::occurredAt),
+            new Column<>("ticketId", SaleExportRow::ticketId),
+            new Column<>("concertId", SaleExportRow::concertId),
+            new Column<>("concertTitle", SaleExportRow::concertTitle),
+            new Column<>("hallId", SaleExportRow::hallId),
+            new Column<>("performerId", SaleExportRow::performerId),
+            new Column<>("buyerId", SaleExportRow::buyerId),
+            new Column<>("buyerEmail", SaleExportRow::buyerEmail),
+            new Column<>("seatNumber", SaleExportRow::seatNumber),
+            new Column<>("paymentMethod", SaleExportRow::paymentMethod),
+            new Column<>("quantity", SaleExportRow::quantity),
+            new Column<>("amount", SaleExportRow::amount));
+
+    private final TicketRepository ticketRepository;
+    private final SaleFactRepository saleFactRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public ExportService(TicketRepository ticketRepository,
+                         SaleFactRepository saleFactRepository,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.saleFactRepository = saleFactRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public static MediaType mediaType(String format) {
+        return switch (format == null ? "csv" : format.toLowerCase()) {
+            case "csv" -> TEXT_CSV;
+            case "ndjson", "jsonl" -> APPLICATION_NDJSON;
+            default -> throw new ResponseStatusException(BAD_REQUEST, "format must be csv or ndjson");
+        };
+    }
+
+    public StreamingResponseBody tickets(String format, Integer concertId, TicketStatus status) {
+        return stream("tickets", mediaType(format), TICKET_COLUMNS,
+                () -> ticketRepository.streamForExport(concertId, status));
+    }
+
+    public StreamingResponseBody sales(String format, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ResponseStatusException(BAD_REQUEST, "A valid from/to range is required");
+        }
+        return stream("sales", mediaType(format), SALE_COLUMNS,
+                () -> saleFactRepository.streamForExport(from, to));
+    }
+
+    private <T> StreamingResponseBody stream(String name, MediaType mediaType, List<Column<T>> columns,
+                                             Supplier<Stream<T>> query) {
+        boolean csv = TEXT_CSV.equals(mediaType);
+        return out -> {
+            long start = System.nanoTime();
+            long[] rows = {0};
+            try {
+                readOnlyTx.executeWithoutResult(status -> {
+                    try (Stream<T> stream = query.get()) {
+                        rows[0] = csv ? writeCsv(out, columns, stream.iterator()) : writeNdjson(out, stream.iterator());
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                log.info("Export {} aborted after {} rows: {}", name, rows[0], ex.getCause().getMessage());
+                throw ex.getCause();
+            }
+            log.info("Exported {} rows of {} as {} in {} ms", rows[0], name, mediaType.getSubtype(),
+                    (System.nanoTime() - start) / 1_000_000);
+        };
+    }
+
+    private <T> long writeCsv(OutputStream out, List<Column<T>> columns, Iterator<T> rows) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns.get(i).name());
+        }
+        writer.write('\n');
+        long count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(writer, columns.get(i).value().apply(row));
+            }
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(OutputStream out, Iterator<?> rows) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+                count++;
+            }
+            writer.flush();
+            if (count > 0) {
+                out.write('\n');
+            }
+        } catch (tools.jackson.core.JacksonException ex) {
+            throw ex.getCause() instanceof IOException io ? io : new IOException(ex);
+        }
+        return count;
+    }
+
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private record Column<T>(String name, Function<T, ?> value) {
+    }
+}
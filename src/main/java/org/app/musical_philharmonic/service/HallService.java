@@ -1,5 +1,6 @@
 package org.app.musical_philharmonic.service;
 
+import org.app.musical_philharmonic.cache.EntityVersions;
 import org.app.musical_philharmonic.dto.HallRequest;
 import org.app.musical_philharmonic.dto.HallResponse;
 import org.app.musical_philharmonic.entity.Hall;
@@ -7,6 +8,7 @@ import org.app.musical_philharmonic.repository.HallRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
@@ -15,42 +17,56 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 public class HallService {
 
     private final HallRepository hallRepository;
+    private final EntityVersions entityVersions;
 
-    public HallService(HallRepository hallRepository) {
+    public HallService(HallRepository hallRepository, EntityVersions entityVersions) {
         this.hallRepository = hallRepository;
+        this.entityVersions = entityVersions;
     }
 
+    @Transactional(readOnly = true)
     public Page<HallResponse> list(Pageable pageable) {
         return hallRepository.findAll(pageable).map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
     public HallResponse get(Integer id) {
         return hallRepository.findById(id).map(this::toResponse)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Hall not found"));
     }
 
+    @Transactional
     public HallResponse create(HallRequest request) {
         Hall hall = new Hall();
         hall.setName(request.getName());
         hall.setCapacity(request.getCapacity());
         hall.setLocation(request.getLocation());
-        return toResponse(hallRepository.save(hall));
+        hall.setSeatsPerRow(request.getSeatsPerRow());
+        Hall saved = hallRepository.save(hall);
+        entityVersions.touch(EntityVersions.Kind.HALL, saved.getId());
+        return toResponse(saved);
     }
 
+    @Transactional
     public HallResponse update(Integer id, HallRequest request) {
         Hall hall = hallRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Hall not found"));
         hall.setName(request.getName());
         hall.setCapacity(request.getCapacity());
         hall.setLocation(request.getLocation());
-        return toResponse(hallRepository.save(hall));
+        hall.setSeatsPerRow(request.getSeatsPerRow());
+        Hall saved = hallRepository.save(hall);
+        entityVersions.touch(EntityVersions.Kind.HALL, saved.getId());
+        return toResponse(saved);
     }
 
+    @Transactional
     public void delete(Integer id) {
         if (!hallRepository.existsById(id)) {
             throw new ResponseStatusException(NOT_FOUND, "Hall not found");
         }
         hallRepository.deleteById(id);
+        entityVersions.touch(EntityVersions.Kind.HALL, id);
     }
 
     private HallResponse toResponse(Hall hall) {
@@ -59,6 +75,7 @@ public class HallService {
         resp.setName(hall.getName());
         resp.setCapacity(hall.getCapacity());
         resp.setLocation(hall.getLocation());
+        resp.setSeatsPerRow(hall.getSeatsPerRow());
         return resp;
     }
 }
@@ -0,0 +1,177 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.dto.TicketResponse;
+import org.app.musical_philharmonic.entity.IdempotencyRecord;
+import org.app.musical_philharmonic.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_CONTENT;
+
+/**
+ * Makes ticket-selling endpoints safe to retry. The first request with a given key runs the
+ * action and stores its result in the same transaction; replays are answered from a bounded
+ * in-memory cache, falling back to the idempotency_keys table, without touching tickets again.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final TypeReference<List<TicketResponse>> RESPONSE_TYPE = new TypeReference<>() {
+    };
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, StoredResult> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResult>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResult> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public List<TicketResponse> execute(String key, String endpoint, String actor, Object request,
+                                        Supplier<List<TicketResponse>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(BAD_REQUEST, "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = sha256(endpoint + '\n' + actor + '\n' + key);
+        String requestHash = sha256(objectMapper.writeValueAsString(request));
+
+        StoredResult cached = cache.get(id);
+        if (cached != null && !isExpired(cached.createdAt())) {
+            return replay(cached, requestHash);
+        }
+
+        // Concurrent retries of the same key wait for the first one instead of selling twice
+        CompletableFuture<StoredResult> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResult> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            try {
+                return replay(running.join(), requestHash);
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException re ? re : ex;
+            }
+        }
+        try {
+            StoredResult result = loadOrRun(id, requestHash, action);
+            cache.put(id, result);
+            mine.complete(result);
+            return replay(result, requestHash);
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(ttlHours);
+        int removed = repository.deleteOlderThan(cutoff);
+        cache.values().removeIf(r -> r.createdAt().isBefore(cutoff));
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    private StoredResult loadOrRun(String id, String requestHash, Supplier<List<TicketResponse>> action) {
+        IdempotencyRecord existing = repository.findById(id).orElse(null);
+        if (existing != null && !isExpired(existing.getCreatedAt())) {
+            return fromRecord(existing);
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                if (existing != null) {
+                    // An instance that renewed the key meanwhile keeps it, and our insert below conflicts
+                    repository.deleteIfOlderThan(id, LocalDateTime.now().minusHours(ttlHours));
+                }
+                List<TicketResponse> response = action.get();
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setId(id);
+                record.setRequestHash(requestHash);
+                record.setResponseBody(objectMapper.writeValueAsString(response));
+                repository.saveAndFlush(record);
+                return new StoredResult(requestHash, List.copyOf(response), record.getCreatedAt());
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance committed the same key first; its sale stands and ours was rolled back
+            return repository.findById(id).map(this::fromRecord).orElseThrow(() -> ex);
+        }
+    }
+
+    private List<TicketResponse> replay(StoredResult result, String requestHash) {
+        if (!result.requestHash().equals(requestHash)) {
+            throw new ResponseStatusException(UNPROCESSABLE_CONTENT,
+                    "Idempotency-Key was already used with a different request");
+        }
+        return result.response();
+    }
+
+    private StoredResult fromRecord(IdempotencyRecord record) {
+        List<TicketResponse> response = objectMapper.readValue(record.getResponseBody(), RESPONSE_TYPE);
+        return new StoredResult(record.getRequestHash(), List.copyOf(response), record.getCreatedAt());
+    }
+
+    private boolean isExpired(LocalDateTime createdAt) {
+        return createdAt.isBefore(LocalDateTime.now().minusHours(ttlHours));
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record StoredResult(String requestHash, List<TicketResponse> response, LocalDateTime createdAt) {
+    }
+}
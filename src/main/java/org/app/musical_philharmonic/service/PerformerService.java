@@ -1,5 +1,6 @@
 package org.app.musical_philharmonic.service;
 
+import org.app.musical_philharmonic.cache.EntityVersions;
 import org.app.musical_philharmonic.dto.PerformerRequest;
 import org.app.musical_philharmonic.dto.PerformerResponse;
 import org.app.musical_philharmonic.entity.Performer;
@@ -7,6 +8,7 @@ import org.app.musical_philharmonic.repository.PerformerRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
@@ -15,11 +17,14 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 public class PerformerService {
 
     private final PerformerRepository performerRepository;
+    private final EntityVersions entityVersions;
 
-    public PerformerService(PerformerRepository performerRepository) {
+    public PerformerService(PerformerRepository performerRepository, EntityVersions entityVersions) {
         this.performerRepository = performerRepository;
+        this.entityVersions = entityVersions;
     }
 
+    @Transactional(readOnly = true)
     public Page<PerformerResponse> list(String name, Pageable pageable) {
         Page<Performer> page = name == null
                 ? performerRepository.findAll(pageable)
@@ -27,29 +32,38 @@ public class PerformerService {
         return page.map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
     public PerformerResponse get(Integer id) {
         return performerRepository.findById(id).map(this::toResponse)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Performer not found"));
     }
 
+    @Transactional
     public PerformerResponse create(PerformerRequest request) {
         Performer performer = new Performer();
         performer.setName(request.getName());
-        return toResponse(performerRepository.save(performer));
+        Performer saved = performerRepository.save(performer);
+        entityVersions.touch(EntityVersions.Kind.PERFORMER, saved.getId());
+        return toResponse(saved);
     }
 
+    @Transactional
     public PerformerResponse update(Integer id, PerformerRequest request) {
         Performer performer = performerRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Performer not found"));
         performer.setName(request.getName());
-        return toResponse(performerRepository.save(performer));
+        Performer saved = performerRepository.save(performer);
+        entityVersions.touch(EntityVersions.Kind.PERFORMER, saved.getId());
+        return toResponse(saved);
     }
 
+    @Transactional
     public void delete(Integer id) {
         if (!performerRepository.existsById(id)) {
             throw new ResponseStatusException(NOT_FOUND, "Performer not found");
         }
         performerRepository.deleteById(id);
+        entityVersions.touch(EntityVersions.Kind.PERFORMER, id);
     }
 
     private PerformerResponse toResponse(Performer performer) {
@@ -0,0 +1,169 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.dto.SalesAggregate;
+import org.app.musical_philharmonic.dto.TicketResponse;
+import org.app.musical_philharmonic.entity.Concert;
+import org.app.musical_philharmonic.entity.SaleFact;
+import org.app.musical_philharmonic.entity.SaleKind;
+import org.app.musical_philharmonic.entity.Ticket;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.app.musical_philharmonic.repository.SaleFactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Maintains the sales fact table. Facts are written in the same transaction as the ticket change,
+ * so reporting is always consistent with the OLTP data without ever reading the Tickets table.
+ */
+@Service
+public class SalesFactService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesFactService.class);
+
+    private final SaleFactRepository saleFactRepository;
+    private final SalesRollupService salesRollupService;
+
+    public SalesFactService(SaleFactRepository saleFactRepository, SalesRollupService salesRollupService) {
+        this.saleFactRepository = saleFactRepository;
+        this.salesRollupService = salesRollupService;
+    }
+
+    public void recordSales(List<Ticket> tickets) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SaleFact> facts = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            SaleFact fact = fromTicket(ticket);
+            fact.setKind(SaleKind.SALE);
+            fact.setOccurredAt(now);
+            fact.setQuantity(1);
+            fact.setAmount(ticket.getConcert().getTicketPrice());
+            facts.add(fact);
+        }
+        saleFactRepository.saveAll(facts);
+        salesRollupService.record(facts);
+    }
+
+    /**
+     * Records the refund for a sold ticket, reversing the amount captured at sale time. Must be
+     * called before the ticket's buyer and payment method are cleared.
+     */
+    public void recordReturn(Ticket ticket) {
+        List<SaleFact> facts = new ArrayList<>(2);
+        SaleFact sale = saleFactRepository.findFirstByTicketIdAndKindOrderByIdDesc(ticket.getId(), SaleKind.SALE)
+                .orElse(null);
+        if (sale == null) {
+            // Sold before the fact table existed and never backfilled (the backfill only sees tickets
+            // still SOLD): record the sale now, at its purchase time and today's price, so the
+            // refund nets it out instead of leaving revenue negative
+            sale = fromTicket(ticket);
+            sale.setKind(SaleKind.SALE);
+            sale.setOccurredAt(ticket.getPurchaseTimestamp() != null ? ticket.getPurchaseTimestamp() : LocalDateTime.now());
+            sale.setQuantity(1);
+            sale.setAmount(ticket.getConcert().getTicketPrice());
+            facts.add(sale);
+        }
+        SaleFact fact = fromTicket(ticket);
+        fact.setKind(SaleKind.RETURN);
+        fact.setOccurredAt(LocalDateTime.now());
+        fact.setQuantity(-1);
+        fact.setAmount(sale.getAmount().negate());
+        facts.add(fact);
+        saleFactRepository.saveAll(facts);
+        salesRollupService.record(facts);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TicketResponse> history(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return saleFactRepository.findByKindAndOccurredAtBetween(SaleKind.SALE, from, to, translateSort(pageable))
+                .map(this::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SalesAggregate> aggregate(LocalDateTime from, LocalDateTime to, String groupBy) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ResponseStatusException(BAD_REQUEST, "A valid from/to range is required");
+        }
+        return switch (groupBy == null ? "day" : groupBy.toLowerCase()) {
+            case "day" -> saleFactRepository.aggregateByDay(from, to);
+            case "concert" -> saleFactRepository.aggregateByConcert(from, to);
+            case "hall" -> saleFactRepository.aggregateByHall(from, to);
+            case "performer" -> saleFactRepository.aggregateByPerformer(from, to);
+            case "payment", "paymentmethod" -> saleFactRepository.aggregateByPaymentMethod(from, to);
+            default -> throw new ResponseStatusException(BAD_REQUEST,
+                    "groupBy must be one of day, concert, hall, performer, payment");
+        };
+    }
+
+    @Transactional
+    public int backfill() {
+        int inserted = saleFactRepository.backfillFromTickets();
+        log.info("Backfilled {} sale facts from Tickets", inserted);
+        return inserted;
+    }
+
+    private SaleFact fromTicket(Ticket ticket) {
+        Concert concert = ticket.getConcert();
+        SaleFact fact = new SaleFact();
+        fact.setTicketId(ticket.getId());
+        fact.setConcertId(concert.getId());
+        fact.setConcertTitle(concert.getTitle());
+        fact.setConcertDate(concert.getDate());
+        fact.setHallId(concert.getHall().getId());
+        fact.setPerformerId(concert.getPerformer().getId());
+        if (ticket.getBuyer() != null) {
+            fact.setBuyerId(ticket.getBuyer().getId());
+            fact.setBuyerEmail(ticket.getBuyer().getEmail());
+        }
+        fact.setSeatNumber(ticket.getSeatNumber());
+        fact.setPaymentMethod(ticket.getPaymentMethod());
+        return fact;
+    }
+
+    // The sales history API predates the fact table and sorts by ticket properties
+    private Pageable translateSort(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return pageable;
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            String property = switch (order.getProperty()) {
+                case "purchaseTimestamp", "occurredAt" -> "occurredAt";
+                case "id" -> "ticketId";
+                case "paymentMethod", "seatNumber", "concertId", "buyerEmail" -> order.getProperty();
+                default -> null;
+            };
+            if (property != null) {
+                orders.add(order.withProperty(property));
+            }
+        }
+        Sort sort = orders.isEmpty() ? Sort.by(Sort.Direction.DESC, "occurredAt") : Sort.by(orders);
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    private TicketResponse toResponse(SaleFact fact) {
+        TicketResponse resp = new TicketResponse();
+        resp.setId(fact.getTicketId());
+        resp.setConcertId(fact.getConcertId());
+        resp.setConcertName(fact.getConcertTitle());
+        resp.setBuyerId(fact.getBuyerId());
+        resp.setBuyerEmail(fact.getBuyerEmail());
+        resp.setSeatNumber(fact.getSeatNumber());
+        resp.setPurchaseTimestamp(fact.getOccurredAt());
+        resp.setStatus(TicketStatus.SOLD);
+        resp.setPaymentMethod(fact.getPaymentMethod());
+        return resp;
+    }
+}
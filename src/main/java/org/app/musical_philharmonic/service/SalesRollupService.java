@@ -0,0 +1,299 @@
+package org.app.musical_philharmonic.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.app.musical_philharmonic.dto.RevenueBucket;
+import org.app.musical_philharmonic.dto.SalesAggregate;
+import org.app.musical_philharmonic.entity.RollupGranularity;
+import org.app.musical_philharmonic.entity.SaleFact;
+import org.app.musical_philharmonic.entity.SalesRollup;
+import org.app.musical_philharmonic.repository.SalesRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Pre-aggregated sales per minute, hour and day, keyed by concert, hall and payment method.
+ *
+ * <p>Committed sale facts are folded into an in-memory per-minute buffer, and a scheduled flush
+ * turns the buffer into one batched upsert per touched bucket. Purchases therefore never contend
+ * on rollup rows. An arbitrary range is answered from at most five bucket ranges: minutes up to
+ * the first full hour, hours up to the first full day, whole days, and the trailing hours and
+ * minutes. The cost depends on the number of buckets, not the number of sales.
+ *
+ * <p>The buffer lives only in memory. A crash loses whatever was committed since the last flush,
+ * at most one flush interval of sales; the sale facts themselves are safe. Today's rollups stay
+ * short until the day is over and {@link #rebuild} recomputes it from the facts.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+
+    private static final String UPSERT = """
+            insert into sales_rollups (granularity, bucket_start, concert_id, hall_id, payment_method, tickets, revenue)
+            values (?, ?, ?, ?, ?, ?, ?)
+            on conflict (granularity, bucket_start, concert_id, hall_id, payment_method)
+            do update set tickets = sales_rollups.tickets + excluded.tickets,
+                          revenue = sales_rollups.revenue + excluded.revenue
+            """;
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<BucketKey, Delta> pending = new ConcurrentHashMap<>();
+
+    public SalesRollupService(SalesRollupRepository salesRollupRepository,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("statistics.rollup.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Adds the facts to the rollups once the surrounding transaction commits.
+     */
+    public void record(List<SaleFact> facts) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    facts.forEach(SalesRollupService.this::buffer);
+                }
+            });
+        } else {
+            facts.forEach(this::buffer);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${statistics.rollup.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<BucketKey, Delta> drained = new HashMap<>();
+        for (BucketKey key : pending.keySet()) {
+            Delta delta = pending.remove(key);
+            if (delta != null) {
+                drained.put(key, delta);
+            }
+        }
+
+        // Fan each minute out to its hour and day, merging so every row is upserted once
+        Map<BucketKey, Delta> rows = new HashMap<>();
+        for (Map.Entry<BucketKey, Delta> e : drained.entrySet()) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                rows.merge(e.getKey().at(granularity), e.getValue(), Delta::plus);
+            }
+        }
+        List<Object[]> args = new ArrayList<>(rows.size());
+        rows.forEach((key, delta) -> args.add(new Object[]{
+                key.granularity().name(), Timestamp.valueOf(key.bucketStart()), key.concertId(), key.hallId(),
+                key.paymentMethod(), delta.tickets(), delta.revenue()}));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT, args));
+        } catch (RuntimeException ex) {
+            // Put the deltas back so the next flush retries them
+            drained.forEach((key, delta) -> pending.merge(key, delta, Delta::plus));
+            log.error("Sales rollup flush failed, {} buckets kept for retry: {}", drained.size(), ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Net totals for {@code [from, to)}, with both ends truncated to the minute.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesAggregate> total(LocalDateTime from, LocalDateTime to, String groupBy) {
+        requireRange(from, to);
+        LocalDateTime start = RollupGranularity.MINUTE.floor(from);
+        LocalDateTime end = RollupGranularity.MINUTE.floor(to);
+        Map<String, SalesAggregate> totals = new HashMap<>();
+        for (Piece piece : decompose(start, end)) {
+            for (SalesAggregate part : query(piece, groupBy)) {
+                totals.merge(part.getKey(), part, (a, b) ->
+                        new SalesAggregate(a.getKey(), a.getTickets() + b.getTickets(), a.getRevenue().add(b.getRevenue())));
+            }
+        }
+        return totals.values().stream()
+                .sorted(Comparator.comparing(SalesAggregate::getRevenue).reversed())
+                .toList();
+    }
+
+    /**
+     * Time series for {@code [from, to)} in minute, hour, day or month buckets, optionally split by
+     * concert, hall or payment method. Both ends are widened to whole source buckets.
+     */
+    @Transactional(readOnly = true)
+    public List<RevenueBucket> series(LocalDateTime from, LocalDateTime to, String interval, String groupBy) {
+        requireRange(from, to);
+        String unit = interval == null ? "day" : interval.toLowerCase();
+        RollupGranularity source = switch (unit) {
+            case "minute" -> RollupGranularity.MINUTE;
+            case "hour" -> RollupGranularity.HOUR;
+            case "day", "month" -> RollupGranularity.DAY;
+            default -> throw new ResponseStatusException(BAD_REQUEST, "interval must be one of minute, hour, day, month");
+        };
+        String dimension = dimension(groupBy);
+        List<SalesRollup> rows = salesRollupRepository.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                source, source.floor(from), source.ceil(to));
+
+        Map<BucketPoint, RevenueBucket> series = new HashMap<>();
+        for (SalesRollup row : rows) {
+            LocalDateTime bucket = unit.equals("month")
+                    ? row.getBucketStart().toLocalDate().withDayOfMonth(1).atStartOfDay()
+                    : row.getBucketStart();
+            String key = switch (dimension) {
+                case "concert" -> String.valueOf(row.getConcertId());
+                case "hall" -> String.valueOf(row.getHallId());
+                case "payment" -> row.getPaymentMethod();
+                default -> "total";
+            };
+            series.merge(new BucketPoint(bucket, key),
+                    new RevenueBucket(bucket, key, row.getTickets(), row.getRevenue()),
+                    (a, b) -> new RevenueBucket(bucket, key, a.getTickets() + b.getTickets(), a.getRevenue().add(b.getRevenue())));
+        }
+        return series.values().stream()
+                .sorted(Comparator.comparing(RevenueBucket::getBucketStart).thenComparing(RevenueBucket::getKey))
+                .toList();
+    }
+
+    /**
+     * Recomputes the rollups of whole days in {@code [from, to)} from the sales fact table, e.g.
+     * after a backfill or a crash that lost the buffer. Today is excluded: sales buffered on this
+     * or another instance but not flushed yet are already in the facts and would be counted twice.
+     */
+    public synchronized int rebuild(LocalDate from, LocalDate to) {
+        LocalDate end = to.isAfter(LocalDate.now()) ? LocalDate.now() : to;
+        if (from == null || !from.isBefore(end)) {
+            throw new ResponseStatusException(BAD_REQUEST, "Rebuild range must contain whole days before today");
+        }
+        flush();
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime stop = end.atStartOfDay();
+        Integer rows = transactionTemplate.execute(status -> {
+            salesRollupRepository.deleteRange(start, stop);
+            int inserted = 0;
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                inserted += salesRollupRepository.rebuildFromFacts(granularity.name(),
+                        granularity.name().toLowerCase(), start, stop);
+            }
+            return inserted;
+        });
+        log.info("Rebuilt sales rollups {}..{}: {} rows", from, end, rows);
+        return rows != null ? rows : 0;
+    }
+
+    private void buffer(SaleFact fact) {
+        BucketKey key = new BucketKey(RollupGranularity.MINUTE, RollupGranularity.MINUTE.floor(fact.getOccurredAt()),
+                fact.getConcertId(), fact.getHallId(),
+                fact.getPaymentMethod() != null ? fact.getPaymentMethod() : "unknown");
+        pending.merge(key, new Delta(fact.getQuantity(), fact.getAmount()), Delta::plus);
+    }
+
+    private List<SalesAggregate> query(Piece piece, String groupBy) {
+        return switch (dimension(groupBy)) {
+            case "concert" -> salesRollupRepository.totalByConcert(piece.granularity(), piece.from(), piece.to());
+            case "hall" -> salesRollupRepository.totalByHall(piece.granularity(), piece.from(), piece.to());
+            case "payment" -> salesRollupRepository.totalByPaymentMethod(piece.granularity(), piece.from(), piece.to());
+            default -> salesRollupRepository.total(piece.granularity(), piece.from(), piece.to());
+        };
+    }
+
+    // Splits [from, to) into the coarsest bucket ranges that cover it exactly
+    static List<Piece> decompose(LocalDateTime from, LocalDateTime to) {
+        List<Piece> pieces = new ArrayList<>(5);
+        LocalDateTime firstHour = RollupGranularity.HOUR.ceil(from);
+        if (!firstHour.isBefore(to)) {
+            addPiece(pieces, RollupGranularity.MINUTE, from, to);
+            return pieces;
+        }
+        LocalDateTime lastHour = RollupGranularity.HOUR.floor(to);
+        addPiece(pieces, RollupGranularity.MINUTE, from, firstHour);
+        LocalDateTime firstDay = RollupGranularity.DAY.ceil(firstHour);
+        LocalDateTime lastDay = RollupGranularity.DAY.floor(lastHour);
+        if (firstDay.isBefore(lastDay)) {
+            addPiece(pieces, RollupGranularity.HOUR, firstHour, firstDay);
+            addPiece(pieces, RollupGranularity.DAY, firstDay, lastDay);
+            addPiece(pieces, RollupGranularity.HOUR, lastDay, lastHour);
+        } else {
+            addPiece(pieces, RollupGranularity.HOUR, firstHour, lastHour);
+        }
+        addPiece(pieces, RollupGranularity.MINUTE, lastHour, to);
+        return pieces;
+    }
+
+    private static void addPiece(List<Piece> pieces, RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(to)) {
+            pieces.add(new Piece(granularity, from, to));
+        }
+    }
+
+    private static void requireRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ResponseStatusException(BAD_REQUEST, "A valid from/to range is required");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > 3660) {
+            throw new ResponseStatusException(BAD_REQUEST, "Range is limited to ten years");
+        }
+    }
+
+    private static String dimension(String groupBy) {
+        String dimension = groupBy == null ? "none" : groupBy.toLowerCase();
+        return switch (dimension) {
+            case "none", "concert", "hall", "payment" -> dimension;
+            case "paymentmethod" -> "payment";
+            default -> throw new ResponseStatusException(BAD_REQUEST, "groupBy must be one of none, concert, hall, payment");
+        };
+    }
+
+    record Piece(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+    }
+
+    private record BucketKey(RollupGranularity granularity, LocalDateTime bucketStart,
+                             int concertId, int hallId, String paymentMethod) {
+        BucketKey at(RollupGranularity target) {
+            return new BucketKey(target, target.floor(bucketStart), concertId, hallId, paymentMethod);
+        }
+    }
+
+    private record BucketPoint(LocalDateTime bucketStart, String key) {
+    }
+
+    private record Delta(long tickets, BigDecimal revenue) {
+        Delta plus(Delta other) {
+            return new Delta(tickets + other.tickets, revenue.add(other.revenue));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.archive.TicketPartitions;
+import org.app.musical_philharmonic.dto.BulkSeatResult;
+import org.app.musical_philharmonic.entity.Concert;
+import org.app.musical_philharmonic.entity.Hall;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.app.musical_philharmonic.journal.TicketEvent;
+import org.app.musical_philharmonic.journal.TicketEventJournal;
+import org.app.musical_philharmonic.journal.TicketEventType;
+import org.app.musical_philharmonic.repository.ConcertRepository;
+import org.app.musical_philharmonic.seating.SeatLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+/**
+ * Creates AVAILABLE tickets for a whole seat map in one statement. The seat labels are sent as a
+ * single array parameter and filtered against existing tickets with {@code NOT EXISTS}, so a
+ * 10,000-seat concert costs one round trip instead of two per seat.
+ */
+@Service
+public class SeatImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatImportService.class);
+
+    private static final int MAX_SEAT_LABEL = 10;
+
+    private static final String INSERT_SEATS = """
+            insert into tickets (concert_id, concert_date, seat_number, status, purchase_timestamp)
+            select ?, ?, s.seat, 'AVAILABLE', localtimestamp
+            from (select distinct unnest(?::text[]) as seat) s
+            where not exists (select 1 from tickets t where t.concert_id = ? and t.concert_date = ? and t.seat_number = s.seat)
+            returning id, seat_number
+            """;
+
+    private final ConcertRepository concertRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TicketEventJournal journal;
+    private final TicketPartitions ticketPartitions;
+
+    public SeatImportService(ConcertRepository concertRepository,
+                             JdbcTemplate jdbcTemplate,
+                             TicketEventJournal journal,
+                             TicketPartitions ticketPartitions) {
+        this.concertRepository = concertRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.journal = journal;
+        this.ticketPartitions = ticketPartitions;
+    }
+
+    /**
+     * Generates the hall's full seat map (A1, A2, ..., B1, ...) for the concert. Seats that already
+     * have a ticket are skipped, so calling it again after a partial import fills the gaps. Halls
+     * without a seat layout are rejected; their seats come from a CSV import.
+     */
+    @Transactional
+    public BulkSeatResult generate(Integer concertId) {
+        ticketPartitions.lockConcertDate(concertId);
+        Concert concert = concertRepository.findById(concertId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
+        return insert(concert, seatMap(concert.getHall()));
+    }
+
+    /**
+     * Imports seats from CSV, one seat per line, either as {@code seatNumber} or as
+     * {@code row,number}. Blank lines and a header line are ignored.
+     */
+    @Transactional
+    public BulkSeatResult importCsv(Integer concertId, Reader csv) {
+        ticketPartitions.lockConcertDate(concertId);
+        Concert concert = concertRepository.findById(concertId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
+        Set<String> seats = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(csv)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] parts = line.split(",", -1);
+                String seat = parts.length >= 2 ? parts[0].trim() + parts[1].trim() : parts[0].trim();
+                boolean header = lineNumber == 1 && seat.toLowerCase().matches("(seat|row).*");
+                if (seat.isEmpty() || header) {
+                    continue;
+                }
+                if (seat.length() > MAX_SEAT_LABEL) {
+                    throw new ResponseStatusException(BAD_REQUEST,
+                            "Line " + lineNumber + ": seat label longer than " + MAX_SEAT_LABEL + " characters");
+                }
+                seats.add(seat);
+            }
+        } catch (IOException ex) {
+            throw new ResponseStatusException(BAD_REQUEST, "Unreadable CSV: " + ex.getMessage());
+        }
+        if (seats.size() > concert.getHall().getCapacity()) {
+            throw new ResponseStatusException(BAD_REQUEST, String.format(
+                    "CSV has %d seats but the hall holds %d", seats.size(), concert.getHall().getCapacity()));
+        }
+        return insert(concert, new ArrayList<>(seats));
+    }
+
+    static List<String> seatMap(Hall hall) {
+        SeatLayout layout = SeatLayout.of(hall);
+        if (layout == null) {
+            throw new ResponseStatusException(BAD_REQUEST,
+                    "Hall " + hall.getId() + " has no seat layout (seatsPerRow); import its seats from CSV instead");
+        }
+        List<String> seats = new ArrayList<>(layout.capacity());
+        for (int i = 0; i < layout.capacity(); i++) {
+            seats.add(layout.label(i));
+        }
+        return seats;
+    }
+
+    private BulkSeatResult insert(Concert concert, List<String> seats) {
+        Integer concertId = concert.getId();
+        Date concertDate = Date.valueOf(concert.getDate());
+        long start = System.nanoTime();
+        if (seats.isEmpty()) {
+            return new BulkSeatResult(concertId, 0, 0, 0);
+        }
+        // NOT EXISTS alone is not race-safe; serialize bulk inserts per concert for this transaction
+        jdbcTemplate.query("select pg_advisory_xact_lock(?)", rs -> { }, concertId);
+        List<TicketEvent> events = new ArrayList<>(seats.size());
+        long now = System.currentTimeMillis();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SEATS);
+            ps.setInt(1, concertId);
+            ps.setDate(2, concertDate);
+            ps.setArray(3, con.createArrayOf("text", seats.toArray()));
+            ps.setInt(4, concertId);
+            ps.setDate(5, concertDate);
+            return ps;
+        }, rs -> {
+            events.add(new TicketEvent(0, now, TicketEventType.CREATED, rs.getInt(1), concertId,
+                    null, TicketStatus.AVAILABLE, rs.getString(2), null));
+        });
+        journal.publishAll(events);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Bulk created {} of {} seats for concert={} in {} ms", events.size(), seats.size(), concertId, elapsedMs);
+        return new BulkSeatResult(concertId, seats.size(), events.size(), elapsedMs);
+    }
+}
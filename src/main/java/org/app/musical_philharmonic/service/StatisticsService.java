@@ -1,10 +1,13 @@
 package org.app.musical_philharmonic.service;
 
+import org.app.musical_philharmonic.archive.ColdTicketArchive;
+import org.app.musical_philharmonic.entity.TicketStatus;
 import org.app.musical_philharmonic.entity.UserSession;
 import org.app.musical_philharmonic.repository.TicketRepository;
 import org.app.musical_philharmonic.repository.UserRepository;
 import org.app.musical_philharmonic.repository.UserSessionRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.util.HashMap;
@@ -17,15 +20,19 @@ public class StatisticsService {
     private final UserRepository userRepository;
     private final TicketRepository ticketRepository;
     private final UserSessionRepository userSessionRepository;
+    private final ColdTicketArchive coldArchive;
 
     public StatisticsService(UserRepository userRepository, 
                             TicketRepository ticketRepository,
-                            UserSessionRepository userSessionRepository) {
+                            UserSessionRepository userSessionRepository,
+                            ColdTicketArchive coldArchive) {
         this.userRepository = userRepository;
         this.ticketRepository = ticketRepository;
         this.userSessionRepository = userSessionRepository;
+        this.coldArchive = coldArchive;
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getStatistics() {
         Map<String, Object> stats = new HashMap<>();
         
@@ -53,7 +60,16 @@ public class StatisticsService {
             org.springframework.data.domain.Pageable.unpaged()
         ).getTotalElements();
         
+        // Tickets of archived months, counted from the archive manifest
+        Map<TicketStatus, Long> archived = coldArchive.statusCounts();
+        long archivedTickets = archived.values().stream().mapToLong(Long::longValue).sum();
+        totalTickets += archivedTickets;
+        soldTickets += archived.getOrDefault(TicketStatus.SOLD, 0L);
+        reservedTickets += archived.getOrDefault(TicketStatus.RESERVED, 0L);
+        availableTickets += archived.getOrDefault(TicketStatus.AVAILABLE, 0L);
+        
         stats.put("totalTickets", totalTickets);
+        stats.put("archivedTickets", archivedTickets);
         stats.put("soldTickets", soldTickets);
         stats.put("reservedTickets", reservedTickets);
         stats.put("availableTickets", availableTickets);
@@ -0,0 +1,79 @@
+package org.app.musical_philharmonic.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.app.musical_philharmonic.exception.SoldOutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Latency and outcome of booking, purchase and return calls as {@code tickets.operation}
+ * (operation, outcome), and the tickets they moved as {@code tickets.processed}. A call that
+ * returns inside a transaction is timed up to its commit, so a failed commit counts as
+ * {@code failed}; outcomes are {@code success}, {@code sold_out} (see {@link SoldOutException}),
+ * {@code rejected} (any other 4xx) and {@code failed}.
+ */
+@Component
+public class TicketMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public TicketMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String operation, Supplier<T> call, ToIntFunction<T> tickets) {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException ex) {
+            timer(operation, outcome(ex)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+        int count = tickets.applyAsInt(result);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            completed(operation, start, count, true);
+            return result;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                completed(operation, start, count, status == STATUS_COMMITTED);
+            }
+        });
+        return result;
+    }
+
+    private void completed(String operation, long start, int count, boolean committed) {
+        timer(operation, committed ? "success" : "failed").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (committed) {
+            Counter.builder("tickets.processed").tag("operation", operation).register(meterRegistry).increment(count);
+        }
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("tickets.operation")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcome(RuntimeException ex) {
+        if (ex instanceof SoldOutException) {
+            return "sold_out";
+        }
+        if (ex instanceof ResponseStatusException status && status.getStatusCode().is4xxClientError()) {
+            return "rejected";
+        }
+        return "failed";
+    }
+}
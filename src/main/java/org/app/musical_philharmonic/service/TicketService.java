@@ -1,13 +1,26 @@
 package org.app.musical_philharmonic.service;
 
+import org.app.musical_philharmonic.archive.TicketPartitions;
+import org.app.musical_philharmonic.dto.TicketRequest;
 import org.app.musical_philharmonic.dto.TicketResponse;
 import org.app.musical_philharmonic.entity.Concert;
 import org.app.musical_philharmonic.entity.Ticket;
 import org.app.musical_philharmonic.entity.TicketStatus;
 import org.app.musical_philharmonic.entity.User;
+import org.app.musical_philharmonic.exception.SoldOutException;
+import org.app.musical_philharmonic.journal.TicketEvent;
+import org.app.musical_philharmonic.journal.TicketEventJournal;
+import org.app.musical_philharmonic.journal.TicketEventType;
 import org.app.musical_philharmonic.repository.ConcertRepository;
 import org.app.musical_philharmonic.repository.TicketRepository;
 import org.app.musical_philharmonic.repository.UserRepository;
+import org.app.musical_philharmonic.replica.ReplicaRoutingDataSource;
+import org.app.musical_philharmonic.seating.HoldManager;
+import org.app.musical_philharmonic.seating.SeatInventory;
+import org.app.musical_philharmonic.seating.SeatLayout;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -23,21 +36,46 @@ import java.util.UUID;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
+// Every public method is a span (and a ticket.service timer); see traceAttributes for its attributes
+@Observed(name = "ticket.service")
 @Service
 public class TicketService {
 
     private static final Logger log = LoggerFactory.getLogger(TicketService.class);
 
+    private static final String DANCE_FLOOR_SEAT = "N/A";
+
     private final TicketRepository ticketRepository;
     private final ConcertRepository concertRepository;
     private final UserRepository userRepository;
+    private final TicketEventJournal journal;
+    private final SalesFactService salesFactService;
+    private final SeatInventory seatInventory;
+    private final HoldManager holdManager;
+    private final TicketMetrics ticketMetrics;
+    private final ObservationRegistry observationRegistry;
+    private final TicketPartitions ticketPartitions;
 
     public TicketService(TicketRepository ticketRepository,
                          ConcertRepository concertRepository,
-                         UserRepository userRepository) {
+                         UserRepository userRepository,
+                         TicketEventJournal journal,
+                         SalesFactService salesFactService,
+                         SeatInventory seatInventory,
+                         HoldManager holdManager,
+                         TicketMetrics ticketMetrics,
+                         ObservationRegistry observationRegistry,
+                         TicketPartitions ticketPartitions) {
         this.ticketRepository = ticketRepository;
         this.concertRepository = concertRepository;
         this.userRepository = userRepository;
+        this.journal = journal;
+        this.salesFactService = salesFactService;
+        this.seatInventory = seatInventory;
+        this.holdManager = holdManager;
+        this.ticketMetrics = ticketMetrics;
+        this.observationRegistry = observationRegistry;
+        this.ticketPartitions = ticketPartitions;
     }
 
     @Transactional(readOnly = true)
@@ -57,6 +95,11 @@ public class TicketService {
                     "%" + concertName.get().trim().toLowerCase() + "%"));
             } else if (concertId.isPresent()) {
                 predicates.add(cb.equal(root.get("concert").get("id"), concertId.get()));
+                // The concert's date selects its tickets partition
+                var concertDate = query.subquery(java.time.LocalDate.class);
+                var concert = concertDate.from(Concert.class);
+                concertDate.select(concert.get("date")).where(cb.equal(concert.get("id"), concertId.get()));
+                predicates.add(cb.equal(root.get("concertDate"), concertDate));
             }
             
             // Buyer filter: prefer buyerEmail over buyerId
@@ -78,25 +121,59 @@ public class TicketService {
         return page.map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
     public Page<TicketResponse> availability(Integer concertId, Pageable pageable) {
-        if (!concertRepository.existsById(concertId)) {
-            throw new ResponseStatusException(NOT_FOUND, "Concert not found");
-        }
-        return ticketRepository.findByConcertId(concertId, pageable).map(this::toResponse);
+        traceAttributes(concertId, null);
+        Concert concert = concertRepository.findById(concertId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
+        return ticketRepository.findByConcertId(concertId, concert.getDate(), pageable).map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
     public long getAvailableTicketsCount(Integer concertId) {
+        traceAttributes(concertId, null);
         Concert concert = concertRepository.findById(concertId)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
+        var seatMap = seatInventory.map(concert);
+        if (seatMap != null) {
+            return seatMap.free();
+        }
         int hallCapacity = concert.getHall().getCapacity();
-        long bookedTickets = ticketRepository.countReservedOrSoldByConcert(concertId);
+        long bookedTickets = ticketRepository.countReservedOrSoldByConcert(concertId, concert.getDate());
         return Math.max(0, hallCapacity - bookedTickets);
     }
 
+    @Transactional(readOnly = true)
+    public java.util.List<String> bestAvailable(Integer concertId, int quantity) {
+        traceAttributes(concertId, quantity);
+        if (quantity < 1) {
+            throw new ResponseStatusException(BAD_REQUEST, "Quantity must be at least 1");
+        }
+        Concert concert = concertRepository.findById(concertId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
+        // Adjacent seats never span rows, so a longer block cannot exist
+        SeatLayout layout = SeatLayout.of(concert.getHall());
+        if (layout != null && quantity > layout.seatsPerRow()) {
+            throw new ResponseStatusException(BAD_REQUEST,
+                    "Quantity must be at most " + layout.seatsPerRow() + ", the seats in a row");
+        }
+        java.util.List<String> seats = seatInventory.preview(concert, quantity);
+        return seats != null ? seats : java.util.List.of();
+    }
+
+    @Transactional(readOnly = true)
     public Page<TicketResponse> ticketsByBuyer(UUID buyerId, Pageable pageable) {
         return ticketRepository.findByBuyerId(buyerId, pageable).map(this::toResponse);
     }
 
+    // Customer's own tickets; an unknown email has none. Read from the primary, so a booking
+    // made a moment ago shows up even while the replicas catch up
+    @Transactional(readOnly = true)
+    public Page<TicketResponse> ticketsOf(String email, Pageable pageable) {
+        return ReplicaRoutingDataSource.onPrimary(() -> ticketsByBuyer(userId(email), pageable));
+    }
+
+    @Transactional(readOnly = true)
     public TicketResponse get(Integer id) {
         return ticketRepository.findById(id).map(this::toResponse)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Ticket not found"));
@@ -104,22 +181,33 @@ public class TicketService {
 
     @Transactional
     public java.util.List<TicketResponse> book(Integer concertId, String seatNumber, UUID buyerId, LocalDateTime expiration, String actorEmail, Integer quantity) {
-        Concert concert = concertRepository.findById(concertId)
+        traceAttributes(concertId, quantity);
+        return ticketMetrics.record("book",
+                () -> seatInventory.persist(concertId,
+                        () -> createBooking(concertId, seatNumber, buyerId, expiration, actorEmail, quantity)), java.util.List::size);
+    }
+
+    private java.util.List<TicketResponse> createBooking(Integer concertId, String seatNumber, UUID buyerId, LocalDateTime expiration, String actorEmail, Integer quantity) {
+        Concert concert = findForInsert(concertId)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
         
         if (quantity == null || quantity <= 0) {
             quantity = 1;
         }
         
-        // Check hall capacity BEFORE creating any tickets - ensure we can book all requested tickets
-        long existingTickets = ticketRepository.countReservedOrSoldByConcert(concertId);
+        // Halls with a seat layout get adjacent seats from the in-memory inventory
+        java.util.List<String> seats = seatInventory.hold(concert, quantity, seatNumber);
         int hallCapacity = concert.getHall().getCapacity();
-        
-        if (existingTickets + quantity > hallCapacity) {
-            long available = hallCapacity - existingTickets;
-            throw new ResponseStatusException(BAD_REQUEST, 
-                String.format("Cannot book %d tickets. Hall capacity: %d, Already booked/sold: %d, Available: %d", 
-                    quantity, hallCapacity, existingTickets, available));
+        long existingTickets = 0;
+        if (seats == null) {
+            // Dance-floor hall: check capacity BEFORE creating any tickets - ensure we can book all requested tickets
+            existingTickets = ticketRepository.countReservedOrSoldByConcert(concertId, concert.getDate());
+            if (existingTickets + quantity > hallCapacity) {
+                long available = hallCapacity - existingTickets;
+                throw new SoldOutException(BAD_REQUEST, 
+                    String.format("Cannot book %d tickets. Hall capacity: %d, Already booked/sold: %d, Available: %d", 
+                        quantity, hallCapacity, existingTickets, available));
+            }
         }
         
         User buyer = null;
@@ -130,28 +218,47 @@ public class TicketService {
         
         java.util.List<Ticket> savedTickets = new java.util.ArrayList<>();
         LocalDateTime exp = expiration != null ? expiration : LocalDateTime.now().plusMinutes(30);
-        String seatNum = seatNumber != null && !seatNumber.trim().isEmpty() ? seatNumber : "N/A";
         
         // Create all requested tickets
-        for (int i = 0; i < quantity; i++) {
-            Ticket ticket = new Ticket();
-            ticket.setConcert(concert);
-            ticket.setSeatNumber(seatNum);
+        for (Ticket ticket : newTickets(concert, seats, quantity)) {
             ticket.setStatus(TicketStatus.RESERVED);
             ticket.setReservationExpiration(exp);
             if (buyer != null) {
                 ticket.setBuyer(buyer);
             }
-            savedTickets.add(ticketRepository.save(ticket));
+            Ticket saved = ticketRepository.save(ticket);
+            holdManager.hold(saved.getId(), exp);
+            journal.publish(TicketEvent.of(TicketEventType.BOOKED, saved));
+            savedTickets.add(saved);
         }
         
-        log.info("Booked {} tickets concert={} by={} (capacity: {}/{})", quantity, concertId, actorEmail, existingTickets + quantity, hallCapacity);
+        if (seats != null) {
+            log.info("Booked {} tickets concert={} by={} seats={}", quantity, concertId, actorEmail, seats);
+        } else {
+            log.info("Booked {} tickets concert={} by={} (capacity: {}/{})", quantity, concertId, actorEmail, existingTickets + quantity, hallCapacity);
+        }
         return savedTickets.stream().map(this::toResponse).collect(java.util.stream.Collectors.toList());
     }
 
+    /**
+     * {@link #book} for a signed-in customer, who is both buyer and actor. The account is looked up
+     * in the booking transaction; an unknown email books without a buyer.
+     */
+    @Transactional
+    public java.util.List<TicketResponse> bookAs(String email, Integer concertId, String seatNumber, LocalDateTime expiration, Integer quantity) {
+        return book(concertId, seatNumber, userId(email), expiration, email, quantity);
+    }
+
     @Transactional
     public java.util.List<TicketResponse> purchase(Integer concertId, String seatNumber, UUID buyerId, String paymentMethod, String actorEmail, Integer quantity) {
-        Concert concert = concertRepository.findById(concertId)
+        traceAttributes(concertId, quantity);
+        return ticketMetrics.record("purchase",
+                () -> seatInventory.persist(concertId,
+                        () -> completePurchase(concertId, seatNumber, buyerId, paymentMethod, actorEmail, quantity)), java.util.List::size);
+    }
+
+    private java.util.List<TicketResponse> completePurchase(Integer concertId, String seatNumber, UUID buyerId, String paymentMethod, String actorEmail, Integer quantity) {
+        Concert concert = findForInsert(concertId)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
         
         if (quantity == null || quantity <= 0) {
@@ -168,7 +275,7 @@ public class TicketService {
         
         // If buyer is provided, find their reserved tickets first (convert reserved to sold)
         if (buyer != null) {
-            java.util.List<Ticket> reservedTickets = ticketRepository.findByConcertIdAndStatus(concertId, TicketStatus.RESERVED, Pageable.unpaged())
+            java.util.List<Ticket> reservedTickets = ticketRepository.findByConcertIdAndStatus(concertId, concert.getDate(), TicketStatus.RESERVED, Pageable.unpaged())
                     .getContent().stream()
                     .filter(t -> t.getBuyer() != null && buyerId.equals(t.getBuyer().getId()))
                     .limit(quantity)
@@ -181,23 +288,22 @@ public class TicketService {
         int newTicketsNeeded = quantity - ticketsToSell.size();
         
         if (newTicketsNeeded > 0) {
-            // Check capacity BEFORE creating new tickets
-            long existingTickets = ticketRepository.countReservedOrSoldByConcert(concertId);
-            int hallCapacity = concert.getHall().getCapacity();
-            
-            if (existingTickets + newTicketsNeeded > hallCapacity) {
-                long available = hallCapacity - existingTickets;
-                throw new ResponseStatusException(BAD_REQUEST, 
-                    String.format("Cannot purchase %d tickets. Hall capacity: %d, Already booked/sold: %d, Available: %d", 
-                        quantity, hallCapacity, existingTickets, available));
+            java.util.List<String> seats = seatInventory.hold(concert, newTicketsNeeded, seatNumber);
+            if (seats == null) {
+                // Check capacity BEFORE creating new tickets
+                long existingTickets = ticketRepository.countReservedOrSoldByConcert(concertId, concert.getDate());
+                int hallCapacity = concert.getHall().getCapacity();
+                
+                if (existingTickets + newTicketsNeeded > hallCapacity) {
+                    long available = hallCapacity - existingTickets;
+                    throw new SoldOutException(BAD_REQUEST, 
+                        String.format("Cannot purchase %d tickets. Hall capacity: %d, Already booked/sold: %d, Available: %d", 
+                            quantity, hallCapacity, existingTickets, available));
+                }
             }
             
             // Create new tickets for the remaining quantity
-            String seatNum = seatNumber != null && !seatNumber.trim().isEmpty() ? seatNumber : "N/A";
-            for (int i = 0; i < newTicketsNeeded; i++) {
-                Ticket ticket = new Ticket();
-                ticket.setConcert(concert);
-                ticket.setSeatNumber(seatNum);
+            for (Ticket ticket : newTickets(concert, seats, newTicketsNeeded)) {
                 ticket.setStatus(TicketStatus.SOLD);
                 ticket.setPaymentMethod(paymentMethod);
                 if (buyer != null) {
@@ -214,42 +320,221 @@ public class TicketService {
                 ticket.setReservationExpiration(null);
                 ticket.setPaymentMethod(paymentMethod);
                 ticketRepository.save(ticket);
+                holdManager.cancel(ticket.getId());
             }
+            journal.publish(TicketEvent.of(TicketEventType.PURCHASED, ticket));
         }
+        seatInventory.sell(concert, ticketsToSell.stream().map(Ticket::getSeatNumber).toList());
+        salesFactService.recordSales(ticketsToSell);
         
         log.info("Purchased {} tickets concert={} by={} payment={}", quantity, concertId, actorEmail, paymentMethod);
         return ticketsToSell.stream().map(this::toResponse).collect(java.util.stream.Collectors.toList());
     }
 
+    /**
+     * {@link #purchase} for a signed-in customer, who is both buyer and actor.
+     */
+    @Transactional
+    public java.util.List<TicketResponse> purchaseAs(String email, Integer concertId, String seatNumber, String paymentMethod, Integer quantity) {
+        return purchase(concertId, seatNumber, userId(email), paymentMethod, email, quantity);
+    }
+
+    /**
+     * Box-office sale to a registered customer. The seat is not chosen here; {@link #purchase}
+     * checks capacity or picks the best block.
+     */
+    @Transactional
+    public java.util.List<TicketResponse> sell(Integer concertId, String buyerEmail, String paymentMethod, String actorEmail, Integer quantity) {
+        User buyer = userRepository.findByEmail(buyerEmail)
+                .orElseThrow(() -> new ResponseStatusException(BAD_REQUEST,
+                        "Customer with email " + buyerEmail + " not found. Email must be registered."));
+        return purchase(concertId, null, buyer.getId(), paymentMethod, actorEmail, quantity);
+    }
+
     @Transactional
     public TicketResponse returnTicket(Integer ticketId, String reason, String actorEmail) {
+        return ticketMetrics.record("return", () -> processReturn(ticketId, reason, actorEmail), ticket -> 1);
+    }
+
+    private TicketResponse processReturn(Integer ticketId, String reason, String actorEmail) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Ticket not found"));
+        traceAttributes(ticket.getConcert().getId(), 1);
+        if (ticket.getStatus() == TicketStatus.SOLD) {
+            salesFactService.recordReturn(ticket);
+        }
+        if (ticket.getStatus() != TicketStatus.AVAILABLE) {
+            seatInventory.release(ticket.getConcert(), java.util.List.of(ticket.getSeatNumber()));
+        }
+        if (ticket.getStatus() == TicketStatus.RESERVED) {
+            holdManager.cancel(ticket.getId());
+        }
         ticket.setStatus(TicketStatus.AVAILABLE);
         ticket.setBuyer(null);
         ticket.setReturnReason(reason);
         ticket.setReturnTime(LocalDateTime.now());
         Ticket saved = ticketRepository.save(ticket);
+        journal.publish(TicketEvent.of(TicketEventType.RETURNED, saved));
         log.info("Returned ticket id={} reason={} by={}", ticketId, reason, actorEmail);
         return toResponse(saved);
     }
 
+    @Transactional(readOnly = true)
     public Page<TicketResponse> salesHistory(LocalDateTime from, LocalDateTime to, Pageable pageable) {
-        return ticketRepository.findByPurchaseTimestampBetween(from, to, pageable).map(this::toResponse);
+        return salesFactService.history(from, to, pageable);
     }
 
+    @Transactional
     public TicketResponse createAvailable(Integer concertId, String seatNumber) {
-        Concert concert = concertRepository.findById(concertId)
+        Concert concert = findForInsert(concertId)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
         if (ticketRepository.existsByConcertIdAndSeatNumberAndStatusIn(
-                concertId, seatNumber, EnumSet.of(TicketStatus.SOLD, TicketStatus.RESERVED, TicketStatus.AVAILABLE))) {
+                concertId, concert.getDate(), seatNumber, EnumSet.of(TicketStatus.SOLD, TicketStatus.RESERVED, TicketStatus.AVAILABLE))) {
             throw new ResponseStatusException(BAD_REQUEST, "Seat already exists");
         }
         Ticket ticket = new Ticket();
         ticket.setConcert(concert);
         ticket.setSeatNumber(seatNumber);
         ticket.setStatus(TicketStatus.AVAILABLE);
-        return toResponse(ticketRepository.save(ticket));
+        Ticket saved = ticketRepository.save(ticket);
+        journal.publish(TicketEvent.of(TicketEventType.CREATED, saved));
+        return toResponse(saved);
+    }
+
+    @Transactional
+    public TicketResponse create(TicketRequest request) {
+        Ticket ticket = new Ticket();
+        apply(ticket, request);
+        seatInventory.change(null, null, null, ticket.getConcert(), ticket.getSeatNumber(), ticket.getStatus());
+        Ticket saved = seatInventory.persist(ticket.getConcert().getId(), () -> ticketRepository.save(ticket));
+        if (saved.getStatus() == TicketStatus.SOLD) {
+            salesFactService.recordSales(java.util.List.of(saved));
+        }
+        updateHold(saved);
+        journal.publish(TicketEvent.of(TicketEventType.CREATED, saved));
+        return toResponse(saved);
+    }
+
+    @Transactional
+    public TicketResponse update(Integer id, TicketRequest request) {
+        Ticket ticket = ticketRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Ticket not found"));
+        Concert oldConcert = ticket.getConcert();
+        String oldSeat = ticket.getSeatNumber();
+        TicketStatus oldStatus = ticket.getStatus();
+        // An edit in or out of SOLD is a sale or a refund for reporting; the refund needs the buyer before the edit
+        boolean unsold = oldStatus == TicketStatus.SOLD && request.getStatus() != null && request.getStatus() != TicketStatus.SOLD;
+        if (unsold) {
+            salesFactService.recordReturn(ticket);
+        }
+        apply(ticket, request);
+        seatInventory.change(oldConcert, oldSeat, oldStatus, ticket.getConcert(), ticket.getSeatNumber(), ticket.getStatus());
+        Ticket saved = seatInventory.persist(ticket.getConcert().getId(), () -> ticketRepository.save(ticket));
+        if (oldStatus != TicketStatus.SOLD && saved.getStatus() == TicketStatus.SOLD) {
+            salesFactService.recordSales(java.util.List.of(saved));
+        }
+        updateHold(saved);
+        journal.publish(TicketEvent.of(TicketEventType.UPDATED, saved));
+        return toResponse(saved);
+    }
+
+    @Transactional
+    public void delete(Integer id) {
+        Ticket ticket = ticketRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Ticket not found"));
+        ticketRepository.delete(ticket);
+        if (ticket.getStatus() != TicketStatus.AVAILABLE) {
+            seatInventory.release(ticket.getConcert(), java.util.List.of(ticket.getSeatNumber()));
+        }
+        holdManager.cancel(ticket.getId());
+        journal.publish(TicketEvent.of(TicketEventType.DELETED, ticket));
+    }
+
+    // Span attributes only: per-concert values would multiply the ticket.service timers
+    private void traceAttributes(Integer concertId, Integer quantity) {
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation == null) {
+            return;
+        }
+        if (concertId != null) {
+            observation.highCardinalityKeyValue("concert.id", concertId.toString());
+        }
+        if (quantity != null) {
+            observation.highCardinalityKeyValue("quantity", quantity.toString());
+        }
+    }
+
+    // The concert for writing tickets under its date, which cannot move until this transaction ends
+    private java.util.Optional<Concert> findForInsert(Integer concertId) {
+        if (concertId != null) {
+            ticketPartitions.lockConcertDate(concertId);
+        }
+        return concertRepository.findById(concertId);
+    }
+
+    // Runs in the calling method's transaction; @Transactional on a private method is never proxied
+    private UUID userId(String email) {
+        return userRepository.findByEmail(email).map(User::getId).orElse(null);
+    }
+
+    // Admin edits can start, move or end a reservation
+    private void updateHold(Ticket ticket) {
+        if (ticket.getStatus() == TicketStatus.RESERVED && ticket.getReservationExpiration() != null) {
+            holdManager.hold(ticket.getId(), ticket.getReservationExpiration());
+        } else {
+            holdManager.cancel(ticket.getId());
+        }
+    }
+
+    // Assigned seats reuse their pre-generated AVAILABLE ticket when there is one; everything else is a new row
+    private java.util.List<Ticket> newTickets(Concert concert, java.util.List<String> seats, int quantity) {
+        java.util.List<Ticket> tickets = new java.util.ArrayList<>(quantity);
+        if (seats == null) {
+            // Dance floor: no seats to number, so a client's seatNumber is not stored; every ticket carries
+            // the placeholder the taken-seat index (V5) leaves out
+            for (int i = 0; i < quantity; i++) {
+                Ticket ticket = new Ticket();
+                ticket.setConcert(concert);
+                ticket.setSeatNumber(DANCE_FLOOR_SEAT);
+                tickets.add(ticket);
+            }
+            return tickets;
+        }
+        java.util.Map<String, Ticket> existing = new java.util.HashMap<>();
+        for (Ticket t : ticketRepository.findByConcertIdAndSeatNumberInAndStatus(concert.getId(), concert.getDate(), seats, TicketStatus.AVAILABLE)) {
+            existing.putIfAbsent(t.getSeatNumber(), t);
+        }
+        for (String seat : seats) {
+            Ticket ticket = existing.get(seat);
+            if (ticket == null) {
+                ticket = new Ticket();
+                ticket.setConcert(concert);
+                ticket.setSeatNumber(seat);
+            }
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+
+    private void apply(Ticket ticket, TicketRequest request) {
+        if (request.getConcertId() != null) {
+            Concert concert = findForInsert(request.getConcertId())
+                    .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Concert not found"));
+            ticket.setConcert(concert);
+        }
+        if (request.getBuyerId() != null) {
+            User buyer = userRepository.findById(request.getBuyerId())
+                    .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Buyer not found"));
+            ticket.setBuyer(buyer);
+        }
+        ticket.setSeatNumber(request.getSeatNumber());
+        if (request.getStatus() != null) {
+            ticket.setStatus(request.getStatus());
+        }
+        ticket.setReservationExpiration(request.getReservationExpiration());
+        ticket.setPaymentMethod(request.getPaymentMethod());
+        ticket.setReturnReason(request.getReturnReason());
+        ticket.setReturnTime(request.getReturnTime());
     }
 
     public TicketResponse toResponse(Ticket ticket) {
@@ -0,0 +1,224 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.cache.EntityVersions;
+import org.app.musical_philharmonic.dto.ConcertResponse;
+import org.app.musical_philharmonic.entity.Concert;
+import org.app.musical_philharmonic.repository.ConcertRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory materialization of the concerts between today and one year ahead, kept as an
+ * immutable array sorted by date, time and id. Concert writes patch it copy-on-write after commit
+ * and it is rebuilt at midnight, so upcoming pages are array slices with a known total. Writes made
+ * by other instances only patch their own view; a periodic refresh picks them up here.
+ */
+@Component
+public class UpcomingConcertsView {
+
+    private static final Logger log = LoggerFactory.getLogger(UpcomingConcertsView.class);
+
+    private static final Comparator<UpcomingConcert> ORDER = Comparator
+            .comparing(UpcomingConcert::date)
+            .thenComparing(UpcomingConcert::time)
+            .thenComparing(UpcomingConcert::id);
+
+    private record UpcomingConcert(Integer id, String title, LocalDate date, LocalTime time,
+                                   Integer hallId, Integer performerId, BigDecimal ticketPrice) {
+    }
+
+    private record Snapshot(LocalDate from, LocalDate to, UpcomingConcert[] concerts) {
+    }
+
+    private final ConcertRepository concertRepository;
+    private final EntityVersions entityVersions;
+    private volatile Snapshot snapshot;
+
+    public UpcomingConcertsView(ConcertRepository concertRepository, EntityVersions entityVersions) {
+        this.concertRepository = concertRepository;
+        this.entityVersions = entityVersions;
+    }
+
+    /**
+     * Returns the requested page, or {@code null} when the sort cannot be answered from the
+     * view (anything other than unsorted or by date) and the caller has to query instead.
+     */
+    public Page<ConcertResponse> page(Pageable pageable) {
+        Sort.Order order = null;
+        if (pageable.getSort().isSorted()) {
+            List<Sort.Order> orders = pageable.getSort().toList();
+            if (orders.size() != 1 || !"date".equals(orders.get(0).getProperty())) {
+                return null;
+            }
+            order = orders.get(0);
+        }
+        UpcomingConcert[] concerts = current().concerts();
+        int total = concerts.length;
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(slice(concerts, 0, total, order), pageable, total);
+        }
+        long offset = pageable.getOffset();
+        int start = (int) Math.min(offset, total);
+        int end = (int) Math.min(offset + pageable.getPageSize(), total);
+        return new PageImpl<>(slice(concerts, start, end, order), pageable, total);
+    }
+
+    public LocalDate windowStart() {
+        return current().from();
+    }
+
+    public LocalDate windowEnd() {
+        return current().to();
+    }
+
+    public void onSaved(Concert concert) {
+        UpcomingConcert entry = toEntry(concert);
+        afterCommit(() -> apply(entry.id(), entry));
+    }
+
+    public void onDeleted(Integer concertId) {
+        afterCommit(() -> apply(concertId, null));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            // First read will retry; the application must still start without the view
+            log.warn("Could not build upcoming concerts view at startup: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        snapshot = load();
+        log.info("Rebuilt upcoming concerts view: {} concerts in {} ms", snapshot.concerts().length,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reloads the view from the table. When that changes it, the concert collection version moves,
+     * so cached upcoming pages and their ETags follow within one refresh interval.
+     */
+    @Scheduled(fixedDelayString = "${concerts.upcoming.refresh-ms:60000}",
+            initialDelayString = "${concerts.upcoming.refresh-ms:60000}")
+    public synchronized void refresh() {
+        Snapshot before = snapshot;
+        Snapshot after = load();
+        snapshot = after;
+        if (before != null && !Arrays.equals(before.concerts(), after.concerts())) {
+            log.info("Upcoming concerts changed elsewhere: {} -> {} concerts", before.concerts().length, after.concerts().length);
+            entityVersions.touch(EntityVersions.Kind.CONCERT, null);
+        }
+    }
+
+    private Snapshot load() {
+        LocalDate today = LocalDate.now();
+        LocalDate to = today.plusYears(1);
+        UpcomingConcert[] concerts = concertRepository.findByDateBetween(today, to, Pageable.unpaged()).stream()
+                .map(UpcomingConcertsView::toEntry)
+                .sorted(ORDER)
+                .toArray(UpcomingConcert[]::new);
+        return new Snapshot(today, to, concerts);
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        // Covers a missed midnight run and a failed warm-up
+        return isStale(s) ? rebuildIfStale() : s;
+    }
+
+    // Readers that all see the old day at midnight queue up here; only the first one rebuilds
+    private synchronized Snapshot rebuildIfStale() {
+        if (isStale(snapshot)) {
+            rebuild();
+        }
+        return snapshot;
+    }
+
+    private static boolean isStale(Snapshot s) {
+        return s == null || !s.from().equals(LocalDate.now());
+    }
+
+    private synchronized void apply(Integer id, UpcomingConcert replacement) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            return;
+        }
+        List<UpcomingConcert> next = new ArrayList<>(s.concerts().length + 1);
+        for (UpcomingConcert c : s.concerts()) {
+            if (!c.id().equals(id)) {
+                next.add(c);
+            }
+        }
+        UpcomingConcert[] concerts = next.toArray(UpcomingConcert[]::new);
+        if (replacement != null && !replacement.date().isBefore(s.from()) && !replacement.date().isAfter(s.to())) {
+            int pos = Arrays.binarySearch(concerts, replacement, ORDER);
+            int insertAt = pos >= 0 ? pos : -pos - 1;
+            UpcomingConcert[] grown = new UpcomingConcert[concerts.length + 1];
+            System.arraycopy(concerts, 0, grown, 0, insertAt);
+            grown[insertAt] = replacement;
+            System.arraycopy(concerts, insertAt, grown, insertAt + 1, concerts.length - insertAt);
+            concerts = grown;
+        }
+        snapshot = new Snapshot(s.from(), s.to(), concerts);
+    }
+
+    private static List<ConcertResponse> slice(UpcomingConcert[] concerts, int start, int end, Sort.Order order) {
+        List<ConcertResponse> content = new ArrayList<>(end - start);
+        boolean descending = order != null && order.isDescending();
+        for (int i = start; i < end; i++) {
+            UpcomingConcert c = concerts[descending ? concerts.length - 1 - i : i];
+            ConcertResponse resp = new ConcertResponse();
+            resp.setId(c.id());
+            resp.setTitle(c.title());
+            resp.setDate(c.date());
+            resp.setTime(c.time());
+            resp.setHallId(c.hallId());
+            resp.setPerformerId(c.performerId());
+            resp.setTicketPrice(c.ticketPrice());
+            content.add(resp);
+        }
+        return content;
+    }
+
+    private static UpcomingConcert toEntry(Concert concert) {
+        return new UpcomingConcert(concert.getId(), concert.getTitle(), concert.getDate(), concert.getTime(),
+                concert.getHall() != null ? concert.getHall().getId() : null,
+                concert.getPerformer() != null ? concert.getPerformer().getId() : null,
+                concert.getTicketPrice());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -10,6 +10,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.UUID;
@@ -21,12 +24,16 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    @Transactional(readOnly = true)
     public Page<UserResponse> list(String name, String email, Role role, Pageable pageable) {
         Page<User> page = userRepository.findAll(pageable);
         if (name != null && !name.isEmpty()) {
@@ -39,31 +46,42 @@ public class UserService {
         return page.map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
     public UserResponse get(UUID id) {
         return userRepository.findById(id).map(this::toResponse)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "User not found"));
     }
 
+    // Not @Transactional: the hash may wait up to security.password.timeout-ms for the encoder pool,
+    // so it is computed first and only the repository work holds a connection
     public UserResponse create(UserCreateRequest request) {
-        User user = new User();
-        user.setEmail(request.getEmail());
-        user.setName(request.getName());
-        user.setPhone(request.getPhone());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRole(request.getRole() != null ? request.getRole() : Role.CUSTOMER);
-        return toResponse(userRepository.save(user));
+        String password = passwordEncoder.encode(request.getPassword());
+        return transactionTemplate.execute(status -> {
+            User user = new User();
+            user.setEmail(request.getEmail());
+            user.setName(request.getName());
+            user.setPhone(request.getPhone());
+            user.setPassword(password);
+            user.setRole(request.getRole() != null ? request.getRole() : Role.CUSTOMER);
+            return toResponse(userRepository.save(user));
+        });
     }
 
+    // Hashes before the transaction, as in create
     public UserResponse update(UUID id, UserUpdateRequest request) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "User not found"));
-        if (request.getName() != null) user.setName(request.getName());
-        if (request.getPhone() != null) user.setPhone(request.getPhone());
-        if (request.getRole() != null) user.setRole(request.getRole());
-        if (request.getPassword() != null) user.setPassword(passwordEncoder.encode(request.getPassword()));
-        return toResponse(userRepository.save(user));
+        String password = request.getPassword() != null ? passwordEncoder.encode(request.getPassword()) : null;
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "User not found"));
+            if (request.getName() != null) user.setName(request.getName());
+            if (request.getPhone() != null) user.setPhone(request.getPhone());
+            if (request.getRole() != null) user.setRole(request.getRole());
+            if (password != null) user.setPassword(password);
+            return toResponse(userRepository.save(user));
+        });
     }
 
+    @Transactional
     public void delete(UUID id) {
         if (!userRepository.existsById(id)) {
             throw new ResponseStatusException(NOT_FOUND, "User not found");
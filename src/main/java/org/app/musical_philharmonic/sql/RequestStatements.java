@@ -0,0 +1,44 @@
+package org.app.musical_philharmonic.sql;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Hibernate statements issued, and the time they took to execute, on the thread serving one HTTP
+ * request. Only the request thread is tracked; work handed to other threads is not counted.
+ */
+final class RequestStatements {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final HttpServletRequest request;
+    int statements;
+    long nanos;
+
+    private RequestStatements(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    static RequestStatements begin(HttpServletRequest request) {
+        RequestStatements statements = new RequestStatements(request);
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    static RequestStatements current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Method and mapping pattern, e.g. {@code GET /api/concerts/{id}}; null until the request has
+     * been mapped to a handler, and for requests no handler takes.
+     */
+    String endpoint() {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? request.getMethod() + " " + pattern : null;
+    }
+}
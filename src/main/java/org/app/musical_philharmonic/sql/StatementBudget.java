@@ -0,0 +1,20 @@
+package org.app.musical_philharmonic.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most Hibernate statements one request to the annotated handler (or every handler of the
+ * annotated controller) may issue, replacing {@code sql.statements.budget}. See
+ * {@link StatementBudgetFilter}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface StatementBudget {
+
+    int value();
+}
@@ -0,0 +1,99 @@
+package org.app.musical_philharmonic.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the Hibernate statements of every request (see {@link StatementMonitor}), security
+ * filters included, and records them per endpoint as {@code sql.request.statements} and
+ * {@code sql.request.time}. A request issuing more than its budget, {@code sql.statements.budget}
+ * or the handler's {@link StatementBudget}, is usually an N+1: lazy associations loaded one row at
+ * a time. It is logged, or, with {@code sql.statements.fail-over-budget} (on in the test build),
+ * fails with {@link StatementBudgetExceededException} so the test that made it fails.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+    private final int budget;
+    private final boolean failOverBudget;
+    private final MeterRegistry meterRegistry;
+
+    public StatementBudgetFilter(@Value("${sql.statements.budget:25}") int budget,
+                                 @Value("${sql.statements.fail-over-budget:false}") boolean failOverBudget,
+                                 MeterRegistry meterRegistry) {
+        this.budget = budget;
+        this.failOverBudget = failOverBudget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatements statements = RequestStatements.begin(request);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestStatements.end();
+        }
+        String endpoint = statements.endpoint();
+        if (endpoint == null) {
+            return;
+        }
+        DistributionSummary.builder("sql.request.statements").tag("endpoint", endpoint)
+                .register(meterRegistry).record(statements.statements);
+        Timer.builder("sql.request.time").tag("endpoint", endpoint)
+                .register(meterRegistry).record(statements.nanos, TimeUnit.NANOSECONDS);
+
+        int limit = budget(request);
+        if (statements.statements > limit) {
+            Counter.builder("sql.request.over.budget").tag("endpoint", endpoint).register(meterRegistry).increment();
+            String message = "%s issued %d statements, over its budget of %d; likely lazy loads one row at a time"
+                    .formatted(endpoint, statements.statements, limit);
+            if (failOverBudget) {
+                throw new StatementBudgetExceededException(message);
+            }
+            log.warn(message);
+        }
+    }
+
+    private int budget(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            StatementBudget annotation = handler.getMethodAnnotation(StatementBudget.class);
+            if (annotation == null) {
+                annotation = handler.getBeanType().getAnnotation(StatementBudget.class);
+            }
+            if (annotation != null) {
+                return annotation.value();
+            }
+        }
+        return budget;
+    }
+
+    public static class StatementBudgetExceededException extends IllegalStateException {
+
+        public StatementBudgetExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.app.musical_philharmonic.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.hibernate.SessionEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Sees every statement Hibernate prepares ({@link StatementInspector}) and how long each took to
+ * execute (a {@link TimingListener} in every session). Statements are counted against the current
+ * request, if any (see {@link StatementBudgetFilter}), and those slower than {@code sql.slow-ms}
+ * are logged with the endpoint that issued them. Within a sampled trace every execution is also a
+ * span carrying the statement. Bound values never appear in the text, which has {@code ?} in their
+ * place; string literals written into the SQL are replaced by {@code ?} too. Statements run
+ * through JdbcTemplate bypass Hibernate and are not seen.
+ */
+@Component
+public class StatementMonitor implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementMonitor.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    // Hibernate creates the session listeners itself; they report back through this
+    private static volatile StatementMonitor instance;
+
+    private final ThreadLocal<String> lastStatement = new ThreadLocal<>();
+    private final long slowNanos;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+
+    public StatementMonitor(@Value("${sql.slow-ms:200}") long slowMs, MeterRegistry meterRegistry,
+                            ObjectProvider<Tracer> tracer) {
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMs);
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+        instance = this;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, TimingListener.class.getName());
+    }
+
+    @Override
+    public String inspect(String sql) {
+        lastStatement.set(sql);
+        RequestStatements request = RequestStatements.current();
+        if (request != null) {
+            request.statements++;
+        }
+        return sql;
+    }
+
+    private void executed(long nanos) {
+        RequestStatements request = RequestStatements.current();
+        String endpoint = null;
+        if (request != null) {
+            request.nanos += nanos;
+            endpoint = request.endpoint();
+        }
+        if (nanos >= slowNanos) {
+            endpoint = endpoint != null ? endpoint : "none";
+            Counter.builder("sql.statements.slow").tag("endpoint", endpoint).register(meterRegistry).increment();
+            log.warn("Slow statement ({} ms, {}): {}", TimeUnit.NANOSECONDS.toMillis(nanos), endpoint,
+                    redact(lastStatement.get()));
+        }
+    }
+
+    // Null outside a sampled trace, so unsampled requests pay one context lookup per statement
+    private Span startSpan() {
+        Span parent = tracer.currentSpan();
+        if (parent == null || !Boolean.TRUE.equals(parent.context().sampled())) {
+            return null;
+        }
+        String sql = redact(lastStatement.get());
+        int verb = sql.indexOf(' ');
+        return tracer.spanBuilder()
+                .setParent(parent.context())
+                .name(verb > 0 ? sql.substring(0, verb).toLowerCase() : "sql")
+                .kind(Span.Kind.CLIENT)
+                .remoteServiceName("postgresql")
+                .tag("db.system", "postgresql")
+                .tag("db.statement", sql)
+                .start();
+    }
+
+    static String redact(String sql) {
+        return sql == null ? "?" : STRING_LITERAL.matcher(sql).replaceAll("?");
+    }
+
+    /**
+     * Times statement and batch executions of one session. Registered by class name, so Hibernate
+     * makes a new one for every session; sessions are single-threaded.
+     */
+    public static class TimingListener implements SessionEventListener {
+
+        private long start;
+        private Span span;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            begin();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            report();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            begin();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            report();
+        }
+
+        private void begin() {
+            StatementMonitor monitor = instance;
+            span = monitor != null ? monitor.startSpan() : null;
+            start = System.nanoTime();
+        }
+
+        private void report() {
+            long nanos = System.nanoTime() - start;
+            if (span != null) {
+                span.end();
+                span = null;
+            }
+            StatementMonitor monitor = instance;
+            if (monitor != null) {
+                monitor.executed(nanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+-- Schema as Hibernate generated it with ddl-auto=update before Flyway took over the DDL.
+-- Databases created that way are baselined at version 1 and skip this script.
+
+create table concerts (
+    date date not null,
+    hall_id integer not null,
+    id integer generated by default as identity,
+    performer_id integer not null,
+    ticket_price numeric(10,2) not null,
+    time time(0) not null,
+    title varchar(150) not null,
+    primary key (id)
+);
+
+create table halls (
+    capacity integer not null,
+    id integer generated by default as identity,
+    seats_per_row integer,
+    location varchar(100),
+    name varchar(100) not null,
+    primary key (id)
+);
+
+create table idempotency_keys (
+    created_at timestamp(6) not null,
+    id varchar(64) not null,
+    request_hash varchar(64) not null,
+    response_body text not null,
+    primary key (id)
+);
+
+create table performers (
+    id integer generated by default as identity,
+    name varchar(150) not null,
+    primary key (id)
+);
+
+create table sales_facts (
+    amount numeric(10,2) not null,
+    concert_date date not null,
+    concert_id integer not null,
+    hall_id integer not null,
+    performer_id integer not null,
+    quantity integer not null,
+    sale_date date not null,
+    ticket_id integer not null,
+    id bigint generated by default as identity,
+    occurred_at timestamp(6) not null,
+    kind varchar(10) not null check ((kind in ('SALE','RETURN'))),
+    seat_number varchar(10),
+    buyer_id uuid,
+    payment_method varchar(20),
+    concert_title varchar(150) not null,
+    buyer_email varchar(255),
+    primary key (id)
+);
+
+create table sales_rollups (
+    concert_id integer not null,
+    hall_id integer not null,
+    revenue numeric(14,2) not null,
+    bucket_start timestamp(6) not null,
+    id bigint generated by default as identity,
+    tickets bigint not null,
+    granularity varchar(10) not null check ((granularity in ('MINUTE','HOUR','DAY'))),
+    payment_method varchar(20) not null,
+    primary key (id),
+    constraint uk_sales_rollups_bucket unique (granularity, bucket_start, concert_id, hall_id, payment_method)
+);
+
+create table tickets (
+    concert_id integer not null,
+    id integer generated by default as identity,
+    purchase_timestamp timestamp(6) not null,
+    reservation_expiration timestamp(6),
+    return_time timestamp(6),
+    seat_number varchar(10) not null,
+    buyer_id uuid,
+    payment_method varchar(20),
+    status varchar(20) not null check ((status in ('AVAILABLE','RESERVED','SOLD'))),
+    return_reason varchar(255),
+    primary key (id)
+);
+
+create table user_sessions (
+    login_time timestamp(6) not null,
+    logout_time timestamp(6),
+    id uuid not null,
+    user_id uuid not null,
+    primary key (id)
+);
+
+create table users (
+    created_at timestamp(6) not null,
+    id uuid not null,
+    phone varchar(20),
+    role varchar(20) not null check ((role in ('ADMIN','CASHIER','CUSTOMER'))),
+    email varchar(255) not null unique,
+    name varchar(255),
+    password varchar(255) not null,
+    primary key (id)
+);
+
+create index idx_sales_facts_occurred_at on sales_facts (occurred_at);
+
+create index idx_sales_facts_concert_occurred_at on sales_facts (concert_id, occurred_at);
+
+create index idx_sales_facts_ticket on sales_facts (ticket_id);
+
+create index idx_tickets_concert_seat on tickets (concert_id, seat_number);
+
+alter table concerts add constraint FKiyu5yxrfwt3x80hkhl0kuj73g foreign key (hall_id) references halls;
+
+alter table concerts add constraint FK36haf2wf4mo9r38df99vvqhw7 foreign key (performer_id) references performers;
+
+alter table tickets add constraint FKprr7809lfbwkgc85qxprbwf7j foreign key (buyer_id) references users;
+
+alter table tickets add constraint FK4q17sxdjiod86pwe2pl0ihfnf foreign key (concert_id) references concerts;
+
+alter table user_sessions add constraint FK8klxsgb8dcjjklmqebqp1twd5 foreign key (user_id) references users;
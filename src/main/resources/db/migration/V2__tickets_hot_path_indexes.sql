@@ -0,0 +1,23 @@
+-- Indexes for the Tickets hot paths. CONCURRENTLY keeps the table writable while they build,
+-- so Flyway runs this script outside a transaction.
+
+-- Booking capacity check: countReservedOrSoldByConcert
+create index concurrently if not exists idx_tickets_concert_taken
+    on tickets (concert_id) where status in ('RESERVED', 'SOLD');
+
+-- Per-concert listings and counts by status: findByConcertIdAndStatus, countSoldByConcert,
+-- countAvailableByConcert, findSeatsByConcertAndStatusIn
+create index concurrently if not exists idx_tickets_concert_status
+    on tickets (concert_id, status);
+
+-- Reservation expiry sweep and lease reload: findExpiredReservations, HoldManager
+create index concurrently if not exists idx_tickets_reservation_expiration
+    on tickets (reservation_expiration) where status = 'RESERVED';
+
+-- "My tickets": findByBuyerId; also backs the buyer foreign key
+create index concurrently if not exists idx_tickets_buyer
+    on tickets (buyer_id) where buyer_id is not null;
+
+-- Sales history by time range: findByPurchaseTimestampBetween
+create index concurrently if not exists idx_tickets_purchase_timestamp
+    on tickets (purchase_timestamp);
@@ -0,0 +1,11 @@
+-- Indexes found missing by the repository plan suite (RepositoryPlanRegressionTest).
+-- CONCURRENTLY keeps the tables writable while they build, so Flyway runs this script outside a transaction.
+
+-- Login history: findByUserIdOrderByLoginTimeDesc; also backs the user foreign key
+-- and the join in findCompletedSessionsByRole
+create index concurrently if not exists idx_user_sessions_user_login
+    on user_sessions (user_id, login_time desc);
+
+-- Staff listings: findByRole for ADMIN and CASHIER, findCompletedSessionsByRole
+create index concurrently if not exists idx_users_role
+    on users (role);
@@ -0,0 +1,82 @@
+-- Range-partitions tickets by the concert's date, one partition per month. Live queries name the
+-- concert's date and prune to a single month, so past seasons stop weighing on on-sale indexes
+-- and can be detached and archived whole (see TicketPartitions).
+-- concert_date is copied from concerts.date; a partitioned table's primary key must include it.
+
+-- Creates the month partition that holds the given date if it is missing; returns its name.
+-- Called ahead of time by the application and when a concert is scheduled or moved.
+create function ensure_tickets_partition(day date) returns text
+    language plpgsql as $$
+declare
+    month_start date := date_trunc('month', day)::date;
+    partition_name text := 'tickets_p' || to_char(month_start, 'YYYY_MM');
+begin
+    execute format('create table if not exists %I partition of tickets for values from (%L) to (%L)',
+                   partition_name, month_start, (month_start + interval '1 month')::date);
+    return partition_name;
+end
+$$;
+
+alter table tickets rename to tickets_unpartitioned;
+alter index tickets_pkey rename to tickets_unpartitioned_pkey;
+alter table tickets_unpartitioned alter column id drop identity if exists;
+drop sequence if exists tickets_id_seq cascade;
+
+-- Identity columns on partitioned tables need PostgreSQL 17; a plain sequence works everywhere
+create sequence tickets_id_seq as integer;
+
+create table tickets (
+    concert_id integer not null,
+    id integer not null default nextval('tickets_id_seq'),
+    purchase_timestamp timestamp(6) not null,
+    reservation_expiration timestamp(6),
+    return_time timestamp(6),
+    seat_number varchar(10) not null,
+    buyer_id uuid,
+    payment_method varchar(20),
+    status varchar(20) not null check ((status in ('AVAILABLE','RESERVED','SOLD'))),
+    return_reason varchar(255),
+    concert_date date not null,
+    primary key (id, concert_date)
+) partition by range (concert_date);
+
+alter sequence tickets_id_seq owned by tickets.id;
+
+-- Every month with a concert, and a year ahead of today
+select ensure_tickets_partition(month::date)
+from generate_series(
+        (select date_trunc('month', least(coalesce(min(date), current_date), current_date)) from concerts),
+        (select date_trunc('month', greatest(coalesce(max(date), current_date), current_date)) from concerts)
+            + interval '12 months',
+        interval '1 month') month;
+
+insert into tickets (concert_id, id, purchase_timestamp, reservation_expiration, return_time, seat_number,
+                     buyer_id, payment_method, status, return_reason, concert_date)
+select t.concert_id, t.id, t.purchase_timestamp, t.reservation_expiration, t.return_time, t.seat_number,
+       t.buyer_id, t.payment_method, t.status, t.return_reason, c.date
+from tickets_unpartitioned t
+join concerts c on c.id = t.concert_id;
+
+select setval('tickets_id_seq', coalesce(max(id), 0) + 1, false) from tickets;
+
+drop table tickets_unpartitioned;
+
+alter table tickets add constraint FKprr7809lfbwkgc85qxprbwf7j foreign key (buyer_id) references users;
+
+alter table tickets add constraint FK4q17sxdjiod86pwe2pl0ihfnf foreign key (concert_id) references concerts;
+
+-- Same indexes as before, now per partition. A partitioned parent cannot be indexed CONCURRENTLY,
+-- but every partition here is new and only reachable inside this transaction.
+create index idx_tickets_concert_seat on tickets (concert_id, seat_number);
+
+create index idx_tickets_concert_taken on tickets (concert_id) where status in ('RESERVED', 'SOLD');
+
+create index idx_tickets_concert_status on tickets (concert_id, status);
+
+create index idx_tickets_reservation_expiration on tickets (reservation_expiration) where status = 'RESERVED';
+
+create index idx_tickets_buyer on tickets (buyer_id) where buyer_id is not null;
+
+create index idx_tickets_purchase_timestamp on tickets (purchase_timestamp);
+
+analyze tickets;
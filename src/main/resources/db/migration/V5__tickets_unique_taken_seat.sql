@@ -0,0 +1,48 @@
+-- Backstop for the in-memory seat maps (SeatInventory): a seat can be held or sold by one ticket
+-- at a time, so a map that drifted from the table fails the insert instead of selling a seat twice.
+-- Dance-floor tickets all share the "N/A" placeholder and are left out.
+
+-- Until now the API stored a client's seatNumber on dance-floor tickets (halls without seats_per_row),
+-- repeated once per ticket of a multi-ticket booking. Those labels name no seat: fold the ones that
+-- collide into the placeholder, as new dance-floor tickets get it.
+update tickets t
+set seat_number = 'N/A'
+from concerts c
+join halls h on h.id = c.hall_id
+where t.concert_id = c.id
+  and h.seats_per_row is null
+  and t.status in ('RESERVED', 'SOLD')
+  and t.seat_number <> 'N/A'
+  and exists (select 1 from tickets d
+              where d.concert_id = t.concert_id and d.concert_date = t.concert_date
+                and d.seat_number = t.seat_number and d.status in ('RESERVED', 'SOLD') and d.id <> t.id);
+
+-- A real seat held or sold twice is a double sale; it needs a person, not a migration. Stop with the
+-- first one named instead of failing inside the index build.
+do $$
+declare
+    dup record;
+    total bigint;
+begin
+    select concert_id, concert_date, seat_number, count(*) as tickets into dup
+    from tickets
+    where status in ('RESERVED', 'SOLD') and seat_number <> 'N/A'
+    group by concert_id, concert_date, seat_number
+    having count(*) > 1
+    limit 1;
+    if found then
+        select count(*) into total from (
+            select 1 from tickets
+            where status in ('RESERVED', 'SOLD') and seat_number <> 'N/A'
+            group by concert_id, concert_date, seat_number
+            having count(*) > 1) d;
+        raise exception 'V5: % seats are taken by more than one ticket, e.g. seat % of concert % (%) by % tickets; '
+                        'return or reseat the extra tickets, then rerun the migration',
+            total, dup.seat_number, dup.concert_id, dup.concert_date, dup.tickets;
+    end if;
+end $$;
+
+-- A partitioned parent cannot be indexed CONCURRENTLY; the build locks tickets against writes.
+create unique index if not exists uq_tickets_taken_seat
+    on tickets (concert_id, concert_date, seat_number)
+    where status in ('RESERVED', 'SOLD') and seat_number <> 'N/A';
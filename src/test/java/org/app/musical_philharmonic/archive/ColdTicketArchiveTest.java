@@ -0,0 +1,63 @@
+package org.app.musical_philharmonic.archive;
+
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ColdTicketArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private final TicketPartitions partitions = mock(TicketPartitions.class);
+
+    @Test
+    void refusesToArchiveWithoutAnExplicitAbsoluteDirectory() throws IOException {
+        String relative = Path.of("").toAbsolutePath().relativize(dir).toString();
+        for (String directory : new String[]{"", relative}) {
+            ColdTicketArchive archive = archive(directory);
+
+            assertThrows(IllegalStateException.class, () -> archive.archiveBefore(LocalDate.of(2024, 9, 1)));
+        }
+        verifyNoInteractions(partitions);
+    }
+
+    @Test
+    void picksUpManifestWrittenByAnotherInstance() throws IOException {
+        ColdTicketArchive archive = archive(dir.toString());
+        assertTrue(archive.statusCounts().isEmpty());
+
+        ArchiveManifest.EMPTY.with(entry(1, 40)).save(dir);
+        assertEquals(Map.of(TicketStatus.SOLD, 40L), archive.statusCounts());
+
+        ArchiveManifest.load(dir).with(entry(2, 2)).save(dir);
+        assertEquals(Map.of(TicketStatus.SOLD, 42L), archive.statusCounts());
+    }
+
+    private ColdTicketArchive archive(String directory) throws IOException {
+        ColdTicketArchive archive = new ColdTicketArchive(mock(JdbcTemplate.class), partitions,
+                mock(PlatformTransactionManager.class), directory, 400);
+        archive.start();
+        return archive;
+    }
+
+    private static ArchiveManifest.Entry entry(long oid, long sold) {
+        return new ArchiveManifest.Entry("tickets_p2024_0" + oid + "-" + oid + ".ptc", "tickets_p2024_0" + oid,
+                YearMonth.of(2024, (int) oid), oid, (int) sold, 100, Map.of(TicketStatus.SOLD, sold), Instant.now());
+    }
+}
@@ -0,0 +1,99 @@
+package org.app.musical_philharmonic.archive;
+
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketColumnFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsEveryColumnIncludingNulls() throws IOException {
+        List<ArchivedTicket> tickets = month(3, 500);
+        Path file = write(tickets);
+
+        try (TicketColumnFile.Reader reader = new TicketColumnFile.Reader(file)) {
+            assertEquals(tickets.size(), reader.rows());
+            assertEquals(tickets, reader.tickets());
+        }
+    }
+
+    @Test
+    void readsSingleColumnsAndCompressesWell() throws IOException {
+        List<ArchivedTicket> tickets = month(40, 500);
+        Path file = write(tickets);
+
+        try (TicketColumnFile.Reader reader = new TicketColumnFile.Reader(file)) {
+            assertArrayEquals(tickets.stream().mapToInt(ArchivedTicket::concertId).toArray(),
+                    reader.ints(TicketColumnFile.CONCERT_ID));
+            assertArrayEquals(tickets.stream().map(t -> t.status().name()).toArray(String[]::new),
+                    reader.strings(TicketColumnFile.STATUS));
+        }
+        // Well under 10 bytes a ticket, against roughly 150 for a heap row
+        assertTrue(Files.size(file) < tickets.size() * 10L, "file is " + Files.size(file) + " bytes");
+    }
+
+    @Test
+    void rejectsCorruptColumn() throws IOException {
+        Path file = write(month(2, 100));
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(raw.length() - 5);
+            raw.write(raw.read() ^ 0xFF);
+        }
+
+        try (TicketColumnFile.Reader reader = new TicketColumnFile.Reader(file)) {
+            assertThrows(IOException.class, () -> reader.strings(TicketColumnFile.RETURN_REASON));
+        }
+    }
+
+    private Path write(List<ArchivedTicket> tickets) throws IOException {
+        TicketColumnFile.Writer writer = new TicketColumnFile.Writer();
+        for (ArchivedTicket ticket : tickets) {
+            writer.add(ticket);
+        }
+        Path file = dir.resolve("tickets.ptc");
+        writer.writeTo(file);
+        return file;
+    }
+
+    // Concerts of one month with a full house each, as the seat-map generator lays them out
+    private static List<ArchivedTicket> month(int concerts, int seats) {
+        List<ArchivedTicket> tickets = new ArrayList<>();
+        UUID buyer = UUID.randomUUID();
+        int id = 10_000;
+        for (int c = 0; c < concerts; c++) {
+            LocalDate date = LocalDate.of(2024, 3, 1 + c % 28);
+            LocalDateTime created = date.atStartOfDay().minusDays(60);
+            for (int s = 0; s < seats; s++) {
+                boolean sold = s % 10 < 8;
+                boolean returned = s % 97 == 0;
+                tickets.add(new ArchivedTicket(id++, 700 + c, date, (char) ('A' + s / 25) + String.valueOf(s % 25 + 1),
+                        sold ? TicketStatus.SOLD : TicketStatus.AVAILABLE,
+                        sold ? buyer : null,
+                        created.plusMinutes(s).plusNanos(s * 1000L),
+                        null,
+                        returned ? created.plusDays(3) : null,
+                        sold ? "CARD" : null,
+                        returned ? "Ill, cannot attend" : null));
+            }
+        }
+        return tickets;
+    }
+}
@@ -0,0 +1,123 @@
+package org.app.musical_philharmonic.bench;
+
+import org.app.musical_philharmonic.seating.SeatLayout;
+import org.app.musical_philharmonic.seating.SeatMap;
+import org.app.musical_philharmonic.seating.SeatScoring;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-available search on a 5,000-seat hall (100 rows of 50) at 90% occupancy. The hall is
+ * filled with groups of 1-6 seats at random places, which leaves the scattered gaps a popular
+ * concert has. Each op finds and holds a block, then releases it so the map stays at 90%.
+ * {@code fullScan} is the baseline that scores every start position of every row; the
+ * {@code contended} variant runs the ranked search from 16 threads against one shared map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BestAvailableSeatBenchmark {
+
+    @Param({"2", "4"})
+    public int quantity;
+
+    private SeatMap map;
+    private SeatScoring scoring;
+
+    @Setup
+    public void setUp() {
+        SeatLayout layout = new SeatLayout(5_000, 50);
+        map = new SeatMap(layout);
+        scoring = map.scoring();
+        Random random = new Random(42);
+        int target = layout.capacity() * 9 / 10;
+        while (layout.capacity() - map.free() < target) {
+            int size = 1 + random.nextInt(6);
+            int row = random.nextInt(layout.rows());
+            int start = random.nextInt(layout.seatsPerRow() - size + 1);
+            int[] seats = new int[size];
+            for (int i = 0; i < size; i++) {
+                seats[i] = row * layout.seatsPerRow() + start + i;
+            }
+            map.hold(seats);
+        }
+    }
+
+    @Benchmark
+    public int ranked() {
+        return holdAndRelease(map.holdBlock(quantity));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int contended() {
+        return holdAndRelease(map.holdBlock(quantity));
+    }
+
+    @Benchmark
+    public int fullScan() {
+        SeatLayout layout = map.layout();
+        int best = -1;
+        double bestCost = Double.MAX_VALUE;
+        synchronized (map) {
+            for (int row = 0; row < layout.rows(); row++) {
+                int first = row * layout.seatsPerRow();
+                for (int start = 0; start + quantity <= layout.seatsInRow(row); start++) {
+                    boolean fits = true;
+                    for (int i = 0; i < quantity && fits; i++) {
+                        fits = map.state(first + start + i) == SeatMap.State.FREE;
+                    }
+                    double cost = fits ? scoring.blockCost(row, start, quantity) : Double.MAX_VALUE;
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        best = first + start;
+                    }
+                }
+            }
+            if (best >= 0 && !map.hold(block(best))) {
+                best = -1;
+            }
+        }
+        return holdAndRelease(best);
+    }
+
+    private int holdAndRelease(int first) {
+        if (first >= 0) {
+            map.release(block(first));
+        }
+        return first;
+    }
+
+    private int[] block(int first) {
+        int[] seats = new int[quantity];
+        for (int i = 0; i < quantity; i++) {
+            seats[i] = first + i;
+        }
+        return seats;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BestAvailableSeatBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,142 @@
+package org.app.musical_philharmonic.bench;
+
+import org.app.musical_philharmonic.MusicalPhilharmonicApplication;
+import org.app.musical_philharmonic.dto.ConcertRequest;
+import org.app.musical_philharmonic.dto.HallRequest;
+import org.app.musical_philharmonic.dto.PerformerRequest;
+import org.app.musical_philharmonic.dto.UserCreateRequest;
+import org.app.musical_philharmonic.service.ConcertService;
+import org.app.musical_philharmonic.service.HallService;
+import org.app.musical_philharmonic.service.PerformerService;
+import org.app.musical_philharmonic.service.TicketService;
+import org.app.musical_philharmonic.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@code TicketService.book} (two tickets on a dance-floor concert, from 8 threads)
+ * with the default configuration against the {@code prod} profile: pool sizing, driver statement
+ * caching, no SQL echo. Runs the whole application against the database in {@code DB_URL} (the
+ * dev database by default); the benchmark's hall, concert and customer are created at setup and
+ * removed again, and its tickets are deleted after every iteration so the capacity check counts
+ * the same rows throughout. Standard output goes to a temp file, as a container's would, so the
+ * SQL echo of the default profile costs what it costs in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 6, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class BookingPathBenchmark {
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private PrintStream stdout;
+    private Path stdoutFile;
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+    private JdbcTemplate jdbcTemplate;
+    private int hallId;
+    private int performerId;
+    private int concertId;
+    private UUID buyerId;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        stdout = System.out;
+        stdoutFile = Files.createTempFile("booking-bench-" + profile, ".log");
+        System.setOut(new PrintStream(new FileOutputStream(stdoutFile.toFile()), true));
+
+        Path data = Files.createTempDirectory("booking-bench");
+        context = new SpringApplicationBuilder(MusicalPhilharmonicApplication.class)
+                .profiles(profile.equals("default") ? new String[0] : new String[]{profile})
+                .properties("server.port=0",
+                        "management.server.port=0",
+                        "journal.dir=" + data.resolve("journal"),
+                        "tickets.archive.dir=" + data.resolve("archive"))
+                .run();
+        ticketService = context.getBean(TicketService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        HallRequest hall = new HallRequest();
+        hall.setName("Booking benchmark hall");
+        hall.setCapacity(Integer.MAX_VALUE);
+        hallId = context.getBean(HallService.class).create(hall).getId();
+        PerformerRequest performer = new PerformerRequest();
+        performer.setName("Booking benchmark performer");
+        performerId = context.getBean(PerformerService.class).create(performer).getId();
+        ConcertRequest concert = new ConcertRequest();
+        concert.setTitle("Booking benchmark");
+        concert.setDate(LocalDate.now().plusDays(30));
+        concert.setTime(LocalTime.of(19, 0));
+        concert.setHallId(hallId);
+        concert.setPerformerId(performerId);
+        concert.setTicketPrice(new BigDecimal("1500.00"));
+        concertId = context.getBean(ConcertService.class).create(concert).getId();
+        UserCreateRequest user = new UserCreateRequest();
+        user.setEmail("booking-bench-" + UUID.randomUUID() + "@example.com");
+        user.setName("Booking benchmark");
+        user.setPassword(UUID.randomUUID().toString());
+        buyerId = context.getBean(UserService.class).create(user).getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteTickets() {
+        jdbcTemplate.update("delete from tickets where concert_id = ?", concertId);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        jdbcTemplate.update("delete from concerts where id = ?", concertId);
+        jdbcTemplate.update("delete from performers where id = ?", performerId);
+        jdbcTemplate.update("delete from halls where id = ?", hallId);
+        jdbcTemplate.update("delete from users where id = ?", buyerId);
+        context.close();
+        System.setOut(stdout);
+        System.out.println("Standard output of the " + profile + " run: " + stdoutFile);
+    }
+
+    @Benchmark
+    public List<?> book() {
+        return ticketService.book(concertId, null, buyerId, null, "bench", 2);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookingPathBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
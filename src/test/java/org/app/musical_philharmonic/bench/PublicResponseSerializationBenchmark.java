@@ -0,0 +1,89 @@
+package org.app.musical_philharmonic.bench;
+
+import org.app.musical_philharmonic.dto.ConcertResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of writing a page of 20 concerts: Jackson serialization (what a cache miss or
+ * a plain controller does) versus copying the pre-encoded bytes held by ReadCache.
+ * Run with {@code main}; the GC profiler reports gc.alloc.rate.norm, i.e. bytes allocated per op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicResponseSerializationBenchmark {
+
+    private JsonMapper mapper;
+    private List<ConcertResponse> page;
+    private byte[] encoded;
+    private ByteArrayOutputStream sink;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder().build();
+        page = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ConcertResponse c = new ConcertResponse();
+            c.setId(i);
+            c.setTitle("Symphony evening no. " + i);
+            c.setDate(LocalDate.of(2026, 11, 1).plusDays(i));
+            c.setTime(LocalTime.of(19, 30));
+            c.setHallId(1 + i % 3);
+            c.setPerformerId(1 + i % 7);
+            c.setTicketPrice(new BigDecimal("1500.00"));
+            page.add(c);
+        }
+        encoded = mapper.writeValueAsBytes(page);
+        // Reused and reset per op so neither variant pays for growing the buffer
+        sink = new ByteArrayOutputStream(encoded.length * 2);
+    }
+
+    @Benchmark
+    public int jacksonSerialize() {
+        sink.reset();
+        mapper.writeValue(sink, page);
+        return sink.size();
+    }
+
+    @Benchmark
+    public int cachedBytes() throws IOException {
+        sink.reset();
+        OutputStream out = sink;
+        out.write(encoded);
+        return sink.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PublicResponseSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,39 @@
+package org.app.musical_philharmonic.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class EntityVersionsTest {
+
+    @Test
+    void writesMoveTheEntityAndItsCollection() {
+        EntityVersions versions = new EntityVersions();
+        EntityVersions.Version concert = versions.of(EntityVersions.Kind.CONCERT, 1);
+        EntityVersions.Version hall = versions.of(EntityVersions.Kind.HALL, 1);
+
+        versions.touch(EntityVersions.Kind.CONCERT, 1);
+
+        assertNotEquals(concert, versions.of(EntityVersions.Kind.CONCERT, 1));
+        assertEquals(versions.of(EntityVersions.Kind.CONCERT, 1), versions.ofCollection(EntityVersions.Kind.CONCERT));
+        assertEquals(concert, versions.of(EntityVersions.Kind.CONCERT, 2));
+        assertEquals(hall, versions.of(EntityVersions.Kind.HALL, 1));
+    }
+
+    @Test
+    void expiryRetiresEveryVersionHandedOut() {
+        EntityVersions versions = new EntityVersions();
+        versions.touch(EntityVersions.Kind.CONCERT, 1);
+        EntityVersions.Version touched = versions.of(EntityVersions.Kind.CONCERT, 1);
+        EntityVersions.Version untouched = versions.of(EntityVersions.Kind.CONCERT, 2);
+        EntityVersions.Version performers = versions.ofCollection(EntityVersions.Kind.PERFORMER);
+
+        versions.expire();
+
+        assertNotEquals(touched, versions.of(EntityVersions.Kind.CONCERT, 1));
+        assertNotEquals(untouched, versions.of(EntityVersions.Kind.CONCERT, 2));
+        assertNotEquals(performers, versions.ofCollection(EntityVersions.Kind.PERFORMER));
+        assertNotEquals(touched.etag("concert:1", null), versions.of(EntityVersions.Kind.CONCERT, 1).etag("concert:1", null));
+    }
+}
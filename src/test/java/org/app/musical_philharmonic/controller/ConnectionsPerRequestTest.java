@@ -0,0 +1,139 @@
+package org.app.musical_philharmonic.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Every service call is one transaction, so a request checks out exactly one connection. Only
+ * checkouts on the test thread are counted, which is where MockMvc runs the request; schedulers
+ * and warm-ups use their own threads.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ConnectionsPerRequestTest.CountingConfig.class)
+class ConnectionsPerRequestTest {
+
+    private static final String PAGE = "{\"page\":0,\"size\":5}";
+    private static final int MISSING = Integer.MAX_VALUE;
+
+    @TestConfiguration
+    static class CountingConfig {
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void adminListsUseOneConnection() throws Exception {
+        assertOneConnection(post("/api/concerts/search").contentType(MediaType.APPLICATION_JSON).content(PAGE), 200);
+        assertOneConnection(post("/api/halls/search").contentType(MediaType.APPLICATION_JSON).content(PAGE), 200);
+        assertOneConnection(post("/api/performers/search").contentType(MediaType.APPLICATION_JSON).content(PAGE), 200);
+        assertOneConnection(post("/api/users/search").contentType(MediaType.APPLICATION_JSON).content(PAGE), 200);
+        assertOneConnection(get("/api/statistics"), 200);
+    }
+
+    // Creates its own hall, performer and concert and removes them again
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void concertLifecycleUsesOneConnectionPerRequest() throws Exception {
+        int hall = id(assertOneConnection(post("/api/halls").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Connection test hall\",\"capacity\":50}"), 200));
+        int performer = id(assertOneConnection(post("/api/performers").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Connection test performer\"}"), 200));
+        int concert = id(assertOneConnection(post("/api/concerts").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"title":"Connection test","date":"%s","time":"19:00","hallId":%d,"performerId":%d,"ticketPrice":10}
+                        """.formatted(LocalDate.now().plusDays(7), hall, performer)), 200));
+        try {
+            assertOneConnection(get("/api/concerts/" + concert), 200);
+            assertOneConnection(get("/api/concerts/" + concert + "/stats"), 200);
+            assertOneConnection(get("/api/concerts/public/" + concert + "/available-tickets"), 200);
+            assertOneConnection(post("/api/customer/concerts/" + concert + "/availability")
+                    .contentType(MediaType.APPLICATION_JSON).content(PAGE), 200);
+        } finally {
+            assertOneConnection(delete("/api/concerts/" + concert), 200);
+            assertOneConnection(delete("/api/performers/" + performer), 204);
+            assertOneConnection(delete("/api/halls/" + hall), 204);
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void lookupsUseOneConnectionEvenWhenNotFound() throws Exception {
+        assertOneConnection(get("/api/concerts/" + MISSING), 404);
+        assertOneConnection(get("/api/concerts/" + MISSING + "/stats"), 404);
+        assertOneConnection(get("/api/tickets/" + MISSING), 404);
+    }
+
+    @Test
+    @WithMockUser(username = "nobody@example.com", roles = "CUSTOMER")
+    void customerResolvesItselfInsideTheServiceTransaction() throws Exception {
+        assertOneConnection(post("/api/customer/tickets/mine").contentType(MediaType.APPLICATION_JSON).content(PAGE), 200);
+        assertOneConnection(post("/api/customer/concerts/" + MISSING + "/availability")
+                .contentType(MediaType.APPLICATION_JSON).content(PAGE), 404);
+    }
+
+    private MockHttpServletResponse assertOneConnection(RequestBuilder request, int status) throws Exception {
+        CountingDataSource counting = (CountingDataSource) dataSource;
+        counting.checkouts.remove();
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        assertEquals(status, response.getStatus(), response.getContentAsString());
+        assertEquals(1, counting.checkouts.get()[0], "connections checked out");
+        return response;
+    }
+
+    private static int id(MockHttpServletResponse response) throws Exception {
+        return JsonPath.read(response.getContentAsString(), "$.id");
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        final ThreadLocal<int[]> checkouts = ThreadLocal.withInitial(() -> new int[1]);
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            checkouts.get()[0]++;
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.app.musical_philharmonic.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketEventJournalTest {
+
+    // Roughly 20,000 records fill a 1 MB segment
+    private static final int EVENTS = 120_000;
+
+    @TempDir
+    private Path directory;
+
+    private TicketEventJournal journal;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (journal != null) {
+            journal.stop();
+        }
+    }
+
+    @Test
+    void fullQueueSlowsPublishersDownInsteadOfDroppingEvents() throws Exception {
+        journal = journal(16);
+        for (int i = 0; i < 5_000; i++) {
+            journal.publish(event(TicketEventType.UPDATED, i));
+        }
+        journal.stop();
+
+        assertEquals(5_000, journal.read(1, 10_000).size());
+    }
+
+    @Test
+    void publishersAppendThemselvesOnceTheWriterIsGone() throws Exception {
+        journal = journal(16);
+        Thread writer = (Thread) ReflectionTestUtils.getField(journal, "writer");
+        writer.interrupt();
+        writer.join(5_000);
+
+        // More than the queue holds: with no writer left these must not wait for room
+        for (int i = 0; i < 100; i++) {
+            journal.publish(event(TicketEventType.UPDATED, i));
+        }
+
+        assertEquals(100, journal.read(1, 1_000).size());
+    }
+
+    @Test
+    void compactionKeepsTheSaleHistoryAndDropsOnlySupersededUpdates() throws Exception {
+        journal = journal(1024);
+        UUID buyer = UUID.randomUUID();
+        journal.publish(event(TicketEventType.BOOKED, 1, buyer, TicketStatus.RESERVED));
+        journal.publish(event(TicketEventType.PURCHASED, 1, buyer, TicketStatus.SOLD));
+        journal.publish(event(TicketEventType.RETURNED, 1, null, TicketStatus.AVAILABLE));
+        // Ticket 2 is edited over and over; the filler rolls the segments
+        for (int i = 0; i < EVENTS; i++) {
+            journal.publish(event(TicketEventType.UPDATED, i % 2 == 0 ? 2 : 1_000 + i));
+        }
+        journal.publish(event(TicketEventType.PURCHASED, 2, buyer, TicketStatus.SOLD));
+        awaitAppended(EVENTS + 4);
+        long segmentsBefore = segments();
+
+        journal.compact();
+
+        assertTrue(segments() < segmentsBefore, "old segments are folded together");
+        List<TicketEventType> first = journal.history(1).stream().map(TicketEvent::type).toList();
+        assertEquals(List.of(TicketEventType.BOOKED, TicketEventType.PURCHASED, TicketEventType.RETURNED), first);
+        List<TicketEvent> second = journal.history(2);
+        assertEquals(TicketEventType.PURCHASED, second.get(second.size() - 1).type());
+        assertTrue(second.size() < EVENTS / 2, "superseded updates of ticket 2 are gone");
+        assertEquals(TicketEventType.UPDATED, second.get(second.size() - 2).type());
+    }
+
+    private TicketEventJournal journal(int queueCapacity) throws Exception {
+        TicketEventJournal journal = new TicketEventJournal(directory.toString(), 1, 10, 1, queueCapacity, true,
+                new SimpleMeterRegistry());
+        journal.start();
+        return journal;
+    }
+
+    private void awaitAppended(int events) throws InterruptedException {
+        for (int i = 0; i < 500 && journal.read(events, 1).isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private long segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static TicketEvent event(TicketEventType type, int ticketId) {
+        return event(type, ticketId, null, TicketStatus.AVAILABLE);
+    }
+
+    private static TicketEvent event(TicketEventType type, int ticketId, UUID buyerId, TicketStatus status) {
+        return new TicketEvent(0, System.currentTimeMillis(), type, ticketId, 7, buyerId, status, "A1", null);
+    }
+}
@@ -0,0 +1,138 @@
+package org.app.musical_philharmonic.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Health is set directly instead of through checkReplicas, which needs real servers (see README)
+class ReplicaRoutingDataSourceTest {
+
+    private final StubDataSource primary = new StubDataSource("primary");
+    private final StubDataSource first = new StubDataSource("replica-1");
+    private final StubDataSource second = new StubDataSource("replica-2");
+    private ReplicaRoutingDataSource.Replica replica1;
+    private ReplicaRoutingDataSource.Replica replica2;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        replica1 = new ReplicaRoutingDataSource.Replica("replica-1", first);
+        replica2 = new ReplicaRoutingDataSource.Replica("replica-2", second);
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), 1_000, new SimpleMeterRegistry());
+        replica1.up(0, 1_000);
+        replica2.up(0, 1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void writesAndPlainReadsStayOnPrimary() throws SQLException {
+        assertEquals(List.of("primary", "primary"), connect(2));
+    }
+
+    @Test
+    void readOnlyTransactionsAlternateBetweenReplicas() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-1", "replica-2"), connect(4));
+    }
+
+    @Test
+    void laggingReplicaIsSkippedUntilItCatchesUp() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        replica2.up(5_000, 1_000);
+
+        assertEquals(List.of("replica-1", "replica-1", "replica-1"), connect(3));
+
+        replica1.up(1_001, 1_000);
+        assertEquals(List.of("primary"), connect(1));
+
+        replica2.up(0, 1_000);
+        assertEquals(List.of("replica-2"), connect(1));
+    }
+
+    @Test
+    void refusedConnectionTakesReplicaOutAndFallsBack() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        first.failing = true;
+        second.failing = true;
+
+        assertEquals(List.of("primary"), connect(1));
+        assertFalse(replica1.usable(1_000));
+        assertFalse(replica2.usable(1_000));
+
+        first.failing = false;
+        assertEquals(List.of("primary"), connect(1));
+    }
+
+    @Test
+    void pinnedReadsUseThePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        List<String> pinned = ReplicaRoutingDataSource.onPrimary(() -> {
+            try {
+                return connect(2);
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        assertEquals(List.of("primary", "primary"), pinned);
+        assertEquals(List.of("replica-1"), connect(1));
+    }
+
+    @Test
+    void explicitCredentialsGoToThePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", routing.getConnection("app", "secret").getCatalog());
+    }
+
+    private List<String> connect(int times) throws SQLException {
+        List<String> targets = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            targets.add(routing.getConnection().getCatalog());
+        }
+        return targets;
+    }
+
+    // Connections answer getCatalog() with the name of the pool they came from
+    private static final class StubDataSource extends AbstractDataSource {
+
+        private final String name;
+        private boolean failing;
+
+        StubDataSource(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failing) {
+                throw new SQLException(name + " is down");
+            }
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> method.getName().equals("getCatalog") ? name : null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.app.musical_philharmonic.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.app.musical_philharmonic.entity.Concert;
+import org.app.musical_philharmonic.entity.Hall;
+import org.app.musical_philharmonic.entity.Performer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The Flyway migrations are PostgreSQL-only; the H2 schema comes from the mapping. The JCache
+// provider is JVM-wide, so the regions are prefixed to keep PostgreSQL-backed test contexts out
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.region_prefix=h2-test"
+})
+// Each step commits on its own so entities actually reach the second-level cache
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ConcertRepository concertRepository;
+
+    @Autowired
+    private HallRepository hallRepository;
+
+    @Autowired
+    private PerformerRepository performerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void bookingCapacityLookupStopsHittingTheDatabaseOnceCached() {
+        Integer concertId = createConcert("Capacity", 500, LocalDate.now().plusDays(3));
+
+        statistics.clear();
+        assertEquals(500, readCapacity(concertId));
+        long coldStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertEquals(500, readCapacity(concertId));
+        long warmStatements = statistics.getPrepareStatementCount();
+
+        // Cold: concert + hall SELECTs; warm: both come from the cache
+        assertEquals(2, coldStatements);
+        assertEquals(0, warmStatements);
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    void hallUpdateInvalidatesCachedCapacity() {
+        Integer concertId = createConcert("Invalidation", 100, LocalDate.now().plusDays(5));
+        assertEquals(100, readCapacity(concertId));
+
+        tx.executeWithoutResult(status -> {
+            Concert concert = concertRepository.findById(concertId).orElseThrow();
+            Hall hall = hallRepository.findById(concert.getHall().getId()).orElseThrow();
+            hall.setCapacity(250);
+        });
+
+        assertEquals(250, readCapacity(concertId));
+    }
+
+    @Test
+    void upcomingQueryIsServedFromQueryCacheUntilConcertsChange() {
+        LocalDate from = LocalDate.now().plusYears(5);
+        LocalDate to = from.plusMonths(1);
+        createConcert("Upcoming A", 50, from.plusDays(1));
+
+        assertEquals(1, countUpcoming(from, to));
+        statistics.clear();
+        assertEquals(1, countUpcoming(from, to));
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        createConcert("Upcoming B", 50, from.plusDays(2));
+        assertEquals(2, countUpcoming(from, to));
+    }
+
+    private int readCapacity(Integer concertId) {
+        return tx.execute(status -> concertRepository.findById(concertId).orElseThrow().getHall().getCapacity());
+    }
+
+    private long countUpcoming(LocalDate from, LocalDate to) {
+        return tx.execute(status -> concertRepository.findByDateBetween(from, to, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    private Integer createConcert(String title, int capacity, LocalDate date) {
+        return tx.execute(status -> {
+            Hall hall = new Hall();
+            hall.setName(title + " hall");
+            hall.setCapacity(capacity);
+            hallRepository.save(hall);
+
+            Performer performer = new Performer();
+            performer.setName(title + " performer");
+            performerRepository.save(performer);
+
+            Concert concert = new Concert();
+            concert.setTitle(title);
+            concert.setDate(date);
+            concert.setTime(LocalTime.of(19, 0));
+            concert.setHall(hall);
+            concert.setPerformer(performer);
+            concert.setTicketPrice(new BigDecimal("1000.00"));
+            return concertRepository.save(concert).getId();
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package org.app.musical_philharmonic.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the Tickets hot-path indexes from V2__tickets_hot_path_indexes.sql against the configured
+ * PostgreSQL after Flyway has migrated it; since V4 they live on every month partition. Each test seeds a season-like distribution (10 concerts
+ * of 5,000 seats, 80% available, 15% sold, 5% reserved, sales spread over a year), analyzes the
+ * table and checks the plan of the SQL Hibernate generates for the repository method. Everything
+ * runs in the test transaction and is rolled back, statistics included.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TicketIndexPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int concertId;
+    private Date concertDate;
+    private UUID buyerId;
+    private List<String[]> partitionIndexes;
+    private List<String> populatedPartitions;
+
+    @BeforeEach
+    void seed() {
+        Integer hallId = jdbcTemplate.queryForObject(
+                "insert into halls (name, capacity) values ('Plan test hall', 5000) returning id", Integer.class);
+        Integer performerId = jdbcTemplate.queryForObject(
+                "insert into performers (name) values ('Plan test performer') returning id", Integer.class);
+        List<Integer> concerts = jdbcTemplate.queryForList("""
+                insert into concerts (title, date, time, hall_id, performer_id, ticket_price)
+                select 'Plan test ' || g, current_date + g, '19:00', ?, ?, 1000
+                from generate_series(1, 10) g
+                returning id
+                """, Integer.class, hallId, performerId);
+        concertId = concerts.get(0);
+        concertDate = jdbcTemplate.queryForObject("select date from concerts where id = ?", Date.class, concertId);
+        jdbcTemplate.update("""
+                insert into users (id, email, password, role, created_at)
+                select gen_random_uuid(), 'plan-test-' || g || '@example.com', 'x', 'CUSTOMER', localtimestamp
+                from generate_series(1, 1000) g
+                """);
+        jdbcTemplate.update("""
+                with buyers as (
+                    select id, row_number() over () as n from users where email like 'plan-test-%'
+                )
+                insert into tickets (concert_id, concert_date, seat_number, status, buyer_id, purchase_timestamp,
+                                     reservation_expiration)
+                select c.id, c.date, 'S' || s,
+                       case when s % 20 = 0 then 'RESERVED' when s % 20 < 4 then 'SOLD' else 'AVAILABLE' end,
+                       case when s % 20 < 4 then b.id end,
+                       localtimestamp - make_interval(mins => (s * 7919 + c.id) % 525600),
+                       case when s % 20 = 0 then localtimestamp + make_interval(mins => s % 60 - 30) end
+                from concerts c
+                cross join generate_series(1, 5000) s
+                join buyers b on b.n = 1 + (s + c.id) % 1000
+                where c.id = any(?::int[])
+                """, (Object) concerts.toArray(Integer[]::new));
+        buyerId = jdbcTemplate.queryForObject(
+                "select buyer_id from tickets where concert_id = ? and buyer_id is not null limit 1", UUID.class, concertId);
+        // Partitions carry the parent's indexes under their own names
+        partitionIndexes = jdbcTemplate.query("""
+                select p.relname, c.relname from pg_inherits i
+                join pg_class c on c.oid = i.inhrelid
+                join pg_class p on p.oid = i.inhparent
+                where c.relkind = 'i'
+                """, (rs, i) -> new String[]{rs.getString(1), rs.getString(2)});
+        jdbcTemplate.execute("analyze tickets");
+        // Scanning a small or empty month partition whole is fine; the seeded ones must use an index
+        populatedPartitions = jdbcTemplate.queryForList(
+                "select distinct tableoid::regclass::text from tickets where concert_id = any(?::int[])",
+                String.class, (Object) concerts.toArray(Integer[]::new));
+    }
+
+    @Test
+    void countReservedOrSoldByConcertUsesPartialIndex() {
+        assertUsesIndex("idx_tickets_concert_taken",
+                "select count(t1_0.id) from tickets t1_0 where t1_0.concert_id=? and t1_0.concert_date=? "
+                        + "and t1_0.status in ('RESERVED','SOLD')",
+                concertId, concertDate);
+    }
+
+    @Test
+    void findByConcertIdAndStatusAvoidsSeqScan() {
+        assertNoSeqScan("select t1_0.* from tickets t1_0 where t1_0.concert_id=? and t1_0.concert_date=? and t1_0.status=? "
+                + "offset ? rows fetch first ? rows only", concertId, concertDate, "RESERVED", 0, 20);
+    }
+
+    @Test
+    void findExpiredReservationsUsesPartialIndex() {
+        assertUsesIndex("idx_tickets_reservation_expiration",
+                "select t1_0.* from tickets t1_0 where t1_0.status='RESERVED' and t1_0.reservation_expiration<localtimestamp");
+    }
+
+    @Test
+    void findByBuyerIdUsesIndex() {
+        assertUsesIndex("idx_tickets_buyer",
+                "select t1_0.* from tickets t1_0 where t1_0.buyer_id=? offset ? rows fetch first ? rows only",
+                buyerId, 0, 20);
+    }
+
+    @Test
+    void findByPurchaseTimestampBetweenUsesIndex() {
+        assertUsesIndex("idx_tickets_purchase_timestamp",
+                "select t1_0.* from tickets t1_0 where t1_0.purchase_timestamp between ? and ? "
+                        + "offset ? rows fetch first ? rows only",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(101)), Timestamp.valueOf(LocalDateTime.now().minusDays(100)), 0, 20);
+    }
+
+    private void assertUsesIndex(String index, String sql, Object... args) {
+        String plan = assertNoSeqScan(sql, args);
+        boolean used = plan.contains(index) || partitionIndexes.stream()
+                .anyMatch(names -> names[0].equals(index) && plan.contains(names[1]));
+        assertTrue(used, () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    private String assertNoSeqScan(String sql, Object... args) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, args));
+        boolean seqScan = plan.contains("Seq Scan on tickets ")
+                || populatedPartitions.stream().anyMatch(partition -> plan.contains("Seq Scan on " + partition + " "));
+        assertFalse(seqScan, () -> "Sequential scan for:\n" + sql + "\n" + plan);
+        return plan;
+    }
+}
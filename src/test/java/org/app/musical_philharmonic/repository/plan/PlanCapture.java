@@ -0,0 +1,125 @@
+package org.app.musical_philharmonic.repository.plan;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+
+/**
+ * JDBC proxy that, while {@link #capture} runs, also executes every SELECT Hibernate prepares as
+ * {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)} with the same bound parameters, then lets the
+ * original statement run as usual. That way the suite checks the SQL a derived query really
+ * generates instead of a hand-written copy of it.
+ */
+final class PlanCapture {
+
+    private static final ThreadLocal<List<QueryPlan>> CAPTURED = new ThreadLocal<>();
+
+    // Partitions and partition indexes with their parents
+    private static final String PARENTS = """
+            select c.relname, p.relname from pg_inherits i
+            join pg_class c on c.oid = i.inhrelid
+            join pg_class p on p.oid = i.inhparent
+            """;
+
+    private PlanCapture() {
+    }
+
+    static List<QueryPlan> capture(Runnable call) {
+        List<QueryPlan> plans = new ArrayList<>();
+        CAPTURED.set(plans);
+        try {
+            call.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return plans;
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            return result instanceof Connection connection ? wrap(connection) : result;
+        });
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement ps) {
+                return wrap(connection, ps, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private static PreparedStatement wrap(Connection connection, PreparedStatement statement, String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (!head.startsWith("select") && !head.startsWith("with")) {
+            return statement;
+        }
+        List<Object[]> bindings = new ArrayList<>();
+        return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bindings.add(new Object[]{method, args});
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if ((name.equals("executeQuery") || name.equals("execute")) && (args == null || args.length == 0)) {
+                List<QueryPlan> plans = CAPTURED.get();
+                if (plans != null) {
+                    plans.add(explain(connection, sql, bindings));
+                }
+            }
+            return method.invoke(target, args);
+        });
+    }
+
+    private static QueryPlan explain(Connection connection, String sql, List<Object[]> bindings) throws Exception {
+        try (PreparedStatement explain = connection.prepareStatement("explain (analyze, buffers, format json) " + sql)) {
+            for (Object[] binding : bindings) {
+                ((Method) binding[0]).invoke(explain, (Object[]) binding[1]);
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                return QueryPlan.parse(sql, rs.getString(1), parents(connection));
+            }
+        }
+    }
+
+    private static Map<String, String> parents(Connection connection) throws Exception {
+        Map<String, String> parents = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(PARENTS);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                parents.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        return parents;
+    }
+
+    private interface Call {
+        Object invoke(Object target, Method method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Call call) {
+        InvocationHandler handler = (p, method, args) -> {
+            try {
+                return call.invoke(target, method, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(PlanCapture.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,155 @@
+package org.app.musical_philharmonic.repository.plan;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * PostgreSQL for the plan suite: an embedded server (zonky, same major version as production)
+ * started once per JVM, or an existing database when {@code PLAN_DB_URL} is set, e.g. on machines
+ * where the build runs as root and initdb refuses to start. Point it at a dedicated database;
+ * the seed is committed and reused by later runs.
+ */
+public final class PlanDatabase {
+
+    static final int TICKETS = 1_000_000;
+    static final int USERS = 100_000;
+    static final int CONCERTS = 2_000;
+    static final int SESSIONS = 300_000;
+
+    private static EmbeddedPostgres embedded;
+    private static boolean ready;
+
+    private PlanDatabase() {
+    }
+
+    public static synchronized String url() {
+        String external = System.getenv("PLAN_DB_URL");
+        if (external != null && !external.isBlank()) {
+            return external;
+        }
+        if (embedded == null) {
+            try {
+                embedded = EmbeddedPostgres.builder()
+                        .setServerConfig("shared_buffers", "256MB")
+                        .setServerConfig("work_mem", "16MB")
+                        .start();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot start embedded PostgreSQL; set PLAN_DB_URL to use an existing one", ex);
+            }
+        }
+        return embedded.getJdbcUrl("postgres", "postgres");
+    }
+
+    public static String username() {
+        return System.getenv().getOrDefault("PLAN_DB_USERNAME", "postgres");
+    }
+
+    public static String password() {
+        return System.getenv().getOrDefault("PLAN_DB_PASSWORD", "postgres");
+    }
+
+    /**
+     * Seeds four seasons of data once, in one transaction so a failed run leaves nothing behind;
+     * the schema must already be migrated. VACUUM then runs outside it, once per JVM, to refresh
+     * the visibility map for index-only scans, also after a migration rewrote a table.
+     */
+    static synchronized void seed() throws SQLException {
+        if (ready) {
+            return;
+        }
+        try (Connection connection = DriverManager.getConnection(url(), username(), password());
+             Statement statement = connection.createStatement()) {
+            boolean seeded;
+            try (ResultSet rs = statement.executeQuery("select count(*) from users where email like 'plan-user-%'")) {
+                rs.next();
+                seeded = rs.getLong(1) >= USERS;
+            }
+            if (!seeded) {
+                insert(connection, statement);
+            }
+            statement.execute("vacuum analyze halls, performers, concerts, users, tickets, user_sessions");
+        }
+        ready = true;
+    }
+
+    private static void insert(Connection connection, Statement statement) throws SQLException {
+        connection.setAutoCommit(false);
+        statement.execute("""
+                insert into halls (name, location, capacity, seats_per_row)
+                select 'Plan hall ' || g, 'Plan city', 500, 25 from generate_series(1, 20) g
+                """);
+        statement.execute("""
+                insert into performers (name) select 'Plan performer ' || g from generate_series(1, 500) g
+                """);
+        // Four seasons around today, one or two concerts a day per hall group
+        statement.execute("""
+                insert into concerts (title, date, time, hall_id, performer_id, ticket_price)
+                select 'Plan concert ' || g,
+                       current_date - 1095 + (g * 1460 / %d),
+                       '19:00',
+                       (select min(id) from halls where name like 'Plan hall %%') + g %% 20,
+                       (select min(id) from performers where name like 'Plan performer %%') + g %% 500,
+                       500 + g %% 10 * 250
+                from generate_series(1, %d) g
+                """.formatted(CONCERTS, CONCERTS));
+        statement.execute("""
+                select ensure_tickets_partition(month::date)
+                from generate_series(current_date - 1095, current_date + 400, interval '1 month') month
+                """);
+        statement.execute("""
+                insert into users (id, email, name, password, role, created_at)
+                select gen_random_uuid(), 'plan-user-' || g || '@example.com', 'Plan user ' || g, 'x',
+                       case when g %% 1000 = 0 then 'ADMIN' when g %% 100 = 0 then 'CASHIER' else 'CUSTOMER' end,
+                       localtimestamp - make_interval(days => g %% 1460)
+                from generate_series(1, %d) g
+                """.formatted(USERS));
+        // 500 seats per concert, stored together as the seat-map generator writes them; past concerts
+        // are mostly sold, future ones mostly still on sale
+        statement.execute("""
+                with c as (
+                    select id, date, row_number() over (order by id) as n
+                    from concerts where title like 'Plan concert %%'
+                ), u as (
+                    select id, row_number() over (order by email) as n
+                    from users where email like 'plan-user-%%'
+                )
+                insert into tickets (concert_id, concert_date, seat_number, status, buyer_id, purchase_timestamp,
+                                     reservation_expiration, payment_method)
+                select c.id, c.date, chr(65 + s / 25) || (s %% 25 + 1), st.status,
+                       case when st.status <> 'AVAILABLE' then u.id end,
+                       c.date - make_interval(days => (1 + (s * 7 + c.n) %% 90)::int, mins => s),
+                       case when st.status = 'RESERVED' then localtimestamp + make_interval(mins => ((s + c.n) %% 1440)::int) end,
+                       case when st.status = 'SOLD' then 'CARD' end
+                from c
+                cross join generate_series(0, %d - 1) s
+                cross join lateral (select case
+                    when c.date < current_date then case when s %% 10 < 8 then 'SOLD' else 'AVAILABLE' end
+                    when s %% 50 = 0 then 'RESERVED'
+                    when s %% 10 < 3 then 'SOLD'
+                    else 'AVAILABLE' end as status) st
+                join u on u.n = 1 + (c.n * 500 + s) %% %d
+                order by c.id, s
+                """.formatted(TICKETS / CONCERTS, USERS));
+        statement.execute("""
+                with u as (
+                    select id, row_number() over (order by email) as n
+                    from users where email like 'plan-user-%%'
+                )
+                insert into user_sessions (id, user_id, login_time, logout_time)
+                select gen_random_uuid(), u.id,
+                       localtimestamp - make_interval(mins => g),
+                       case when g %% 20 <> 0 then localtimestamp - make_interval(mins => g) + interval '25 minutes' end
+                from generate_series(1, %d) g
+                join u on u.n = 1 + g %% %d
+                """.formatted(SESSIONS, USERS));
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+}
@@ -0,0 +1,82 @@
+package org.app.musical_philharmonic.repository.plan;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of an {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)} result the suite asserts on.
+ * Buffer counts are those of the root node, which include every child; hits and reads are added
+ * so the number does not depend on what happens to be cached. Partitions and their indexes are
+ * reported under the parent's name, with the partition kept alongside.
+ */
+record QueryPlan(String sql, List<Node> nodes, long buffers, double executionMs) {
+
+    record Node(String type, String relation, String partition, String index, long buffers) {
+    }
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    /**
+     * @param parents partition (table or index) name to its partitioned parent's name
+     */
+    static QueryPlan parse(String sql, String json, Map<String, String> parents) {
+        JsonNode result = MAPPER.readTree(json).get(0);
+        JsonNode root = result.get("Plan");
+        List<Node> nodes = new ArrayList<>();
+        collect(root, nodes, parents);
+        return new QueryPlan(sql, nodes, buffers(root), result.path("Execution Time").asDouble());
+    }
+
+    private static void collect(JsonNode node, List<Node> nodes, Map<String, String> parents) {
+        String relation = node.path("Relation Name").asString(null);
+        String index = node.path("Index Name").asString(null);
+        String parent = relation != null ? parents.get(relation) : null;
+        nodes.add(new Node(node.path("Node Type").asString(),
+                parent != null ? parent : relation,
+                parent != null ? relation : null,
+                index != null ? parents.getOrDefault(index, index) : null,
+                buffers(node)));
+        for (JsonNode child : node.path("Plans")) {
+            collect(child, nodes, parents);
+        }
+    }
+
+    private static long buffers(JsonNode node) {
+        return node.path("Shared Hit Blocks").asLong() + node.path("Shared Read Blocks").asLong();
+    }
+
+    // A scan of an empty month partition reads nothing and does not count
+    boolean seqScans(String table) {
+        return nodes.stream().anyMatch(n -> n.type().equals("Seq Scan") && table.equals(n.relation())
+                && (n.partition() == null || n.buffers() > 0));
+    }
+
+    long partitions(String table) {
+        return nodes.stream().filter(n -> table.equals(n.relation()) && n.partition() != null)
+                .map(Node::partition).distinct().count();
+    }
+
+    boolean usesIndex(String index) {
+        return nodes.stream().anyMatch(n -> index.equals(n.index()));
+    }
+
+    String shape() {
+        StringBuilder shape = new StringBuilder();
+        for (Node node : nodes) {
+            shape.append(shape.isEmpty() ? "" : " > ").append(node.type());
+            String target = node.index() != null ? node.index() : node.relation();
+            if (target != null) {
+                shape.append('(').append(target);
+                if (node.partition() != null) {
+                    shape.append(" on ").append(node.partition());
+                }
+                shape.append(')');
+            }
+        }
+        return shape.toString();
+    }
+}
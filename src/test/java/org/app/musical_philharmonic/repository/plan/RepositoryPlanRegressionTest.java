@@ -0,0 +1,352 @@
+package org.app.musical_philharmonic.repository.plan;
+
+import org.app.musical_philharmonic.entity.Role;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.app.musical_philharmonic.repository.ConcertRepository;
+import org.app.musical_philharmonic.repository.TicketRepository;
+import org.app.musical_philharmonic.repository.UserRepository;
+import org.app.musical_philharmonic.repository.UserSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Plan regression suite for the Ticket, Concert, User and UserSession repositories on production
+ * volumes (see {@link PlanDatabase}). Every repository query runs through the real Spring Data /
+ * Hibernate path; {@link PlanCapture} EXPLAIN ANALYZEs each SELECT it issues. Each test asserts
+ * the plan shape (no sequential scan on the large tables, the expected index) and a budget of
+ * shared buffers touched; per-concert ticket queries must also prune to the concert's month
+ * partition. Budgets are about twice what the seed needs today.
+ *
+ * <p>Run with {@code mvn test -Pplan-tests}; seeding takes about a minute the first time.
+ */
+@Tag("plan")
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        // Every call must reach the database to be explained
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RepositoryPlanRegressionTest.CaptureConfig.class)
+class RepositoryPlanRegressionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoryPlanRegressionTest.class);
+
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        static BeanPostProcessor planCaptureDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? PlanCapture.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PlanDatabase::url);
+        registry.add("spring.datasource.username", PlanDatabase::username);
+        registry.add("spring.datasource.password", PlanDatabase::password);
+    }
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ConcertRepository concertRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer upcomingConcertId;
+    private Integer pastConcertId;
+    private Integer hallId;
+    private Integer performerId;
+    private LocalDate concertDate;
+    private LocalDate pastConcertDate;
+    private UUID buyerId;
+    private String buyerEmail;
+    private LocalDateTime firstExpiry;
+
+    @BeforeEach
+    void seed() throws SQLException {
+        PlanDatabase.seed();
+        upcomingConcertId = jdbcTemplate.queryForObject(
+                "select min(id) from concerts where title like 'Plan concert %' and date > current_date + 30", Integer.class);
+        pastConcertId = jdbcTemplate.queryForObject(
+                "select max(id) from concerts where title like 'Plan concert %' and date < current_date - 30", Integer.class);
+        hallId = jdbcTemplate.queryForObject("select min(id) from halls where name like 'Plan hall %'", Integer.class);
+        performerId = jdbcTemplate.queryForObject("select min(id) from performers where name like 'Plan performer %'", Integer.class);
+        concertDate = jdbcTemplate.queryForObject("select date from concerts where id = ?", LocalDate.class, upcomingConcertId);
+        pastConcertDate = jdbcTemplate.queryForObject("select date from concerts where id = ?", LocalDate.class, pastConcertId);
+        buyerEmail = "plan-user-4242@example.com";
+        buyerId = jdbcTemplate.queryForObject("select id from users where email = ?", UUID.class, buyerEmail);
+        firstExpiry = jdbcTemplate.queryForObject(
+                "select min(reservation_expiration) from tickets where status = 'RESERVED'", LocalDateTime.class);
+    }
+
+    // --- TicketRepository ---
+    // Queries without the concert's date probe every month partition, a few buffers each
+
+
+    @Test
+    void ticketsByConcert() {
+        explain(() -> ticketRepository.findByConcertId(upcomingConcertId, concertDate, PAGE))
+                .noSeqScanOn("tickets").onePartitionOf("tickets").maxBuffers(20);
+    }
+
+    @Test
+    void ticketsByBuyer() {
+        explain(() -> ticketRepository.findByBuyerId(buyerId, PAGE))
+                .noSeqScanOn("tickets").usesIndex("idx_tickets_buyer").maxBuffers(220);
+    }
+
+    @Test
+    void reservedTickets() {
+        explain(() -> ticketRepository.findByStatus(TicketStatus.RESERVED, PAGE))
+                .noSeqScanOn("tickets").maxBuffers(260);
+    }
+
+    @Test
+    void soldCountByConcert() {
+        explain(() -> ticketRepository.countSoldByConcert(pastConcertId, pastConcertDate))
+                .noSeqScanOn("tickets").onePartitionOf("tickets").maxBuffers(20);
+    }
+
+    @Test
+    void availableCountByConcert() {
+        explain(() -> ticketRepository.countAvailableByConcert(upcomingConcertId, concertDate))
+                .noSeqScanOn("tickets").onePartitionOf("tickets").usesIndex("idx_tickets_concert_status").maxBuffers(20);
+    }
+
+    @Test
+    void takenCountByConcert() {
+        explain(() -> ticketRepository.countReservedOrSoldByConcert(upcomingConcertId, concertDate))
+                .noSeqScanOn("tickets").onePartitionOf("tickets").usesIndex("idx_tickets_concert_taken").maxBuffers(20);
+    }
+
+    @Test
+    void expiredReservations() {
+        // The sweep runs every tick, so it only ever sees the last minute or so of expiries
+        explain(() -> ticketRepository.findExpiredReservations(firstExpiry.plusMinutes(1)))
+                .noSeqScanOn("tickets").usesIndex("idx_tickets_reservation_expiration").maxBuffers(120);
+    }
+
+    @Test
+    void seatTakenCheck() {
+        // V5's partial unique index holds exactly the taken seats, so it answers this on its own
+        explain(() -> ticketRepository.existsByConcertIdAndSeatNumberAndStatusIn(upcomingConcertId, concertDate, "C7",
+                EnumSet.of(TicketStatus.SOLD, TicketStatus.RESERVED)))
+                .noSeqScanOn("tickets").onePartitionOf("tickets").usesIndex("uq_tickets_taken_seat").maxBuffers(10);
+    }
+
+    @Test
+    void ticketsByConcertAndStatus() {
+        explain(() -> ticketRepository.findByConcertIdAndStatus(upcomingConcertId, concertDate, TicketStatus.RESERVED, PAGE))
+                .noSeqScanOn("tickets").onePartitionOf("tickets").maxBuffers(20);
+    }
+
+    @Test
+    void availableTicketsForSeats() {
+        explain(() -> ticketRepository.findByConcertIdAndSeatNumberInAndStatus(upcomingConcertId, concertDate,
+                List.of("A1", "A2", "A3", "A4"), TicketStatus.AVAILABLE))
+                .noSeqScanOn("tickets").onePartitionOf("tickets").usesIndex("idx_tickets_concert_seat").maxBuffers(10);
+    }
+
+    @Test
+    void seatMapLoad() {
+        explain(() -> ticketRepository.findSeatsByConcertAndStatusIn(upcomingConcertId, concertDate,
+                List.of(TicketStatus.RESERVED, TicketStatus.SOLD)))
+                .noSeqScanOn("tickets").onePartitionOf("tickets").maxBuffers(20);
+    }
+
+    @Test
+    void salesHistoryWindow() {
+        LocalDateTime to = LocalDateTime.now().minusDays(200);
+        explain(() -> ticketRepository.findByPurchaseTimestampBetween(to.minusDays(1), to, PAGE))
+                .noSeqScanOn("tickets").usesIndex("idx_tickets_purchase_timestamp").maxBuffers(370);
+    }
+
+    @Test
+    void ticketsByConcertTitle() {
+        // Substring match on 2,000 concert titles is a scan of concerts; tickets must come from the index
+        explain(() -> ticketRepository.findByConcertNameContainingIgnoreCase("concert 1999", PAGE))
+                .noSeqScanOn("tickets").maxBuffers(490);
+    }
+
+    @Test
+    void ticketsByBuyerEmail() {
+        // Substring match on emails scans users; tickets must come from the buyer index
+        explain(() -> ticketRepository.findByBuyerEmailContainingIgnoreCase("plan-user-4242@", PAGE))
+                .noSeqScanOn("tickets").maxBuffers(2700);
+    }
+
+    // --- ConcertRepository: 2,000 rows, so budgets only ---
+
+    @Test
+    void concertsByHall() {
+        explain(() -> concertRepository.findByHallId(hallId, PAGE)).maxBuffers(60);
+    }
+
+    @Test
+    void concertsByPerformer() {
+        explain(() -> concertRepository.findByPerformerId(performerId, PAGE)).maxBuffers(45);
+    }
+
+    @Test
+    void concertsByTitle() {
+        explain(() -> concertRepository.findByTitleContainingIgnoreCase("concert 12", PAGE)).maxBuffers(70);
+    }
+
+    @Test
+    void concertsOnDate() {
+        explain(() -> concertRepository.findByDate(concertDate, PAGE)).maxBuffers(45);
+    }
+
+    @Test
+    void upcomingConcerts() {
+        explain(() -> concertRepository.findByDateBetween(LocalDate.now(), LocalDate.now().plusMonths(1), PAGE))
+                .maxBuffers(80);
+    }
+
+    @Test
+    void concertCountByPerformer() {
+        explain(() -> concertRepository.countByPerformer(performerId)).maxBuffers(45);
+    }
+
+    // --- UserRepository ---
+
+    @Test
+    void userByEmail() {
+        explain(() -> userRepository.findByEmail(buyerEmail))
+                .noSeqScanOn("users").usesIndex("users_email_key").maxBuffers(10);
+    }
+
+    // The 100 seeded admins sit on 100 heap pages. The page reads 20 of them; the count is an index-only
+    // scan, but on a fresh embedded server it still visits all 100 (measured 125 buffers) when the
+    // visibility map is not set yet. The budget allows for that; reading the whole table takes over 1300
+    @Test
+    void usersByRole() {
+        explain(() -> userRepository.findByRole(Role.ADMIN, PAGE))
+                .noSeqScanOn("users").usesIndex("idx_users_role").maxBuffers(140);
+    }
+
+    @Test
+    void usersByName() {
+        // Substring search over 100k names is a scan; the budget keeps it from getting worse
+        explain(() -> userRepository.findByNameContainingIgnoreCase("user 4242", PAGE)).maxBuffers(2700);
+    }
+
+    @Test
+    void usersByEmail() {
+        explain(() -> userRepository.findByEmailContainingIgnoreCase("user-4242@", PAGE)).maxBuffers(2700);
+    }
+
+    // --- UserSessionRepository ---
+
+    @Test
+    void sessionsOfUser() {
+        explain(() -> userSessionRepository.findByUserIdOrderByLoginTimeDesc(buyerId))
+                .noSeqScanOn("user_sessions").usesIndex("idx_user_sessions_user_login").maxBuffers(15);
+    }
+
+    @Test
+    void completedSessionsByRole() {
+        explain(() -> userSessionRepository.findCompletedSessionsByRole(Role.ADMIN))
+                .noSeqScanOn("user_sessions").usesIndex("idx_users_role").maxBuffers(1400);
+    }
+
+    @Test
+    void completedCustomerSessions() {
+        // Returns nearly every session, so it is a scan by nature; the budget guards against joins blowing up
+        explain(() -> userSessionRepository.findCompletedCustomerSessions()).maxBuffers(8200);
+    }
+
+    private PlanAssert explain(Runnable call) {
+        List<QueryPlan> plans = PlanCapture.capture(call);
+        assertFalse(plans.isEmpty(), "No SELECT was issued");
+        return new PlanAssert(plans);
+    }
+
+    private record PlanAssert(List<QueryPlan> plans) {
+
+        PlanAssert {
+            for (QueryPlan plan : plans) {
+                // For re-tuning the budgets: run with logging.level.org.app.musical_philharmonic.repository.plan=debug
+                log.debug("plan buffers={} time={}ms {}", plan.buffers(), String.format("%.2f", plan.executionMs()), plan.shape());
+            }
+        }
+
+        PlanAssert noSeqScanOn(String table) {
+            for (QueryPlan plan : plans) {
+                assertFalse(plan.seqScans(table), () -> "Seq Scan on " + table + ": " + plan.shape() + "\n" + plan.sql());
+            }
+            return this;
+        }
+
+        PlanAssert onePartitionOf(String table) {
+            for (QueryPlan plan : plans) {
+                assertEquals(1, plan.partitions(table), () -> "Not pruned to one partition: " + plan.shape());
+            }
+            return this;
+        }
+
+        PlanAssert usesIndex(String index) {
+            assertTrue(plans.stream().anyMatch(p -> p.usesIndex(index)),
+                    () -> "Expected " + index + " in " + shapes());
+            return this;
+        }
+
+        PlanAssert maxBuffers(long budget) {
+            long buffers = plans.stream().mapToLong(QueryPlan::buffers).sum();
+            if (buffers > budget) {
+                fail("Touched " + buffers + " buffers, budget " + budget + ": " + shapes());
+            }
+            return this;
+        }
+
+        private String shapes() {
+            return plans.stream().map(QueryPlan::shape).collect(Collectors.joining("; "));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.app.musical_philharmonic.seating;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.app.musical_philharmonic.entity.Concert;
+import org.app.musical_philharmonic.entity.Hall;
+import org.app.musical_philharmonic.journal.TicketEvent;
+import org.app.musical_philharmonic.journal.TicketEventJournal;
+import org.app.musical_philharmonic.journal.TicketEventType;
+import org.app.musical_philharmonic.repository.TicketRepository;
+import org.app.musical_philharmonic.repository.plan.PlanDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the expiry tick against the plan-suite PostgreSQL (see {@link PlanDatabase}): the guarded
+ * bulk update, the seat release after commit and the race with a purchase that commits between
+ * the lease coming due and the tick. Not transactional, the tick commits its own transaction;
+ * the rows it creates are deleted afterwards.
+ */
+@Tag("plan")
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HoldManagerIntegrationTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PlanDatabase::url);
+        registry.add("spring.datasource.username", PlanDatabase::username);
+        registry.add("spring.datasource.password", PlanDatabase::password);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final TicketEventJournal journal = mock(TicketEventJournal.class);
+    private SeatInventory seatInventory;
+    private HoldManager holdManager;
+    private Concert concert;
+    private UUID buyerId;
+
+    @BeforeEach
+    void setUp() {
+        Hall hall = new Hall();
+        hall.setCapacity(20);
+        hall.setSeatsPerRow(10);
+        hall.setId(jdbcTemplate.queryForObject(
+                "insert into halls (name, capacity, seats_per_row) values ('Hold test hall', 20, 10) returning id",
+                Integer.class));
+        Integer performerId = jdbcTemplate.queryForObject(
+                "insert into performers (name) values ('Hold test performer') returning id", Integer.class);
+        concert = new Concert();
+        concert.setDate(LocalDate.now().plusDays(30));
+        concert.setHall(hall);
+        jdbcTemplate.queryForObject("select ensure_tickets_partition(?)", String.class, concert.getDate());
+        concert.setId(jdbcTemplate.queryForObject("""
+                insert into concerts (title, date, time, hall_id, performer_id, ticket_price)
+                values ('Hold test concert', ?, '19:00', ?, ?, 1000) returning id
+                """, Integer.class, concert.getDate(), hall.getId(), performerId));
+        buyerId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                insert into users (id, email, password, role, created_at)
+                values (?, 'hold-test-' || ? || '@example.com', 'x', 'CUSTOMER', localtimestamp)
+                """, buyerId, buyerId.toString());
+
+        TicketRepository tickets = mock(TicketRepository.class);
+        when(tickets.findSeatsByConcertAndStatusIn(anyInt(), any(), any())).thenReturn(List.of());
+        seatInventory = new SeatInventory(tickets, transactionManager);
+        holdManager = new HoldManager(jdbcTemplate, transactionManager, seatInventory, journal,
+                new SimpleMeterRegistry(), 1024);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from tickets where concert_id = ? and concert_date = ?", concert.getId(), concert.getDate());
+        jdbcTemplate.update("delete from concerts where id = ?", concert.getId());
+        jdbcTemplate.update("delete from performers where name = 'Hold test performer'");
+        jdbcTemplate.update("delete from halls where id = ?", concert.getHall().getId());
+        jdbcTemplate.update("delete from users where id = ?", buyerId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void expiredHoldFreesItsSeatButAPurchaseJustBeforeTheTickStands() throws InterruptedException {
+        LocalDateTime expired = LocalDateTime.now().minusMinutes(1);
+        int abandoned = reserve("A1", expired);
+        int purchased = reserve("A2", expired);
+        // Both leases are already due when the purchase commits; its cancel has not reached the wheel yet
+        jdbcTemplate.update("""
+                update tickets set status = 'SOLD', reservation_expiration = null, payment_method = 'CARD'
+                where id = ? and concert_date = ?
+                """, purchased, concert.getDate());
+        seatInventory.sell(concert, List.of("A2"));
+        // The wheel fires on the millisecond after the one it was created in
+        Thread.sleep(5);
+
+        holdManager.expire();
+
+        Map<String, Object> released = row(abandoned);
+        assertEquals("AVAILABLE", released.get("status"));
+        assertNull(released.get("buyer_id"));
+        assertNull(released.get("reservation_expiration"));
+        Map<String, Object> sold = row(purchased);
+        assertEquals("SOLD", sold.get("status"));
+        assertEquals(buyerId, sold.get("buyer_id"));
+        assertEquals("CARD", sold.get("payment_method"));
+
+        SeatMap map = seatInventory.map(concert);
+        assertEquals(SeatMap.State.FREE, map.state(map.layout().indexOf("A1")));
+        assertEquals(SeatMap.State.SOLD, map.state(map.layout().indexOf("A2")));
+        assertEquals(19, map.free());
+        assertEquals(0, holdManager.active());
+
+        ArgumentCaptor<List<TicketEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(journal).publishAll(events.capture());
+        assertEquals(1, events.getValue().size());
+        assertEquals(TicketEventType.EXPIRED, events.getValue().get(0).type());
+        assertEquals(abandoned, events.getValue().get(0).ticketId());
+    }
+
+    private int reserve(String seat, LocalDateTime expiration) {
+        Integer id = jdbcTemplate.queryForObject("""
+                insert into tickets (concert_id, concert_date, seat_number, status, buyer_id, purchase_timestamp,
+                                     reservation_expiration)
+                values (?, ?, ?, 'RESERVED', ?, localtimestamp, ?) returning id
+                """, Integer.class, concert.getId(), concert.getDate(), seat, buyerId, expiration);
+        seatInventory.hold(concert, 1, seat);
+        holdManager.hold(id, expiration);
+        return id;
+    }
+
+    private Map<String, Object> row(int ticketId) {
+        return jdbcTemplate.queryForMap(
+                "select status, buyer_id, reservation_expiration, payment_method from tickets where id = ? and concert_date = ?",
+                ticketId, concert.getDate());
+    }
+}
@@ -0,0 +1,145 @@
+package org.app.musical_philharmonic.seating;
+
+import org.app.musical_philharmonic.entity.Concert;
+import org.app.musical_philharmonic.entity.Hall;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.app.musical_philharmonic.exception.SoldOutException;
+import org.app.musical_philharmonic.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeatInventoryTest {
+
+    private TicketRepository tickets;
+    private SeatInventory inventory;
+    private Concert concert;
+
+    @BeforeEach
+    void setUp() {
+        tickets = mock(TicketRepository.class);
+        when(tickets.findSeatsByConcertAndStatusIn(anyInt(), any(), any())).thenReturn(List.of());
+        inventory = new SeatInventory(tickets, mock(PlatformTransactionManager.class));
+        Hall hall = new Hall();
+        hall.setCapacity(20);
+        hall.setSeatsPerRow(10);
+        concert = new Concert();
+        concert.setId(1);
+        concert.setDate(LocalDate.now().plusDays(10));
+        concert.setHall(hall);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rollbackGivesBackOnlyItsOwnSeats() {
+        List<String> kept = inventory.hold(concert, 2, null);
+        List<TransactionSynchronization> rolledBack = inTransaction(() -> inventory.hold(concert, 3, null));
+        complete(rolledBack, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        SeatMap map = inventory.map(concert);
+        assertEquals(18, map.free());
+        for (String seat : kept) {
+            assertEquals(SeatMap.State.HELD, map.state(map.layout().indexOf(seat)));
+        }
+    }
+
+    @Test
+    void rolledBackSaleLeavesTheHoldInPlace() {
+        List<String> seats = inventory.hold(concert, 2, null);
+        List<TransactionSynchronization> rolledBack = inTransaction(() -> inventory.sell(concert, seats));
+        complete(rolledBack, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        SeatMap map = inventory.map(concert);
+        assertEquals(SeatMap.State.HELD, map.state(map.layout().indexOf(seats.get(0))));
+        assertEquals(18, map.free());
+    }
+
+    @Test
+    void adminEditsApplyAsDiffs() {
+        inventory.change(null, null, null, concert, "A1", TicketStatus.RESERVED);
+        assertThrows(SoldOutException.class,
+                () -> inventory.change(null, null, null, concert, "A1", TicketStatus.SOLD));
+
+        List<TransactionSynchronization> moved = inTransaction(() ->
+                inventory.change(concert, "A1", TicketStatus.RESERVED, concert, "B1", TicketStatus.SOLD));
+        SeatMap map = inventory.map(concert);
+        assertEquals(SeatMap.State.HELD, map.state(map.layout().indexOf("A1")), "old seat is freed on commit");
+        complete(moved, TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(SeatMap.State.FREE, map.state(map.layout().indexOf("A1")));
+        assertEquals(SeatMap.State.SOLD, map.state(map.layout().indexOf("B1")));
+        assertEquals(19, map.free());
+    }
+
+    @Test
+    void seatTakenElsewhereFailsWith409AndReloadsTheMap() {
+        SeatMap stale = inventory.map(concert);
+        // Another instance sold A1 after this one loaded its map
+        List<Object[]> taken = List.<Object[]>of(new Object[]{"A1", TicketStatus.SOLD});
+        when(tickets.findSeatsByConcertAndStatusIn(anyInt(), any(), any())).thenReturn(taken);
+        List<String> seats = inventory.hold(concert, 1, "A1");
+
+        SoldOutException ex = assertThrows(SoldOutException.class, () -> inventory.persist(concert.getId(), () -> {
+            throw new DataIntegrityViolationException("insert tickets",
+                    new SQLException("duplicate key value violates unique constraint", "23505"));
+        }));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        SeatMap reloaded = inventory.map(concert);
+        assertNotSame(stale, reloaded);
+        assertEquals(SeatMap.State.SOLD, reloaded.state(reloaded.layout().indexOf(seats.get(0))));
+    }
+
+    @Test
+    void otherIntegrityErrorsPassThrough() {
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("insert tickets",
+                new SQLException("null value in column", "23502"));
+
+        assertEquals(notNull, assertThrows(DataIntegrityViolationException.class,
+                () -> inventory.persist(concert.getId(), () -> {
+                    throw notNull;
+                })));
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations, int status) {
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.app.musical_philharmonic.seating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SeatLayoutTest {
+
+    @Test
+    void rowLabelsRunLikeSpreadsheetColumns() {
+        assertEquals("A", SeatLayout.rowLabel(0));
+        assertEquals("Z", SeatLayout.rowLabel(25));
+        assertEquals("AA", SeatLayout.rowLabel(26));
+        assertEquals("AZ", SeatLayout.rowLabel(51));
+        assertEquals("BA", SeatLayout.rowLabel(52));
+        assertEquals("ZZ", SeatLayout.rowLabel(701));
+        assertEquals("AAA", SeatLayout.rowLabel(702));
+    }
+
+    @Test
+    void labelsRoundTripAcrossEveryRow() {
+        SeatLayout layout = new SeatLayout(2_000, 7);
+        for (int index = 0; index < layout.capacity(); index++) {
+            assertEquals(index, layout.indexOf(layout.label(index)));
+        }
+    }
+
+    @Test
+    void lastRowMayBePartial() {
+        SeatLayout layout = new SeatLayout(25, 10);
+
+        assertEquals(3, layout.rows());
+        assertEquals(10, layout.seatsInRow(1));
+        assertEquals(5, layout.seatsInRow(2));
+        assertEquals(24, layout.indexOf("C5"));
+        assertEquals(-1, layout.indexOf("C6"));
+    }
+
+    @Test
+    void rejectsLabelsOutsideTheHall() {
+        SeatLayout layout = new SeatLayout(100, 10);
+
+        assertEquals(-1, layout.indexOf(null));
+        assertEquals(-1, layout.indexOf("N/A"));
+        assertEquals(-1, layout.indexOf("A0"));
+        assertEquals(-1, layout.indexOf("A11"));
+        assertEquals(-1, layout.indexOf("K1"));
+        assertEquals(-1, layout.indexOf("12"));
+        assertEquals(-1, layout.indexOf("B"));
+        assertEquals(-1, layout.indexOf("b2"));
+        assertEquals(-1, layout.indexOf("B2x"));
+        assertEquals(11, layout.indexOf("B2"));
+    }
+
+    @Test
+    void needsPositiveDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new SeatLayout(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new SeatLayout(10, 0));
+    }
+}
@@ -0,0 +1,187 @@
+package org.app.musical_philharmonic.seating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatMapTest {
+
+    @Test
+    void paddingPastTheRowEndIsNeverFree() {
+        // 70 seats span two words per row, the last row has 10
+        SeatMap map = new SeatMap(new SeatLayout(150, 70));
+
+        assertEquals(150, map.free());
+        assertEquals(70, map.longestRunInRow(0));
+        assertEquals(10, map.longestRunInRow(2));
+        assertEquals(10, map.freeInRow(2));
+        assertEquals(-1, map.findBlock(71));
+        assertEquals(-1, map.findBlock(151));
+    }
+
+    @Test
+    void blocksNeverSpanRows() {
+        SeatLayout layout = new SeatLayout(20, 10);
+        SeatMap map = new SeatMap(layout);
+        // Leaves A6..A10 and B1..B5 free: ten seats in a row across the aisle, but no block of six
+        assertTrue(map.hold(range(0, 5)));
+        assertTrue(map.hold(range(15, 5)));
+
+        assertEquals(10, map.free());
+        assertEquals(-1, map.holdBlock(6));
+        assertEquals(5, map.longestRunInRow(0));
+        assertEquals(5, map.longestRunInRow(1));
+    }
+
+    @Test
+    void runsAreMeasuredAcrossWordBoundaries() {
+        SeatMap map = new SeatMap(new SeatLayout(200, 200));
+        // Free run of seats 60..139 crosses two word boundaries
+        assertTrue(map.hold(range(0, 60)));
+        assertTrue(map.hold(range(140, 60)));
+
+        assertEquals(80, map.longestRunInRow(0));
+        int first = map.holdBlock(80);
+        assertEquals(60, first);
+        assertEquals(0, map.free());
+        assertEquals(0, map.longestRunInRow(0));
+    }
+
+    @Test
+    void holdSellAndReleaseMoveSeatsBetweenStates() {
+        SeatMap map = new SeatMap(new SeatLayout(30, 10));
+        int[] seats = {3, 4};
+
+        assertTrue(map.hold(seats));
+        assertFalse(map.hold(new int[]{4, 5}));
+        assertEquals(SeatMap.State.FREE, map.state(5), "a failed hold takes nothing");
+        assertEquals(SeatMap.State.HELD, map.state(3));
+        assertEquals(28, map.free());
+
+        SeatMap.State[] before = map.sell(new int[]{4, 9});
+        assertArrayEquals(new SeatMap.State[]{SeatMap.State.HELD, SeatMap.State.FREE}, before);
+        assertEquals(SeatMap.State.SOLD, map.state(4));
+        assertEquals(SeatMap.State.SOLD, map.state(9));
+        assertEquals(27, map.free());
+
+        map.unsell(new int[]{4});
+        assertEquals(SeatMap.State.HELD, map.state(4));
+
+        map.release(new int[]{3, 4, 9});
+        map.release(new int[]{3});
+        assertEquals(30, map.free());
+        assertEquals(10, map.freeInRow(0));
+        assertEquals(10, map.longestRunInRow(0));
+        assertEquals(SeatMap.State.FREE, map.state(9));
+    }
+
+    @Test
+    void longestRunKeepsUpWithRandomChanges() {
+        SeatLayout layout = new SeatLayout(1_000, 130);
+        SeatMap map = new SeatMap(layout);
+        boolean[] taken = new boolean[layout.capacity()];
+        Random random = new Random(7);
+        for (int step = 0; step < 20_000; step++) {
+            int index = random.nextInt(layout.capacity());
+            if (taken[index]) {
+                map.release(new int[]{index});
+            } else {
+                assertTrue(map.hold(new int[]{index}));
+            }
+            taken[index] = !taken[index];
+            int row = index / layout.seatsPerRow();
+            assertEquals(longestRun(layout, taken, row), map.longestRunInRow(row));
+        }
+        int free = 0;
+        for (boolean t : taken) {
+            free += t ? 0 : 1;
+        }
+        assertEquals(free, map.free());
+    }
+
+    // Same baseline as the best-available benchmark's fullScan, on shapes around word sizes. Blocks
+    // mirrored about a row's centre line cost the same, so the two may pick different halves of a tie.
+    @Test
+    void rankedSearchFindsTheSameBlockAsAFullScan() {
+        Random random = new Random(11);
+        int[][] shapes = {{5_000, 50}, {1_200, 33}, {700, 70}, {640, 64}, {300, 150}};
+        for (int[] shape : shapes) {
+            SeatLayout layout = new SeatLayout(shape[0], shape[1]);
+            for (int occupancy : new int[]{0, 50, 90, 99}) {
+                SeatMap map = new SeatMap(layout);
+                while ((layout.capacity() - map.free()) * 100 < occupancy * layout.capacity()) {
+                    map.hold(new int[]{random.nextInt(layout.capacity())});
+                }
+                for (int quantity = 1; quantity <= 8; quantity++) {
+                    int expected = fullScan(map, quantity);
+                    int actual = map.findBlock(quantity);
+                    String context = "%d/%d at %d%%, quantity %d".formatted(shape[0], shape[1], occupancy, quantity);
+                    assertEquals(expected < 0, actual < 0, context);
+                    if (expected >= 0) {
+                        assertEquals(cost(map, expected, quantity), cost(map, actual, quantity), 1e-9, context);
+                        assertTrue(fits(map, actual, quantity), context);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int fullScan(SeatMap map, int quantity) {
+        SeatLayout layout = map.layout();
+        int best = -1;
+        double bestCost = Double.MAX_VALUE;
+        for (int row : map.scoring().ranking()) {
+            int first = row * layout.seatsPerRow();
+            for (int start = 0; start + quantity <= layout.seatsInRow(row); start++) {
+                if (fits(map, first + start, quantity) && cost(map, first + start, quantity) < bestCost) {
+                    bestCost = cost(map, first + start, quantity);
+                    best = first + start;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static double cost(SeatMap map, int first, int quantity) {
+        int perRow = map.layout().seatsPerRow();
+        return map.scoring().blockCost(first / perRow, first % perRow, quantity);
+    }
+
+    // Free, and inside one row
+    private static boolean fits(SeatMap map, int first, int quantity) {
+        SeatLayout layout = map.layout();
+        int row = first / layout.seatsPerRow();
+        if (first % layout.seatsPerRow() + quantity > layout.seatsInRow(row)) {
+            return false;
+        }
+        for (int i = 0; i < quantity; i++) {
+            if (map.state(first + i) != SeatMap.State.FREE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int longestRun(SeatLayout layout, boolean[] taken, int row) {
+        int longest = 0;
+        int run = 0;
+        for (int seat = 0; seat < layout.seatsInRow(row); seat++) {
+            run = taken[row * layout.seatsPerRow() + seat] ? 0 : run + 1;
+            longest = Math.max(longest, run);
+        }
+        return longest;
+    }
+
+    private static int[] range(int first, int count) {
+        int[] seats = new int[count];
+        for (int i = 0; i < count; i++) {
+            seats[i] = first + i;
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,118 @@
+package org.app.musical_philharmonic.seating;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Time is a plain counter the test moves forward, so deadlines weeks away are checked in milliseconds of real time
+class TimingWheelTest {
+
+    private static final long START = 1_760_000_000_123L;
+
+    private TimingWheel wheel;
+    private long clock;
+    private List<Integer> expired;
+
+    @BeforeEach
+    void setUp() {
+        clock = START;
+        wheel = new TimingWheel(clock, 16);
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    void expiresExactlyAtDeadlineOnEveryLevel() {
+        long[] delays = {1, 255, 256, 257, 65_535, 65_536, Duration.ofMinutes(30).toMillis(),
+                Duration.ofHours(5).toMillis(), Duration.ofDays(20).toMillis(), Duration.ofDays(60).toMillis()};
+        for (int key = 0; key < delays.length; key++) {
+            wheel.schedule(key, START + delays[key]);
+        }
+        for (int key = 0; key < delays.length; key++) {
+            advanceTo(START + delays[key] - 1);
+            assertFalse(expired.contains(key), "key " + key + " expired early");
+            advanceTo(START + delays[key]);
+            assertEquals(List.of(key), expired.subList(expired.size() - 1, expired.size()));
+        }
+        assertEquals(delays.length, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledHoldNeverExpires() {
+        wheel.schedule(1, START + 1_000);
+        wheel.schedule(2, START + 1_000);
+
+        assertTrue(wheel.cancel(1));
+        assertFalse(wheel.cancel(1));
+        advanceTo(START + 5_000);
+
+        assertEquals(List.of(2), expired);
+    }
+
+    @Test
+    void reschedulingMovesTheDeadline() {
+        wheel.schedule(7, START + 1_000);
+        wheel.schedule(7, START + 90_000);
+        assertEquals(1, wheel.size());
+
+        advanceTo(START + 89_999);
+        assertTrue(expired.isEmpty());
+        advanceTo(START + 90_000);
+        assertEquals(List.of(7), expired);
+    }
+
+    @Test
+    void pastDeadlineExpiresOnNextTick() {
+        advanceTo(START + 10_000);
+        wheel.schedule(3, START);
+
+        advanceTo(START + 10_001);
+        assertEquals(List.of(3), expired);
+    }
+
+    @Test
+    void manyHoldsExpireInDeadlineOrder() {
+        Random random = new Random(7);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int key = 0; key < 200_000; key++) {
+            long deadline = START + 1 + random.nextInt((int) Duration.ofHours(2).toMillis());
+            deadlines.put(key, deadline);
+            wheel.schedule(key, deadline);
+        }
+        // Cancel every tenth to exercise unlinking from the middle of slot lists
+        for (int key = 0; key < 200_000; key += 10) {
+            assertTrue(wheel.cancel(key));
+            deadlines.remove(key);
+        }
+
+        long[] last = {0};
+        long until = START + Duration.ofHours(2).toMillis() + 1;
+        while (clock < until) {
+            clock += 1 + random.nextInt(250);
+            long now = clock;
+            wheel.advance(now, key -> {
+                long deadline = deadlines.remove(key);
+                assertTrue(deadline <= now && deadline >= last[0], "key " + key + " out of order");
+                last[0] = deadline;
+            });
+        }
+
+        assertTrue(deadlines.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    private void advanceTo(long millis) {
+        clock = millis;
+        wheel.advance(clock, expired::add);
+    }
+}
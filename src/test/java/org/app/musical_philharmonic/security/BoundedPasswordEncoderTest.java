@@ -0,0 +1,43 @@
+package org.app.musical_philharmonic.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void hashesOnThePool() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 250, 8, 2_000, registry);
+        try {
+            String hash = encoder.encode("secret");
+
+            assertTrue(encoder.matches("secret", hash));
+            assertFalse(encoder.matches("guess", hash));
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void hashThatOverrunsTheTimeoutFailsWith503() {
+        // Cost 14 takes around a second, far past the 1 ms timeout
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(14, 250, 8, 1, registry);
+        try {
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> encoder.encode("secret"));
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+            assertEquals(1, registry.get("security.password.timeouts").counter().count());
+        } finally {
+            encoder.shutdown();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.app.musical_philharmonic.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private static final long HOUR_MS = 3_600_000;
+
+    private final JwtService jwtService = mock(JwtService.class);
+
+    @Test
+    void rejectsOverBudgetWithRetryAfter() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(jwtService)
+                .rule("/api/auth/login", new RateLimiter(1, 1, 60_000, 100));
+
+        assertEquals(200, call(filter, post("/api/auth/login", "10.0.0.1")).getStatus());
+        MockHttpServletResponse rejected = call(filter, post("/api/auth/login", "10.0.0.1"));
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("60", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, call(filter, post("/api/auth/login", "10.0.0.2")).getStatus(), "other clients are unaffected");
+    }
+
+    @Test
+    void eachRuleHasItsOwnLimiterAndUnmatchedPathsPassThrough() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(jwtService)
+                .rule("/api/auth/login", new RateLimiter(1, 1, HOUR_MS, 100))
+                .rule("/api/auth/register", new RateLimiter(1, 1, HOUR_MS, 100));
+
+        assertEquals(200, call(filter, post("/api/auth/register", "10.0.0.1")).getStatus());
+        assertEquals(429, call(filter, post("/api/auth/register", "10.0.0.1")).getStatus());
+        assertEquals(200, call(filter, post("/api/auth/login", "10.0.0.1")).getStatus(), "registering does not use up logins");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call(filter, post("/api/concerts", "10.0.0.1")).getStatus());
+        }
+    }
+
+    @Test
+    void signedInUsersAreLimitedPerUserAndPerAddress() throws Exception {
+        when(jwtService.extractUsername("alice-token")).thenReturn("alice@example.com");
+        when(jwtService.extractUsername("bob-token")).thenReturn("bob@example.com");
+        when(jwtService.extractUsername("forged")).thenThrow(new JwtException("bad signature"));
+        RateLimitFilter filter = new RateLimitFilter(jwtService)
+                .rule("/api/concerts/public/**", new RateLimiter(1, 1, HOUR_MS, 100));
+
+        assertEquals(200, call(filter, get("10.0.0.1", "alice-token")).getStatus());
+        assertEquals(429, call(filter, get("10.0.0.2", "alice-token")).getStatus(), "same user from another address");
+        assertEquals(429, call(filter, get("10.0.0.1", "bob-token")).getStatus(), "another user from the same address");
+        assertEquals(200, call(filter, get("10.0.0.3", "forged")).getStatus());
+        assertEquals(429, call(filter, get("10.0.0.3", null)).getStatus(), "forged token counts as its address");
+    }
+
+    @Test
+    void addressRejectionLeavesTheUserBudgetAlone() throws Exception {
+        when(jwtService.extractUsername("alice-token")).thenReturn("alice@example.com");
+        RateLimitFilter filter = new RateLimitFilter(jwtService)
+                .rule("/api/concerts/public/**", new RateLimiter(1, 1, HOUR_MS, 100));
+
+        assertEquals(200, call(filter, get("10.0.0.1", null)).getStatus());
+        assertEquals(429, call(filter, get("10.0.0.1", "alice-token")).getStatus());
+        assertEquals(200, call(filter, get("10.0.0.2", "alice-token")).getStatus());
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() == 200) {
+            assertNotNull(chain.getRequest(), "allowed requests continue down the chain");
+        } else {
+            assertNull(chain.getRequest());
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String uri, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(address);
+        return request;
+    }
+
+    private static MockHttpServletRequest get(String address, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/concerts/public/upcoming");
+        request.setRemoteAddr(address);
+        if (token != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,61 @@
+package org.app.musical_philharmonic.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long HOUR_MS = 3_600_000;
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        RateLimiter limiter = new RateLimiter(2, 1, HOUR_MS, 100);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void refilledBucketsAreSweptFirst() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1, 1, 1, 3);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("c");
+        Thread.sleep(5);
+
+        assertEquals(0, limiter.tryAcquire("d"));
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void fullMapEvictsTheLeastRecentlyUsedInsteadOfSharingABucket() throws InterruptedException {
+        // Nothing refills during the test, so the sweep frees nothing
+        RateLimiter limiter = new RateLimiter(1, 1, HOUR_MS, 4);
+        for (String key : new String[]{"a", "b", "c", "d"}) {
+            assertEquals(0, acquire(limiter, key));
+        }
+        assertTrue(acquire(limiter, "a") > 0, "a is drained but now the most recently used");
+
+        assertEquals(0, acquire(limiter, "e"), "a new client gets its own bucket");
+        assertEquals(4, limiter.size());
+        assertTrue(acquire(limiter, "a") > 0);
+        assertTrue(acquire(limiter, "d") > 0);
+        assertEquals(0, acquire(limiter, "f"), "and so does the next one");
+        assertEquals(0, acquire(limiter, "b"), "b was evicted and starts over");
+        assertTrue(acquire(limiter, "a") > 0);
+        assertTrue(acquire(limiter, "d") > 0);
+        assertEquals(0, acquire(limiter, "e"), "e was evicted in turn");
+        assertEquals(4, limiter.size());
+    }
+
+    // Keeps the access times of consecutive calls apart
+    private static long acquire(RateLimiter limiter, String key) throws InterruptedException {
+        Thread.sleep(1);
+        return limiter.tryAcquire(key);
+    }
+}
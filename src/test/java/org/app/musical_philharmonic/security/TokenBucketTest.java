@@ -0,0 +1,59 @@
+package org.app.musical_philharmonic.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void grantsTheBurstThenOneTokenPerInterval() {
+        // 3 tokens, refilled at 2 per second
+        TokenBucket bucket = new TokenBucket(3, 2, SECOND, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(0));
+        }
+        assertEquals(SECOND / 2, bucket.tryConsume(0));
+        assertEquals(SECOND / 4, bucket.tryConsume(SECOND / 4));
+        assertEquals(0, bucket.tryConsume(SECOND / 2));
+        assertEquals(SECOND / 2, bucket.tryConsume(SECOND / 2), "rejected calls do not use up time");
+    }
+
+    @Test
+    void refillsUpToCapacityAndNoFurther() {
+        TokenBucket bucket = new TokenBucket(2, 1, SECOND, 0);
+        assertEquals(0, bucket.tryConsume(0));
+        assertFalse(bucket.isFull(0));
+
+        long later = 100 * SECOND;
+        assertTrue(bucket.isFull(later));
+        assertEquals(0, bucket.tryConsume(later));
+        assertEquals(0, bucket.tryConsume(later));
+        assertTrue(bucket.tryConsume(later) > 0);
+    }
+
+    @Test
+    void worksAcrossTheNanoTimeSignFlip() {
+        long start = Long.MAX_VALUE - SECOND / 2;
+        TokenBucket bucket = new TokenBucket(1, 1, SECOND, start);
+
+        assertEquals(0, bucket.tryConsume(start));
+        assertEquals(SECOND, bucket.tryConsume(start));
+        assertEquals(0, bucket.tryConsume(start + SECOND));
+    }
+
+    @Test
+    void needsPositiveParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, SECOND, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, SECOND, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 1, 0, 0));
+    }
+}
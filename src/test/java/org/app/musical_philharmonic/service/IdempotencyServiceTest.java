@@ -0,0 +1,89 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.dto.TicketResponse;
+import org.app.musical_philharmonic.entity.IdempotencyRecord;
+import org.app.musical_philharmonic.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// H2 schema from the mapping, as in SecondLevelCacheTest; its own cache prefix keeps the contexts apart
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.cache.region_prefix=h2-idempotency-test"
+})
+// The service commits in its own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void expiredKeyStillInTheTableRunsTheNewRequest() {
+        List<TicketResponse> first = service().execute("key-1", "purchase", "alice@example.com", "2 tickets",
+                () -> List.of(ticket(1)));
+        assertEquals(1, first.get(0).getId());
+        // Past the TTL but not purged yet; a fresh instance has nothing cached
+        jdbcTemplate.update("update idempotency_keys set created_at = ?", LocalDateTime.now().minusHours(30));
+
+        List<TicketResponse> second = service().execute("key-1", "purchase", "alice@example.com", "2 tickets",
+                () -> List.of(ticket(2)));
+
+        assertEquals(2, second.get(0).getId());
+        List<IdempotencyRecord> records = repository.findAll();
+        assertEquals(1, records.size());
+        assertTrue(records.get(0).getResponseBody().contains("\"id\":2"));
+        assertTrue(records.get(0).getCreatedAt().isAfter(LocalDateTime.now().minusHours(1)));
+    }
+
+    @Test
+    void liveKeyReplaysWithoutRunningAgain() {
+        service().execute("key-2", "purchase", "bob@example.com", "1 ticket", () -> List.of(ticket(3)));
+
+        List<TicketResponse> replayed = service().execute("key-2", "purchase", "bob@example.com", "1 ticket",
+                () -> {
+                    throw new AssertionError("a live key must not sell again");
+                });
+
+        assertEquals(3, replayed.get(0).getId());
+    }
+
+    private IdempotencyService service() {
+        IdempotencyService service = new IdempotencyService(repository, transactionManager, JsonMapper.builder().build(), 100);
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+        return service;
+    }
+
+    private static TicketResponse ticket(int id) {
+        TicketResponse response = new TicketResponse();
+        response.setId(id);
+        return response;
+    }
+}
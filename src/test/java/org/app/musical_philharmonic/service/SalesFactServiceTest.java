@@ -0,0 +1,89 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.entity.Concert;
+import org.app.musical_philharmonic.entity.Hall;
+import org.app.musical_philharmonic.entity.Performer;
+import org.app.musical_philharmonic.entity.SaleFact;
+import org.app.musical_philharmonic.entity.SaleKind;
+import org.app.musical_philharmonic.entity.Ticket;
+import org.app.musical_philharmonic.entity.TicketStatus;
+import org.app.musical_philharmonic.repository.SaleFactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SalesFactServiceTest {
+
+    private final SaleFactRepository repository = mock(SaleFactRepository.class);
+    private final SalesRollupService rollup = mock(SalesRollupService.class);
+    private final SalesFactService service = new SalesFactService(repository, rollup);
+    private Ticket ticket;
+
+    @BeforeEach
+    void setUp() {
+        Hall hall = new Hall();
+        hall.setId(1);
+        Performer performer = new Performer();
+        performer.setId(2);
+        Concert concert = new Concert();
+        concert.setId(3);
+        concert.setDate(LocalDate.of(2024, 5, 1));
+        concert.setHall(hall);
+        concert.setPerformer(performer);
+        concert.setTicketPrice(new BigDecimal("1500.00"));
+        ticket = new Ticket();
+        ticket.setId(4);
+        ticket.setConcert(concert);
+        ticket.setSeatNumber("A1");
+        ticket.setStatus(TicketStatus.SOLD);
+        ticket.setPurchaseTimestamp(LocalDateTime.of(2024, 3, 10, 12, 0));
+    }
+
+    @Test
+    void returnReversesTheAmountCapturedAtSaleTime() {
+        SaleFact sale = new SaleFact();
+        sale.setAmount(new BigDecimal("1200.00"));
+        when(repository.findFirstByTicketIdAndKindOrderByIdDesc(anyInt(), eq(SaleKind.SALE))).thenReturn(Optional.of(sale));
+
+        List<SaleFact> facts = recordReturn();
+
+        assertEquals(1, facts.size());
+        assertEquals(SaleKind.RETURN, facts.get(0).getKind());
+        assertEquals(new BigDecimal("-1200.00"), facts.get(0).getAmount());
+    }
+
+    @Test
+    void returnOfATicketSoldBeforeTheFactTableRecordsTheMissingSale() {
+        when(repository.findFirstByTicketIdAndKindOrderByIdDesc(anyInt(), eq(SaleKind.SALE))).thenReturn(Optional.empty());
+
+        List<SaleFact> facts = recordReturn();
+
+        assertEquals(List.of(SaleKind.SALE, SaleKind.RETURN), facts.stream().map(SaleFact::getKind).toList());
+        assertEquals(ticket.getPurchaseTimestamp(), facts.get(0).getOccurredAt());
+        BigDecimal net = facts.stream().map(SaleFact::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, net.signum(), "the refund nets out the sale");
+        assertEquals(0, facts.stream().mapToInt(SaleFact::getQuantity).sum());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SaleFact> recordReturn() {
+        service.recordReturn(ticket);
+        ArgumentCaptor<List<SaleFact>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        verify(rollup).record(saved.getValue());
+        return saved.getValue();
+    }
+}
@@ -0,0 +1,102 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.entity.RollupGranularity;
+import org.app.musical_philharmonic.service.SalesRollupService.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.app.musical_philharmonic.entity.RollupGranularity.DAY;
+import static org.app.musical_philharmonic.entity.RollupGranularity.HOUR;
+import static org.app.musical_philharmonic.entity.RollupGranularity.MINUTE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SalesRollupServiceTest {
+
+    @Test
+    void unalignedRangeUsesMinutesAndHoursAroundWholeDays() {
+        List<Piece> pieces = SalesRollupService.decompose(at("2024-05-10T22:17"), at("2024-05-13T03:45"));
+
+        assertEquals(List.of(
+                new Piece(MINUTE, at("2024-05-10T22:17"), at("2024-05-10T23:00")),
+                new Piece(HOUR, at("2024-05-10T23:00"), at("2024-05-11T00:00")),
+                new Piece(DAY, at("2024-05-11T00:00"), at("2024-05-13T00:00")),
+                new Piece(HOUR, at("2024-05-13T00:00"), at("2024-05-13T03:00")),
+                new Piece(MINUTE, at("2024-05-13T03:00"), at("2024-05-13T03:45"))), pieces);
+    }
+
+    @Test
+    void rangesWithoutAWholeDayStayInHoursAndMinutes() {
+        assertEquals(List.of(new Piece(MINUTE, at("2024-05-10T10:05"), at("2024-05-10T10:50"))),
+                SalesRollupService.decompose(at("2024-05-10T10:05"), at("2024-05-10T10:50")));
+        assertEquals(List.of(
+                        new Piece(MINUTE, at("2024-05-10T10:05"), at("2024-05-10T11:00")),
+                        new Piece(HOUR, at("2024-05-10T11:00"), at("2024-05-11T02:00")),
+                        new Piece(MINUTE, at("2024-05-11T02:00"), at("2024-05-11T02:30"))),
+                SalesRollupService.decompose(at("2024-05-10T10:05"), at("2024-05-11T02:30")));
+    }
+
+    @Test
+    void alignedRangeIsOnePieceOfItsGranularity() {
+        assertEquals(List.of(new Piece(DAY, at("2024-01-01T00:00"), at("2025-01-01T00:00"))),
+                SalesRollupService.decompose(at("2024-01-01T00:00"), at("2025-01-01T00:00")));
+        assertEquals(List.of(new Piece(HOUR, at("2024-01-01T09:00"), at("2024-01-01T17:00"))),
+                SalesRollupService.decompose(at("2024-01-01T09:00"), at("2024-01-01T17:00")));
+    }
+
+    @Test
+    void emptyRangeHasNoPieces() {
+        assertEquals(List.of(), SalesRollupService.decompose(at("2024-05-10T10:05"), at("2024-05-10T10:05")));
+        assertEquals(List.of(), SalesRollupService.decompose(at("2024-05-11T00:00"), at("2024-05-11T00:00")));
+        assertEquals(List.of(), SalesRollupService.decompose(at("2024-05-11T00:00"), at("2024-05-10T00:00")));
+    }
+
+    // Facts and buckets are local wall-clock times, so a DST day is one DAY bucket and its skipped or
+    // repeated hour is one HOUR bucket like any other (with no sales, or two real hours of them)
+    @Test
+    void daylightSavingDaysSplitOnWallClockBoundaries() {
+        assertEquals(List.of(
+                        new Piece(MINUTE, at("2024-03-31T01:30"), at("2024-03-31T02:00")),
+                        new Piece(HOUR, at("2024-03-31T02:00"), at("2024-03-31T03:00")),
+                        new Piece(MINUTE, at("2024-03-31T03:00"), at("2024-03-31T03:30"))),
+                SalesRollupService.decompose(at("2024-03-31T01:30"), at("2024-03-31T03:30")));
+        assertEquals(List.of(
+                        new Piece(HOUR, at("2024-10-26T20:00"), at("2024-10-27T00:00")),
+                        new Piece(DAY, at("2024-10-27T00:00"), at("2024-10-28T00:00")),
+                        new Piece(HOUR, at("2024-10-28T00:00"), at("2024-10-28T04:00"))),
+                SalesRollupService.decompose(at("2024-10-26T20:00"), at("2024-10-28T04:00")));
+    }
+
+    @Test
+    void piecesTileAnyRangeWithAlignedBuckets() {
+        Random random = new Random(3);
+        LocalDateTime origin = at("2024-01-01T00:00");
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime from = origin.plusMinutes(random.nextInt(60 * 24 * 90));
+            LocalDateTime to = from.plusMinutes(random.nextInt(60 * 24 * (random.nextBoolean() ? 3 : 60)));
+            List<Piece> pieces = SalesRollupService.decompose(from, to);
+
+            assertTrue(pieces.size() <= 5, from + ".." + to);
+            LocalDateTime cursor = from;
+            for (Piece piece : pieces) {
+                assertEquals(cursor, piece.from(), from + ".." + to);
+                assertTrue(piece.from().isBefore(piece.to()), from + ".." + to);
+                assertAligned(piece.granularity(), piece.from());
+                assertAligned(piece.granularity(), piece.to());
+                cursor = piece.to();
+            }
+            assertEquals(to, cursor, from + ".." + to);
+        }
+    }
+
+    private static void assertAligned(RollupGranularity granularity, LocalDateTime time) {
+        assertEquals(granularity.floor(time), time);
+    }
+
+    private static LocalDateTime at(String time) {
+        return LocalDateTime.parse(time);
+    }
+}
@@ -0,0 +1,32 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.entity.Hall;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SeatImportServiceTest {
+
+    @Test
+    void seatMapFollowsTheHallLayout() {
+        Hall hall = new Hall();
+        hall.setCapacity(5);
+        hall.setSeatsPerRow(2);
+
+        assertEquals(List.of("A1", "A2", "B1", "B2", "C1"), SeatImportService.seatMap(hall));
+    }
+
+    @Test
+    void hallWithoutALayoutHasNoSeatMapToGenerate() {
+        Hall hall = new Hall();
+        hall.setCapacity(500);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> SeatImportService.seatMap(hall));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+}
@@ -0,0 +1,81 @@
+package org.app.musical_philharmonic.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.app.musical_philharmonic.exception.SoldOutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+class TicketMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private TicketMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new TicketMetrics(registry);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rejectionsAreTaggedByCause() {
+        assertThrows(SoldOutException.class, () -> metrics.<List<String>>record("book",
+                () -> { throw new SoldOutException(BAD_REQUEST, "Hall is full"); }, List::size));
+        assertThrows(ResponseStatusException.class, () -> metrics.<List<String>>record("book",
+                () -> { throw new ResponseStatusException(NOT_FOUND, "Concert not found"); }, List::size));
+        assertThrows(IllegalStateException.class, () -> metrics.<List<String>>record("book",
+                () -> { throw new IllegalStateException("boom"); }, List::size));
+
+        assertEquals(1, count("book", "sold_out"));
+        assertEquals(1, count("book", "rejected"));
+        assertEquals(1, count("book", "failed"));
+        assertNull(registry.find("tickets.processed").counter());
+    }
+
+    @Test
+    void transactionalCallsCountOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        metrics.record("purchase", () -> List.of("A1", "A2"), List::size);
+        assertNull(registry.find("tickets.operation").timer());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertEquals(1, count("purchase", "success"));
+        assertEquals(2, registry.get("tickets.processed").tag("operation", "purchase").counter().count());
+    }
+
+    @Test
+    void rolledBackCallsCountAsFailed() {
+        TransactionSynchronizationManager.initSynchronization();
+        metrics.record("return", () -> "ticket", ticket -> 1);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals(1, count("return", "failed"));
+        assertNull(registry.find("tickets.processed").counter());
+    }
+
+    private long count(String operation, String outcome) {
+        return registry.get("tickets.operation").tag("operation", operation).tag("outcome", outcome).timer().count();
+    }
+}
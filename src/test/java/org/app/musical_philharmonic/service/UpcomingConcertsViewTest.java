@@ -0,0 +1,93 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.cache.EntityVersions;
+import org.app.musical_philharmonic.entity.Concert;
+import org.app.musical_philharmonic.repository.ConcertRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UpcomingConcertsViewTest {
+
+    @Test
+    void readersThatFindTheViewStaleRebuildItOnce() throws Exception {
+        ConcertRepository concerts = mock(ConcertRepository.class);
+        when(concerts.findByDateBetween(any(), any(), any())).thenAnswer(invocation -> {
+            // Long enough for every reader to see the stale snapshot
+            Thread.sleep(200);
+            return new PageImpl<Concert>(List.of());
+        });
+        UpcomingConcertsView view = new UpcomingConcertsView(concerts, new EntityVersions());
+        int readers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<Page<?>>> pages = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                pages.add(pool.submit(() -> {
+                    start.await();
+                    return view.page(Pageable.ofSize(20));
+                }));
+            }
+            start.countDown();
+            for (Future<Page<?>> page : pages) {
+                assertEquals(0, page.get().getTotalElements());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(concerts, times(1)).findByDateBetween(any(), any(), any());
+        assertEquals(LocalDate.now(), view.windowStart());
+    }
+
+    @Test
+    void refreshPicksUpConcertsWrittenElsewhereAndMovesTheVersion() {
+        ConcertRepository concerts = mock(ConcertRepository.class);
+        EntityVersions versions = new EntityVersions();
+        when(concerts.findByDateBetween(any(), any(), any())).thenReturn(new PageImpl<>(List.of()));
+        UpcomingConcertsView view = new UpcomingConcertsView(concerts, versions);
+        view.rebuild();
+
+        view.refresh();
+        EntityVersions.Version unchanged = versions.ofCollection(EntityVersions.Kind.CONCERT);
+        // Another instance created a concert; only its own view was patched
+        when(concerts.findByDateBetween(any(), any(), any())).thenReturn(new PageImpl<>(List.of(concert(7))));
+        view.refresh();
+
+        assertEquals(1, view.page(Pageable.ofSize(20)).getTotalElements());
+        assertNotEquals(unchanged, versions.ofCollection(EntityVersions.Kind.CONCERT));
+        EntityVersions.Version changed = versions.ofCollection(EntityVersions.Kind.CONCERT);
+        view.refresh();
+        assertEquals(changed, versions.ofCollection(EntityVersions.Kind.CONCERT), "no change, no new version");
+    }
+
+    private static Concert concert(int id) {
+        Concert concert = new Concert();
+        concert.setId(id);
+        concert.setTitle("Concert " + id);
+        concert.setDate(LocalDate.now().plusDays(3));
+        concert.setTime(LocalTime.of(19, 0));
+        concert.setTicketPrice(new BigDecimal("500"));
+        return concert;
+    }
+}
@@ -0,0 +1,64 @@
+package org.app.musical_philharmonic.service;
+
+import org.app.musical_philharmonic.dto.UserCreateRequest;
+import org.app.musical_philharmonic.dto.UserUpdateRequest;
+import org.app.musical_philharmonic.entity.User;
+import org.app.musical_philharmonic.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+    private final UserRepository users = mock(UserRepository.class);
+    private final PasswordEncoder encoder = mock(PasswordEncoder.class);
+    private final PlatformTransactionManager transactions = mock(PlatformTransactionManager.class);
+    private final UserService service = new UserService(users, encoder, transactions);
+
+    @Test
+    void createHashesBeforeTheTransactionStarts() {
+        when(encoder.encode("secret")).thenReturn("hash");
+        when(transactions.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(users.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        UserCreateRequest request = new UserCreateRequest();
+        request.setEmail("new@example.com");
+        request.setPassword("secret");
+
+        service.create(request);
+
+        InOrder order = inOrder(encoder, transactions, users);
+        order.verify(encoder).encode("secret");
+        order.verify(transactions).getTransaction(any());
+        order.verify(users).save(any());
+        order.verify(transactions).commit(any());
+    }
+
+    @Test
+    void updateHashesBeforeTheTransactionStarts() {
+        UUID id = UUID.randomUUID();
+        when(encoder.encode("secret")).thenReturn("hash");
+        when(transactions.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(users.findById(id)).thenReturn(Optional.of(new User()));
+        when(users.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.setPassword("secret");
+
+        service.update(id, request);
+
+        InOrder order = inOrder(encoder, transactions, users);
+        order.verify(encoder).encode("secret");
+        order.verify(transactions).getTransaction(any());
+        order.verify(users).findById(id);
+        order.verify(transactions).commit(any());
+    }
+}
@@ -0,0 +1,136 @@
+package org.app.musical_philharmonic.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.app.musical_philharmonic.dto.ConcertRequest;
+import org.app.musical_philharmonic.dto.HallRequest;
+import org.app.musical_philharmonic.dto.PerformerRequest;
+import org.app.musical_philharmonic.dto.UserCreateRequest;
+import org.app.musical_philharmonic.service.ConcertService;
+import org.app.musical_philharmonic.service.HallService;
+import org.app.musical_philharmonic.service.PerformerService;
+import org.app.musical_philharmonic.service.TicketService;
+import org.app.musical_philharmonic.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "sql.statements.fail-over-budget=true")
+@AutoConfigureMockMvc
+class StatementBudgetTest {
+
+    private static final int BUYERS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HallService hallService;
+
+    @Autowired
+    private PerformerService performerService;
+
+    @Autowired
+    private ConcertService concertService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    // Tickets of distinct buyers: without batch fetching every buyer is one more statement
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void ticketSearchStaysWithinBudgetWhateverThePageHolds() throws Exception {
+        HallRequest hall = new HallRequest();
+        hall.setName("Statement budget hall");
+        hall.setCapacity(100);
+        int hallId = hallService.create(hall).getId();
+        PerformerRequest performer = new PerformerRequest();
+        performer.setName("Statement budget performer");
+        int performerId = performerService.create(performer).getId();
+        ConcertRequest concert = new ConcertRequest();
+        concert.setTitle("Statement budget");
+        concert.setDate(LocalDate.now().plusDays(7));
+        concert.setTime(LocalTime.of(19, 0));
+        concert.setHallId(hallId);
+        concert.setPerformerId(performerId);
+        concert.setTicketPrice(new BigDecimal("10.00"));
+        int concertId = concertService.create(concert).getId();
+        List<UUID> buyers = new ArrayList<>();
+        try {
+            for (int i = 0; i < BUYERS; i++) {
+                UserCreateRequest user = new UserCreateRequest();
+                user.setEmail("statement-budget-" + UUID.randomUUID() + "@example.com");
+                user.setName("Statement budget " + i);
+                user.setPassword(UUID.randomUUID().toString());
+                UUID buyer = userService.create(user).getId();
+                buyers.add(buyer);
+                ticketService.book(concertId, null, buyer, null, "test", 1);
+            }
+
+            mockMvc.perform(post("/api/tickets/search").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"concertId\":%d,\"page\":0,\"size\":20}".formatted(concertId)))
+                    .andExpect(status().isOk());
+
+            DistributionSummary statements = meterRegistry.find("sql.request.statements")
+                    .tag("endpoint", "POST /api/tickets/search").summary();
+            assertNotNull(statements);
+            assertTrue(statements.count() > 0);
+        } finally {
+            jdbcTemplate.update("delete from tickets where concert_id = ?", concertId);
+            for (UUID buyer : buyers) {
+                jdbcTemplate.update("delete from users where id = ?", buyer);
+            }
+            concertService.delete(concertId);
+            performerService.delete(performerId);
+            hallService.delete(hallId);
+        }
+    }
+
+    @Test
+    void requestOverBudgetFailsInStrictMode() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        StatementBudgetFilter filter = new StatementBudgetFilter(2, true, registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/concerts/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/concerts/{id}");
+        FilterChain chain = (req, res) -> RequestStatements.current().statements += 3;
+
+        assertThrows(StatementBudgetFilter.StatementBudgetExceededException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), chain));
+        assertEquals(1, registry.get("sql.request.over.budget").tag("endpoint", "GET /api/concerts/{id}")
+                .counter().count());
+        assertEquals(3, registry.get("sql.request.statements").summary().max());
+    }
+}